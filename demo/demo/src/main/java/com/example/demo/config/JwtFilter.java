@@ -2,12 +2,13 @@ package com.example.demo.config;
 
 import com.example.demo.service.ProductService;
 import com.example.demo.service.jwtservice;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.context.ApplicationContext;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -20,21 +21,38 @@ import java.io.IOException;
 public class JwtFilter extends OncePerRequestFilter {
     @Autowired
 private jwtservice jwtservices;
+    // Resolved once at startup instead of through ApplicationContext.getBean per request
     @Autowired
-    ApplicationContext context;
+    private ProductService userDetailsService;
+    // Authenticate self-contained tokens from their claims alone, with no user lookup
+    @Value("${jwt.stateless-auth:false}")
+    private boolean statelessAuth;
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
         String authHeader=request.getHeader("Authorization");
-        String token=null;
+        Claims claims=null;
         String username =null;
         if(authHeader!=null&&authHeader.startsWith("Bearer ")){
-            token=authHeader.substring(7);
-            username=jwtservices.extractUserName(token);
+            // Parsed and verified once; the claims are reused for validation below
+            claims=jwtservices.verify(authHeader.substring(7));
+            // A revoked token leaves the request unauthenticated
+            if (!jwtservices.isRevoked(claims)) {
+                username=claims.getSubject();
+            }
         }
         if(username!=null&& SecurityContextHolder.getContext().getAuthentication()==null){
-            UserDetails userDetails=context.getBean(ProductService.class).loadUserByUsername(username);
-            if (jwtservices.validateToken(token, userDetails)){
-                UsernamePasswordAuthenticationToken authtoken=new UsernamePasswordAuthenticationToken(userDetails,null,userDetails.getAuthorities());
+            UsernamePasswordAuthenticationToken authtoken=null;
+            if (statelessAuth && jwtservices.isSelfContained(claims)) {
+                if (jwtservices.isCurrentVersion(claims)) {
+                    authtoken=new UsernamePasswordAuthenticationToken(username,null,jwtservices.extractAuthorities(claims));
+                }
+            } else {
+                UserDetails userDetails=userDetailsService.loadUserByUsername(username);
+                if (jwtservices.validateToken(claims, userDetails)){
+                    authtoken=new UsernamePasswordAuthenticationToken(userDetails,null,userDetails.getAuthorities());
+                }
+            }
+            if (authtoken!=null) {
                 authtoken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authtoken);
             }
@@ -1,5 +1,6 @@
 package com.example.demo.config;
 
+import com.example.demo.service.PasswordHashingService;
 import com.example.demo.service.ProductService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
@@ -12,7 +13,6 @@ import org.springframework.security.config.annotation.authentication.configurati
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.NoOpPasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -24,6 +24,8 @@ public class SecurityConfig {
     ProductService service;
     @Autowired
     private JwtFilter jwtfilt;
+    @Autowired
+    private PasswordHashingService passwordHashing;
     @Bean
         public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
              http
@@ -53,7 +55,8 @@ public class SecurityConfig {
     @Bean
     public AuthenticationProvider authenticationProvider(){
         DaoAuthenticationProvider authenticationProvider=new DaoAuthenticationProvider();
-        authenticationProvider.setPasswordEncoder(new BCryptPasswordEncoder(12));
+        // BCrypt runs on its own bounded executor, not on the request thread
+        authenticationProvider.setPasswordEncoder(passwordHashing);
         authenticationProvider.setUserDetailsService(service);
         return authenticationProvider;
     }
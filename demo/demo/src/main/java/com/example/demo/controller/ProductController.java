@@ -1,30 +1,81 @@
 package com.example.demo.controller;
 
 import com.example.demo.model.Product;
+import com.example.demo.model.RegistrationResult;
 import com.example.demo.model.Users;
 import com.example.demo.service.AuthenticationService;
+import com.example.demo.service.PasswordHashingRejectedException;
+import com.example.demo.service.PasswordHashingService;
 import com.example.demo.service.ProductService;
+import com.example.demo.service.jwtservice;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 public class ProductController {
+   static final int MAX_PAGE_SIZE = 1000;
+   static final int MAX_BULK_SIZE = PasswordHashingService.MAX_BULK_SIZE;
+
    @Autowired
    private ProductService service;
    
    @Autowired
    private AuthenticationService authService;
+
+   @Autowired
+   private jwtservice jwtserv;
    
-   private BCryptPasswordEncoder encoder=new BCryptPasswordEncoder(12);
+   @Autowired
+   private PasswordHashingService encoder;
+
+   @Autowired
+   private ObjectMapper objectMapper;
+    // Keyset-paginated users without passwords: {"users":[{"id":..,"username":..}],"next":id}.
+    // Pass next as ?after= for the following page; it is null on the last one.
     @GetMapping("/products")
-    public List<Users> getproduct(){
-        return service.getproduct();
+    public void getproduct(@RequestParam(required = false) Integer after,
+                           @RequestParam(defaultValue = "100") int limit,
+                           HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        // Rows are written to the response as they are read rather than collected first
+        JsonGenerator json = objectMapper.getFactory().createGenerator(response.getOutputStream());
+        json.writeStartObject();
+        json.writeArrayFieldStart("users");
+        Integer next = service.getproduct(after == null ? Integer.MIN_VALUE : after,
+                Math.max(1, Math.min(limit, MAX_PAGE_SIZE)), user -> {
+                    try {
+                        json.writeObject(user);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+        json.writeEndArray();
+        json.writeObjectField("next", next);
+        json.writeEndObject();
+        // Closed only once the page is complete. Closing on a failed query would
+        // write the missing ]} and send a valid-looking short last page; left
+        // open, the error gets a 500, or a cut-off body if rows were already sent.
+        json.close();
     }
 //    @GetMapping("/csrf-token")
 //    public CsrfToken getcsrftoken(HttpServletRequest request){
@@ -51,8 +102,40 @@ public class ProductController {
           users.setPassword(encoder.encode(users.getPassword()));
          return service.registor(users);
      }
+     // Provisioning a class of users; unlike /registor this needs an authenticated caller
+     @PostMapping("/registor/bulk")
+     public List<RegistrationResult> registorAll(@RequestBody List<Users> users){
+        if (users.size() > MAX_BULK_SIZE) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                    "At most " + MAX_BULK_SIZE + " users per request");
+        }
+        return service.registorAll(users);
+     }
      @PostMapping("/login")
      public String login(@RequestBody Users users){
         return authService.verify(users);
      }
+     // Login and registration bursts beyond the bcrypt queue are shed instead of queued
+     @ExceptionHandler(PasswordHashingRejectedException.class)
+     public ResponseEntity<String> hashingOverloaded(PasswordHashingRejectedException e){
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(e.getMessage());
+     }
+     // Logout: revokes the caller's token, or a leaked one passed as {"token": "..."}
+     @PostMapping("/revoke")
+     public String revoke(@RequestHeader("Authorization") String authHeader,
+                          @RequestBody(required = false) Map<String, String> body){
+        String token = body != null && body.get("token") != null ? body.get("token")
+                : authHeader.startsWith("Bearer ") ? authHeader.substring(7) : null;
+        if (token == null) {
+            return "invalid token";
+        }
+        try {
+            jwtserv.revoke(token);
+            return "revoked";
+        } catch (JwtException e) {
+            return "invalid token";
+        }
+     }
 }
@@ -0,0 +1,24 @@
+package com.example.demo.model;
+
+/**
+ * Outcome of one user in a bulk registration, reported in request order
+ */
+public record RegistrationResult(int id, String username, Status status) {
+
+    public enum Status {
+        CREATED,
+        // Missing username or password
+        INVALID,
+        // Same id or username as an earlier user in the same request
+        DUPLICATE,
+        ID_TAKEN,
+        USERNAME_TAKEN,
+        // Inserted concurrently by another request between the check and the insert; retry
+        CONFLICT
+    }
+
+    public static RegistrationResult of(Users user, Status status) {
+        return user == null ? new RegistrationResult(0, null, status)
+                : new RegistrationResult(user.getId(), user.getUsername(), status);
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.demo.model;
+
+/**
+ * Listing view of a user: selected as these two columns only, so password
+ * hashes are never read for /products, let alone serialized
+ */
+public record UserSummary(int id, String username) {
+}
@@ -2,7 +2,11 @@ package com.example.demo.model;
 
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 @Entity
+// findByUsername runs on every login and user cache miss; not unique, as existing rows may repeat names
+@Table(indexes = @Index(name = "idx_users_username", columnList = "username"))
 public class Users {
     @Id
     private int id;
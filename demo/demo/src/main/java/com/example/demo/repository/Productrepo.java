@@ -1,11 +1,23 @@
 package com.example.demo.repository;
 
+import com.example.demo.model.UserSummary;
 import com.example.demo.model.Users;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
 @Repository
 public interface Productrepo extends JpaRepository<Users,Integer> {
    Users findByUsername(String username);
 
+   // Keyset page: seeks past the last id seen on the primary key instead of skipping OFFSET rows
+   Stream<UserSummary> findByIdGreaterThanOrderByIdAsc(int afterId, Limit limit);
+
+   // Bulk registration conflicts: every existing row sharing an id or a username with the batch, in one query
+   List<UserSummary> findByIdInOrUsernameIn(Collection<Integer> ids, Collection<String> usernames);
+
 }
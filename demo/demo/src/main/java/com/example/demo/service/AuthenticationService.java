@@ -19,7 +19,7 @@ public class AuthenticationService {
         Authentication authentication = authenticationManager
                 .authenticate(new UsernamePasswordAuthenticationToken(users.getUsername(), users.getPassword()));
         if (authentication.isAuthenticated()) {
-            return jwtserv.genetaredtoken(users.getUsername());
+            return jwtserv.genetaredtoken(users.getUsername(), authentication.getAuthorities());
         } else {
             return "fail";
         }
@@ -0,0 +1,11 @@
+package com.example.demo.service;
+
+/**
+ * Thrown when the password-hashing executor is saturated; maps to 503
+ */
+public class PasswordHashingRejectedException extends RuntimeException {
+
+    public PasswordHashingRejectedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,295 @@
+package com.example.demo.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * BCrypt on a small bounded executor instead of on request threads
+ *
+ * At most security.password.threads hashes run at once, so a login or
+ * registration burst cannot take every core from other endpoints. Requests
+ * beyond security.password.queue-capacity, or that waited longer than
+ * security.password.max-wait, fail fast with PasswordHashingRejectedException.
+ * With security.password.bcrypt-cost=0 the cost is calibrated at startup to
+ * the highest one whose hash stays within security.password.target-hash-time.
+ *
+ * Bulk registration hashes through encodeAll on a separate pool of
+ * security.password.bulk-threads (default a quarter of the cores), so
+ * provisioning does not go through the login queue. At most
+ * security.password.bulk-batches batches of MAX_BULK_SIZE hash at once; any
+ * other batch is rejected at once rather than queued, so parallel bulk
+ * requests cannot pile up thousands of hashes and take the cores logins need.
+ */
+@Service
+public class PasswordHashingService implements PasswordEncoder {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHashingService.class);
+
+    // Calibration never goes below the OWASP minimum or above a few seconds per hash
+    static final int MIN_COST = 10;
+    static final int MAX_COST = 16;
+    public static final int MAX_BULK_SIZE = 1000;
+
+    private final int cost;
+    private final BCryptPasswordEncoder encoder;
+    private final ThreadPoolExecutor executor;
+    private final ThreadPoolExecutor bulkExecutor;
+    private final Semaphore bulkBatches;
+    private final long maxWaitNanos;
+
+    private final LongAdder rejected = new LongAdder();
+    private Timer encodeWait;
+    private Timer encodeTime;
+    private Timer matchesWait;
+    private Timer matchesTime;
+    private Timer bulkTime;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    public PasswordHashingService(
+            @Value("${security.password.bcrypt-cost:0}") int cost,
+            @Value("${security.password.target-hash-time:250ms}") Duration targetHashTime,
+            @Value("${security.password.threads:0}") int threads,
+            @Value("${security.password.queue-capacity:32}") int queueCapacity,
+            @Value("${security.password.max-wait:2s}") Duration maxWait,
+            @Value("${security.password.bulk-threads:0}") int bulkThreads,
+            @Value("${security.password.bulk-batches:1}") int bulkBatches) {
+        this.cost = cost > 0 ? cost : calibrate(targetHashTime);
+        this.encoder = new BCryptPasswordEncoder(this.cost);
+        this.maxWaitNanos = maxWait.toNanos();
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threads("bcrypt-"));
+        this.executor.allowCoreThreadTimeOut(true);
+        // The queue holds every admitted batch in full, so it only fills if the permits are bypassed
+        int bulkPoolSize = bulkThreads > 0 ? bulkThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 4);
+        this.bulkBatches = new Semaphore(Math.max(1, bulkBatches));
+        this.bulkExecutor = new ThreadPoolExecutor(bulkPoolSize, bulkPoolSize, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, bulkBatches) * MAX_BULK_SIZE), threads("bcrypt-bulk-"));
+        this.bulkExecutor.allowCoreThreadTimeOut(true);
+        logger.info("BCrypt cost {} on {} threads (queue {}), {} bulk threads for {} batches", this.cost, poolSize,
+                queueCapacity, bulkPoolSize, Math.max(1, bulkBatches));
+    }
+
+    private static ThreadFactory threads(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Highest cost whose hash takes at most target on this machine
+     *
+     * Times MIN_COST and doubles from there, since each cost step doubles the work.
+     */
+    static int calibrate(Duration target) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(MIN_COST);
+        probe.encode("calibration");
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            probe.encode("calibration");
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        int cost = MIN_COST;
+        double nanos = best;
+        while (cost < MAX_COST && nanos * 2 <= target.toNanos()) {
+            nanos *= 2;
+            cost++;
+        }
+        return cost;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(encodeWait, encodeTime, () -> encoder.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(matchesWait, matchesTime, () -> encoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Hashes of rawPasswords, in order, computed in parallel on the bulk pool
+     *
+     * Not subject to the login queue's capacity or max-wait: the caller is a
+     * provisioning request that expects to wait for the whole batch. Throws
+     * PasswordHashingRejectedException at once if bulk-batches batches are
+     * already hashing.
+     */
+    public List<String> encodeAll(List<? extends CharSequence> rawPasswords) {
+        if (rawPasswords.size() > MAX_BULK_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_SIZE + " passwords per batch");
+        }
+        if (!bulkBatches.tryAcquire()) {
+            rejected.increment();
+            throw new PasswordHashingRejectedException("Bulk password hashing is busy");
+        }
+        try {
+            return hashAll(rawPasswords);
+        } finally {
+            bulkBatches.release();
+        }
+    }
+
+    private List<String> hashAll(List<? extends CharSequence> rawPasswords) {
+        List<Callable<String>> tasks = new ArrayList<>(rawPasswords.size());
+        for (CharSequence rawPassword : rawPasswords) {
+            tasks.add(() -> {
+                long started = System.nanoTime();
+                try {
+                    return encoder.encode(rawPassword);
+                } finally {
+                    record(bulkTime, System.nanoTime() - started);
+                }
+            });
+        }
+        List<String> hashes = new ArrayList<>(tasks.size());
+        try {
+            for (Future<String> future : bulkExecutor.invokeAll(tasks)) {
+                hashes.add(future.get());
+            }
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new PasswordHashingRejectedException("Bulk password hashing is overloaded");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingRejectedException("Interrupted while waiting for password hashing");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+        return hashes;
+    }
+
+    // Hashes made at another cost still verify; nothing re-encodes them
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return encoder.upgradeEncoding(encodedPassword);
+    }
+
+    public int getCost() {
+        return cost;
+    }
+
+    int queueDepth() {
+        return executor.getQueue().size();
+    }
+
+    <T> T run(Timer waitTimer, Timer hashTimer, Supplier<T> work) {
+        long submitted = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long started = System.nanoTime();
+                record(waitTimer, started - submitted);
+                if (started - submitted > maxWaitNanos) {
+                    // The caller has likely given up; don't spend a core on it
+                    rejected.increment();
+                    throw new PasswordHashingRejectedException("Password hashing queue wait exceeded");
+                }
+                try {
+                    return work.get();
+                } finally {
+                    record(hashTimer, System.nanoTime() - started);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new PasswordHashingRejectedException("Password hashing is overloaded");
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new PasswordHashingRejectedException("Interrupted while waiting for password hashing");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static void record(Timer timer, long nanos) {
+        if (timer != null) {
+            timer.record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @PostConstruct
+    void registerMetrics() {
+        if (meterRegistry == null) {
+            return;
+        }
+        encodeWait = waitTimer("encode");
+        matchesWait = waitTimer("matches");
+        encodeTime = hashTimer("encode");
+        matchesTime = hashTimer("matches");
+        bulkTime = hashTimer("bulk-encode");
+        Gauge.builder("password.hash.queue.depth", this, PasswordHashingService::queueDepth)
+                .description("Password hashes waiting for a bcrypt thread")
+                .register(meterRegistry);
+        Gauge.builder("password.hash.cost", this, PasswordHashingService::getCost)
+                .register(meterRegistry);
+        FunctionCounter.builder("password.hash.rejected", rejected, LongAdder::sum)
+                .description("Password hashes rejected because the queue was full or too slow")
+                .register(meterRegistry);
+    }
+
+    private Timer waitTimer(String op) {
+        return Timer.builder("password.hash.queue.wait")
+                .description("Time a password hash waited for a bcrypt thread")
+                .tag("op", op)
+                .register(meterRegistry);
+    }
+
+    private Timer hashTimer(String op) {
+        return Timer.builder("password.hash.time")
+                .description("Time spent computing one bcrypt hash")
+                .tag("op", op)
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+        bulkExecutor.shutdown();
+    }
+}
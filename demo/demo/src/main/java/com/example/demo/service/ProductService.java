@@ -1,22 +1,60 @@
 package com.example.demo.service;
 
+import com.example.demo.model.RegistrationResult;
+import com.example.demo.model.RegistrationResult.Status;
 import com.example.demo.model.UserPrinciple;
+import com.example.demo.model.UserSummary;
 import com.example.demo.model.Users;
 import com.example.demo.repository.Productrepo;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class ProductService implements UserDetailsService {
     @Autowired
          private Productrepo repo;
-    public List<Users> getproduct(){
-        return repo.findAll();
+    @Autowired
+    private UserDetailsCache userCache;
+    @Autowired
+    private UserTokenVersions tokenVersions;
+    @Autowired
+    private PasswordHashingService passwordHashing;
+    @Autowired
+    private JdbcTemplate jdbc;
+    @Autowired
+    private TransactionTemplate transactions;
+
+    static final int INSERT_BATCH_SIZE = 100;
+    // Hands each user after afterId to action as its row is read, never holding the page in a list.
+    // Returns the id to continue after, or null when this was the last page.
+    @Transactional(readOnly = true)
+    public Integer getproduct(int afterId, int limit, Consumer<UserSummary> action){
+        int count = 0;
+        int lastId = afterId;
+        try (Stream<UserSummary> users = repo.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(limit))) {
+            for (Iterator<UserSummary> it = users.iterator(); it.hasNext(); count++) {
+                UserSummary user = it.next();
+                action.accept(user);
+                lastId = user.id();
+            }
+        }
+        return count == limit ? lastId : null;
     }
 //
 //    public Product getprodbyid(int prodid) {
@@ -35,17 +73,112 @@ public class ProductService implements UserDetailsService {
 //    }
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        Users user = repo.findByUsername(username);
-        if(user==null) {
-            System.out.println("user not found");
-            throw new UsernameNotFoundException("user mot found");
+        return userCache.get(username, () -> {
+            Users user = repo.findByUsername(username);
+            if(user==null) {
+                System.out.println("user not found");
+                throw new UsernameNotFoundException("user mot found");
+            }
+            else
+                return new UserPrinciple(user);
+        });
+    }
+
+    public Users registor(Users users) {
+        // save() overwrites an existing id, which may rename the user or change the password
+        String previous = repo.findById(users.getId()).map(Users::getUsername).orElse(null);
+        Users saved = repo.save(users);
+        if (previous != null) {
+            // Tokens issued for the overwritten user must stop working
+            tokenVersions.bump(previous);
+            if (!previous.equals(saved.getUsername())) {
+                tokenVersions.bump(saved.getUsername());
+            }
         }
-        else
-            return new UserPrinciple(user);
+        userCache.invalidate(previous);
+        userCache.invalidate(saved.getUsername());
+        return saved;
+    }
 
+    // Bulk provisioning: only inserts new users, never overwrites like registor does.
+    // Conflicts are found with one query, passwords hashed in parallel, rows inserted in JDBC batches.
+    public List<RegistrationResult> registorAll(List<Users> users) {
+        RegistrationResult[] results = new RegistrationResult[users.size()];
+        Set<Integer> ids = new HashSet<>();
+        Set<String> usernames = new HashSet<>();
+        for (int i = 0; i < users.size(); i++) {
+            Users user = users.get(i);
+            if (user == null || user.getUsername() == null || user.getUsername().isBlank()
+                    || user.getPassword() == null || user.getPassword().isEmpty()) {
+                results[i] = RegistrationResult.of(user, Status.INVALID);
+            } else if (ids.contains(user.getId()) || usernames.contains(user.getUsername())) {
+                results[i] = RegistrationResult.of(user, Status.DUPLICATE);
+            } else {
+                ids.add(user.getId());
+                usernames.add(user.getUsername());
+            }
+        }
+
+        Set<Integer> takenIds = new HashSet<>();
+        Set<String> takenUsernames = new HashSet<>();
+        if (!ids.isEmpty()) {
+            for (UserSummary existing : repo.findByIdInOrUsernameIn(ids, usernames)) {
+                takenIds.add(existing.id());
+                takenUsernames.add(existing.username());
+            }
+        }
+        List<Integer> pending = new ArrayList<>();
+        List<String> passwords = new ArrayList<>();
+        for (int i = 0; i < users.size(); i++) {
+            Users user = users.get(i);
+            if (results[i] != null) {
+                continue;
+            }
+            if (takenIds.contains(user.getId())) {
+                results[i] = RegistrationResult.of(user, Status.ID_TAKEN);
+            } else if (takenUsernames.contains(user.getUsername())) {
+                results[i] = RegistrationResult.of(user, Status.USERNAME_TAKEN);
+            } else {
+                pending.add(i);
+                passwords.add(user.getPassword());
+            }
+        }
+        if (pending.isEmpty()) {
+            return List.of(results);
+        }
+
+        List<String> hashes = passwordHashing.encodeAll(passwords);
+        List<Object[]> rows = new ArrayList<>(pending.size());
+        for (int j = 0; j < pending.size(); j++) {
+            Users user = users.get(pending.get(j));
+            rows.add(new Object[] {user.getId(), user.getUsername(), hashes.get(j)});
+        }
+        Status outcome;
+        try {
+            transactions.executeWithoutResult(tx -> jdbc.batchUpdate(
+                    "insert into users (id, username, password) values (?, ?, ?)", rows, INSERT_BATCH_SIZE,
+                    (statement, row) -> {
+                        statement.setInt(1, (Integer) row[0]);
+                        statement.setString(2, (String) row[1]);
+                        statement.setString(3, (String) row[2]);
+                    }));
+            outcome = Status.CREATED;
+        } catch (DuplicateKeyException e) {
+            // Rolled back as a whole: an id was inserted by someone else after the conflict query
+            outcome = Status.CONFLICT;
+        }
+        for (int i : pending) {
+            results[i] = RegistrationResult.of(users.get(i), outcome);
+            if (outcome == Status.CREATED) {
+                userCache.invalidate(users.get(i).getUsername());
+            }
+        }
+        return List.of(results);
     }
 
-    public Users registor(Users users) {
-         return repo.save(users);
+    // Call after any other write that changes a user's password or name; revokes their tokens
+    public void evictUser(String username) {
+        tokenVersions.bump(username);
+        userCache.invalidate(username);
     }
 }
@@ -0,0 +1,450 @@
+package com.example.demo.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Revoked token ids (jti) until the tokens would have expired anyway
+ *
+ * A Bloom filter over String.hashCode() (cached in the jti String the token
+ * cache holds) answers "not revoked" for almost every live token without
+ * locking, allocating or even reading the id. Only its rare positives are
+ * checked against the exact set, an open-addressing table of (jti, expiry)
+ * held in primitive arrays, 24 bytes per slot. UUID ids are stored as their
+ * 128 bits; other ids as two 64-bit hashes. Expiry is kept in whole seconds,
+ * rounded up. Every revocation is appended to jwt.revocation.file, which is
+ * replayed and compacted at startup and whenever expired entries are purged.
+ */
+@Component
+public class TokenRevocationList {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationList.class);
+
+    private static final long MAGIC = 0x4A54495245563031L; // "JTIREV01"
+    private static final int RECORD_BYTES = 24;
+    private static final int MIN_CAPACITY = 1024;
+
+    private final Path file;
+    private final int expectedRevocations;
+    private final double falsePositiveRate;
+    private final LongSupplier clock;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile Bloom bloom;
+    // Exact set, guarded by lock; expiry in unsigned epoch seconds, 0 marks an empty slot
+    private long[] his;
+    private long[] los;
+    private int[] hashes;
+    private int[] exps;
+    private int size;
+    private FileChannel log;
+
+    @Autowired
+    public TokenRevocationList(@Value("${jwt.revocation.file:}") String file,
+                               @Value("${jwt.revocation.expected:1000000}") int expectedRevocations,
+                               @Value("${jwt.revocation.false-positive-rate:0.01}") double falsePositiveRate) {
+        this(file.isBlank() ? null : Path.of(file), expectedRevocations, falsePositiveRate, System::currentTimeMillis);
+    }
+
+    TokenRevocationList(Path file, int expectedRevocations, double falsePositiveRate, LongSupplier clock) {
+        this.file = file;
+        this.expectedRevocations = expectedRevocations;
+        this.falsePositiveRate = falsePositiveRate;
+        this.clock = clock;
+        allocate(MIN_CAPACITY);
+        this.bloom = new Bloom(expectedRevocations, falsePositiveRate);
+        if (file != null) {
+            load();
+        }
+    }
+
+    /**
+     * Revoke a token id until expiresAtMillis
+     */
+    public void revoke(String jti, long expiresAtMillis) {
+        int hash = jti.hashCode();
+        long hi = high(jti);
+        long lo = low(jti);
+        long now = nowSeconds();
+        int expiresAt = (int) ((expiresAtMillis + 999) / 1000);
+        if (!isLive(expiresAt, now)) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!insert(hash, hi, lo, expiresAt)) {
+                return;
+            }
+            bloom.add(hash);
+            append(hash, hi, lo, expiresAt);
+            if (size > his.length * 3L / 4) {
+                rebuild(now);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Constant time and allocation-free for ids that were never revoked
+    public boolean isRevoked(String jti) {
+        int hash = jti.hashCode();
+        if (!bloom.mightContain(hash)) {
+            return false;
+        }
+        long hi = high(jti);
+        long lo = low(jti);
+        lock.readLock().lock();
+        try {
+            return find(hash, hi, lo) >= 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Heap held by the Bloom filter and the exact table
+    long memoryBytes() {
+        lock.readLock().lock();
+        try {
+            return bloom.bits.length() * 8L + his.length * 24L;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ==================== EXACT SET ====================
+
+    private void allocate(int capacity) {
+        his = new long[capacity];
+        los = new long[capacity];
+        hashes = new int[capacity];
+        exps = new int[capacity];
+        size = 0;
+    }
+
+    private int find(int hash, long hi, long lo) {
+        int mask = his.length - 1;
+        for (int i = slot(hash, mask); exps[i] != 0; i = (i + 1) & mask) {
+            if (his[i] == hi && los[i] == lo) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // False if the id was already revoked (its expiry is extended if later)
+    private boolean insert(int hash, long hi, long lo, int expiresAt) {
+        int mask = his.length - 1;
+        int i = slot(hash, mask);
+        for (; exps[i] != 0; i = (i + 1) & mask) {
+            if (his[i] == hi && los[i] == lo) {
+                exps[i] = Integer.compareUnsigned(exps[i], expiresAt) >= 0 ? exps[i] : expiresAt;
+                return false;
+            }
+        }
+        his[i] = hi;
+        los[i] = lo;
+        hashes[i] = hash;
+        exps[i] = expiresAt;
+        size++;
+        return true;
+    }
+
+    private static int slot(int hash, int mask) {
+        return (int) mix(hash) & mask;
+    }
+
+    private static boolean isLive(int expiresAt, long nowSeconds) {
+        return Integer.toUnsignedLong(expiresAt) > nowSeconds;
+    }
+
+    private long nowSeconds() {
+        return clock.getAsLong() / 1000;
+    }
+
+    // Drop expired ids, resize the table and Bloom filter, and compact the file
+    private void rebuild(long now) {
+        long[] oldHis = his;
+        long[] oldLos = los;
+        int[] oldHashes = hashes;
+        int[] oldExps = exps;
+        int live = 0;
+        for (int exp : oldExps) {
+            if (isLive(exp, now)) {
+                live++;
+            }
+        }
+        // Room for another half of the live ids before the next rebuild
+        allocate(tableCapacity(live + live / 2));
+        Bloom rebuilt = new Bloom(Math.max(expectedRevocations, live + live / 2), falsePositiveRate);
+        for (int i = 0; i < oldExps.length; i++) {
+            if (isLive(oldExps[i], now)) {
+                insert(oldHashes[i], oldHis[i], oldLos[i], oldExps[i]);
+                rebuilt.add(oldHashes[i]);
+            }
+        }
+        bloom = rebuilt;
+        compact();
+    }
+
+    private static int tableCapacity(int entries) {
+        long needed = Math.max(MIN_CAPACITY, entries * 4L / 3 + 1);
+        return (int) Math.min(1 << 30, Long.highestOneBit(needed - 1) << 1);
+    }
+
+    // ==================== FILE ====================
+
+    private void load() {
+        lock.writeLock().lock();
+        try {
+            long now = nowSeconds();
+            if (Files.exists(file) && Files.size(file) > 0) {
+                try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+                    ByteBuffer header = ByteBuffer.allocate(8);
+                    if (in.read(header) != 8 || header.flip().getLong() != MAGIC) {
+                        // Refuse to compact over a file that is not ours
+                        throw new IllegalStateException(file + " is not a token revocation file");
+                    }
+                    ByteBuffer record = ByteBuffer.allocate(RECORD_BYTES * 1024);
+                    while (in.read(record) > 0) {
+                        record.flip();
+                        while (record.remaining() >= RECORD_BYTES) {
+                            long hi = record.getLong();
+                            long lo = record.getLong();
+                            int hash = record.getInt();
+                            int exp = record.getInt();
+                            if (isLive(exp, now)) {
+                                insert(hash, hi, lo, exp);
+                                if (size > his.length * 3L / 4) {
+                                    growForLoad();
+                                }
+                            }
+                        }
+                        record.compact();
+                    }
+                }
+            }
+            rebuild(now);
+            logger.info("Loaded {} revoked token ids from {}", size, file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read token revocation file " + file, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void growForLoad() {
+        long[] oldHis = his;
+        long[] oldLos = los;
+        int[] oldHashes = hashes;
+        int[] oldExps = exps;
+        allocate(oldHis.length * 2);
+        for (int i = 0; i < oldExps.length; i++) {
+            if (oldExps[i] != 0) {
+                insert(oldHashes[i], oldHis[i], oldLos[i], oldExps[i]);
+            }
+        }
+    }
+
+    private void append(int hash, long hi, long lo, int exp) {
+        if (log == null) {
+            return;
+        }
+        try {
+            ByteBuffer record = ByteBuffer.allocate(RECORD_BYTES).putLong(hi).putLong(lo).putInt(hash).putInt(exp).flip();
+            while (record.hasRemaining()) {
+                log.write(record);
+            }
+        } catch (IOException e) {
+            logger.error("Could not persist token revocation to {}: {}", file, e.getMessage());
+        }
+    }
+
+    // Rewrite the file with only live entries, then keep appending to it
+    private void compact() {
+        if (file == null) {
+            return;
+        }
+        try {
+            closeLog();
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path tmp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+            try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.allocate(RECORD_BYTES * 1024);
+                buffer.putLong(MAGIC);
+                for (int i = 0; i < exps.length; i++) {
+                    if (exps[i] == 0) {
+                        continue;
+                    }
+                    if (buffer.remaining() < RECORD_BYTES) {
+                        writeFully(out, buffer.flip());
+                        buffer.clear();
+                    }
+                    buffer.putLong(his[i]).putLong(los[i]).putInt(hashes[i]).putInt(exps[i]);
+                }
+                writeFully(out, buffer.flip());
+                out.force(true);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            logger.error("Could not compact token revocation file {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static void writeFully(FileChannel out, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+    }
+
+    private void closeLog() throws IOException {
+        if (log != null) {
+            log.close();
+            log = null;
+        }
+    }
+
+    @PreDestroy
+    void close() {
+        lock.writeLock().lock();
+        try {
+            closeLog();
+        } catch (IOException e) {
+            logger.warn("Could not close token revocation file {}: {}", file, e.getMessage());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ==================== IDS ====================
+
+    // UUIDs are parsed in place, without allocating; anything else is hashed
+    static long high(String jti) {
+        if (hasUuidShape(jti)) {
+            long a = hex(jti, 0, 8);
+            long b = hex(jti, 9, 13);
+            long c = hex(jti, 14, 18);
+            if ((a | b | c) >= 0) {
+                return a << 32 | b << 16 | c;
+            }
+        }
+        return hash(jti, 0x9E3779B97F4A7C15L);
+    }
+
+    static long low(String jti) {
+        if (hasUuidShape(jti)) {
+            long a = hex(jti, 19, 23);
+            long b = hex(jti, 24, 36);
+            if ((a | b) >= 0 && hex(jti, 0, 8) >= 0 && hex(jti, 9, 13) >= 0 && hex(jti, 14, 18) >= 0) {
+                return a << 48 | b;
+            }
+        }
+        return hash(jti, 0xC2B2AE3D27D4EB4FL);
+    }
+
+    private static boolean hasUuidShape(String s) {
+        return s.length() == 36 && s.charAt(8) == '-' && s.charAt(13) == '-'
+                && s.charAt(18) == '-' && s.charAt(23) == '-';
+    }
+
+    // Value of at most 12 hex digits, or -1 if any character is not one
+    private static long hex(String s, int from, int to) {
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            int digit;
+            if (c >= '0' && c <= '9') {
+                digit = c - '0';
+            } else if ((c | 0x20) >= 'a' && (c | 0x20) <= 'f') {
+                digit = (c | 0x20) - 'a' + 10;
+            } else {
+                return -1;
+            }
+            value = value << 4 | digit;
+        }
+        return value;
+    }
+
+    private static long hash(String s, long seed) {
+        long h = seed;
+        for (int i = 0; i < s.length(); i++) {
+            h = (h ^ s.charAt(i)) * 0x100000001B3L;
+        }
+        return mix(h);
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    // ==================== BLOOM FILTER ====================
+
+    private static final class Bloom {
+        final AtomicLongArray bits;
+        // Bit count rounded up to a power of two so probes mask instead of divide
+        final long bitMask;
+        final int numHashes;
+
+        Bloom(int expected, double falsePositiveRate) {
+            long m = (long) Math.ceil(-Math.max(expected, 1) * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            int words = (int) Math.min(1 << 30, Long.highestOneBit(Math.max(1, (m + 63) / 64) * 2 - 1));
+            this.bits = new AtomicLongArray(words);
+            long numBits = words * 64L;
+            this.bitMask = numBits - 1;
+            // Optimal for the requested rate; the extra bits only lower it further
+            this.numHashes = Math.max(1, (int) Math.round(-Math.log(falsePositiveRate) / Math.log(2)));
+        }
+
+        // Callers hold the write lock, so plain read-modify-write is safe
+        void add(int hash) {
+            long h1 = mix(hash);
+            long h2 = Long.rotateLeft(h1, 32) | 1;
+            for (int i = 0; i < numHashes; i++) {
+                long bit = (h1 + i * h2) & bitMask;
+                int word = (int) (bit >>> 6);
+                bits.set(word, bits.get(word) | 1L << bit);
+            }
+        }
+
+        boolean mightContain(int hash) {
+            long h1 = mix(hash);
+            long h2 = Long.rotateLeft(h1, 32) | 1;
+            for (int i = 0; i < numHashes; i++) {
+                long bit = (h1 + i * h2) & bitMask;
+                if ((bits.get((int) (bit >>> 6)) & 1L << bit) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
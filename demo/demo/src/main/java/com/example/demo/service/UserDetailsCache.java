@@ -0,0 +1,160 @@
+package com.example.demo.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, expiring cache of UserDetails by username
+ *
+ * Keeps JwtFilter from querying MySQL on every authenticated request.
+ * Entries live for security.user-cache.ttl and are evicted early by
+ * ProductService whenever it writes the user. Missing users are not cached,
+ * so a new registration is visible at once.
+ */
+@Component
+public class UserDetailsCache {
+
+    private record Entry(UserDetails user, long expiresAt) {
+    }
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final LongSupplier nanoClock;
+    // Bumped by every invalidation; a load that overlapped one is not cached
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private Timer hitTimer;
+    private Timer missTimer;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    public UserDetailsCache(@Value("${security.user-cache.ttl:5m}") Duration ttl,
+                            @Value("${security.user-cache.max-entries:10000}") int maxEntries) {
+        this(ttl, maxEntries, System::nanoTime);
+    }
+
+    UserDetailsCache(Duration ttl, int maxEntries, LongSupplier nanoClock) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Cached user, or the loader's result, which is then cached
+     *
+     * Exceptions from the loader (UsernameNotFoundException) pass through
+     * uncached.
+     */
+    public UserDetails get(String username, Supplier<UserDetails> loader) {
+        long start = nanoClock.getAsLong();
+        Entry entry = entries.get(username);
+        if (entry != null && entry.expiresAt() - start > 0) {
+            hits.increment();
+            record(hitTimer, start);
+            return entry.user();
+        }
+
+        misses.increment();
+        long generation = invalidations.get();
+        try {
+            UserDetails user = loader.get();
+            if (entries.size() >= maxEntries) {
+                evict(start);
+            }
+            entries.put(username, new Entry(user, nanoClock.getAsLong() + ttlNanos));
+            if (invalidations.get() != generation) {
+                // The user may have changed while we read it
+                entries.remove(username);
+            }
+            return user;
+        } finally {
+            record(missTimer, start);
+        }
+    }
+
+    public void invalidate(String username) {
+        if (username != null) {
+            invalidations.incrementAndGet();
+            entries.remove(username);
+        }
+    }
+
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        entries.clear();
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private void record(Timer timer, long start) {
+        if (timer != null) {
+            timer.record(nanoClock.getAsLong() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // Expired entries go first, then arbitrary ones until the cache is at 90%
+    private void evict(long now) {
+        entries.values().removeIf(entry -> entry.expiresAt() - now <= 0);
+        int target = maxEntries - maxEntries / 10;
+        Iterator<String> it = entries.keySet().iterator();
+        while (entries.size() > target && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    private double hitRatio() {
+        long hit = hits.sum();
+        long total = hit + misses.sum();
+        return total == 0 ? 0 : (double) hit / total;
+    }
+
+    @PostConstruct
+    void registerMetrics() {
+        if (meterRegistry == null) {
+            return;
+        }
+        FunctionCounter.builder("security.user.cache.requests", hits, LongAdder::sum)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("security.user.cache.requests", misses, LongAdder::sum)
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("security.user.cache.hit.ratio", this, UserDetailsCache::hitRatio)
+                .description("Share of user lookups answered without the database")
+                .register(meterRegistry);
+        Gauge.builder("security.user.cache.size", entries, ConcurrentHashMap::size)
+                .register(meterRegistry);
+        hitTimer = Timer.builder("security.user.lookup")
+                .description("Time to resolve UserDetails for a username")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        missTimer = Timer.builder("security.user.lookup")
+                .description("Time to resolve UserDetails for a username")
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+}
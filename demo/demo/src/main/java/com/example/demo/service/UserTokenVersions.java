@@ -0,0 +1,165 @@
+package com.example.demo.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-user token version: the instant before which the user's tokens are revoked
+ *
+ * Bumping a user's version revokes every token issued to them before that
+ * millisecond, with no database access on the request path. A user with no
+ * entry has never been revoked, so every unexpired token of theirs is
+ * accepted. Bumps are appended to jwt.revocation.user-file and replayed at
+ * startup, so a restart neither logs out valid users nor brings revoked
+ * tokens back. Entries older than a token's lifetime can no longer match
+ * anything and are dropped when the file is compacted at startup.
+ */
+@Component
+public class UserTokenVersions {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserTokenVersions.class);
+
+    private static final long MAGIC = 0x5553524356455230L; // "USRCVER0"
+
+    private final ConcurrentHashMap<String, Long> revokedBefore = new ConcurrentHashMap<>();
+    private final Path file;
+    private final long tokenLifetimeMillis;
+    private final LongSupplier clock;
+    private DataOutputStream log;
+
+    // In memory only, for tests and benchmarks
+    public UserTokenVersions() {
+        this(null, jwtservice.TOKEN_LIFETIME_MILLIS, System::currentTimeMillis);
+    }
+
+    @Autowired
+    public UserTokenVersions(@Value("${jwt.revocation.user-file:}") String file) {
+        this(file.isBlank() ? null : Path.of(file), jwtservice.TOKEN_LIFETIME_MILLIS, System::currentTimeMillis);
+    }
+
+    UserTokenVersions(Path file, long tokenLifetimeMillis, LongSupplier clock) {
+        this.file = file;
+        this.tokenLifetimeMillis = tokenLifetimeMillis;
+        this.clock = clock;
+        if (file != null) {
+            load();
+        }
+    }
+
+    // The clock issue times are stamped with, so they compare with the bumps
+    public long now() {
+        return clock.getAsLong();
+    }
+
+    // False if the user's tokens issued at issuedAtMillis were revoked since
+    public boolean isCurrent(String username, long issuedAtMillis) {
+        Long cutoff = revokedBefore.get(username);
+        return cutoff == null || issuedAtMillis >= cutoff;
+    }
+
+    // Invalidate all tokens issued to the user so far
+    public void bump(String username) {
+        long now = clock.getAsLong();
+        revokedBefore.merge(username, now, Math::max);
+        append(username, now);
+    }
+
+    int size() {
+        return revokedBefore.size();
+    }
+
+    // ==================== FILE ====================
+
+    private synchronized void load() {
+        long horizon = clock.getAsLong() - tokenLifetimeMillis;
+        try {
+            if (Files.exists(file) && Files.size(file) > 0) {
+                try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                    if (in.readLong() != MAGIC) {
+                        // Refuse to compact over a file that is not ours
+                        throw new IllegalStateException(file + " is not a user token version file");
+                    }
+                    while (true) {
+                        String username;
+                        long cutoff;
+                        try {
+                            username = in.readUTF();
+                            cutoff = in.readLong();
+                        } catch (EOFException e) {
+                            // End of file, or a record cut short by a crash
+                            break;
+                        }
+                        if (cutoff > horizon) {
+                            revokedBefore.merge(username, cutoff, Math::max);
+                        }
+                    }
+                }
+            }
+            compact();
+            logger.info("Loaded {} user token versions from {}", revokedBefore.size(), file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read user token version file " + file, e);
+        }
+    }
+
+    // Rewrite the file with only entries that can still match a token, then keep appending to it
+    private void compact() throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path tmp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            out.writeLong(MAGIC);
+            for (Map.Entry<String, Long> entry : revokedBefore.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeLong(entry.getValue());
+            }
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log = new DataOutputStream(Files.newOutputStream(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND));
+    }
+
+    private synchronized void append(String username, long cutoff) {
+        if (log == null) {
+            return;
+        }
+        try {
+            log.writeUTF(username);
+            log.writeLong(cutoff);
+            log.flush();
+        } catch (IOException e) {
+            logger.error("Could not persist token version of {} to {}: {}", username, file, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    synchronized void close() {
+        if (log == null) {
+            return;
+        }
+        try {
+            log.close();
+            log = null;
+        } catch (IOException e) {
+            logger.warn("Could not close user token version file {}: {}", file, e.getMessage());
+        }
+    }
+}
@@ -1,43 +1,109 @@
 package com.example.demo.service;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 @Service
 public class jwtservice {
+    public static final String AUTHORITIES_CLAIM = "auth";
+    // Issue time in milliseconds; iat is whole seconds, too coarse to order against a version bump
+    public static final String ISSUED_MILLIS_CLAIM = "iatms";
+    public static final long TOKEN_LIFETIME_MILLIS = 10 * 60 * 60 * 1000L;
+
 private String secretkey="cr709abcdefghijklmnopqrstuvwxyz1234567890ABCDEFGHIJKLMNOPQRSTUVWXYZ";
 
-public jwtservice() {
+    // Decoded once; the parser is immutable and thread-safe, so it is shared too
+    private final SecretKey key;
+    private final JwtParser parser;
+
+    // Tokens whose signature was already checked, so repeat requests skip the HMAC
+    private final ConcurrentHashMap<String, Claims> verified = new ConcurrentHashMap<>();
+    private final int maxCachedTokens;
+    private final UserTokenVersions versions;
+    private final TokenRevocationList revocations;
+
+public jwtservice(UserTokenVersions versions, TokenRevocationList revocations,
+                  @Value("${jwt.verified-cache-size:10000}") int maxCachedTokens) {
     // Use a fixed secret key to ensure tokens remain valid across application restarts
     // In production, this should be loaded from environment variables or configuration
+    this.key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretkey));
+    this.parser = Jwts.parser().verifyWith(key).build();
+    this.maxCachedTokens = maxCachedTokens;
+    this.versions = versions;
+    this.revocations = revocations;
 }
     public String genetaredtoken(String username) {
+        return genetaredtoken(username, null);
+    }
+
+    // With authorities the token is self-contained: JwtFilter can authenticate it without a user lookup
+    public String genetaredtoken(String username, Collection<? extends GrantedAuthority> authorities) {
+        long now = versions.now();
         Map<String,Object> claims=new HashMap<>();
+        claims.put(ISSUED_MILLIS_CLAIM, now);
+        if (authorities != null) {
+            List<String> names = new ArrayList<>(authorities.size());
+            for (GrantedAuthority authority : authorities) {
+                names.add(authority.getAuthority());
+            }
+            claims.put(AUTHORITIES_CLAIM, names);
+        }
         return Jwts.builder()
                 .claims()
                 .add(claims)
+                .id(UUID.randomUUID().toString())
                 .subject(username)
-                .issuedAt(new Date(System.currentTimeMillis()))
-                .expiration(new Date(System.currentTimeMillis()+60*60*1000*10))
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + TOKEN_LIFETIME_MILLIS))
                 .and()
                 .signWith(getkey())
                 .compact();
     }
 
     private SecretKey getkey() {
-        byte[]skey= Decoders.BASE64.decode(secretkey);
-        return Keys.hmacShaKeyFor(skey);
+        return key;
     }
+
+        // 🔹 Verify signature and expiry once and return the claims
+        // Throws JwtException (e.g. ExpiredJwtException) for a bad token, as parsing always did
+        public Claims verify(String token) {
+            Claims claims = verified.get(token);
+            if (claims != null) {
+                if (!isExpired(claims)) {
+                    return claims;
+                }
+                verified.remove(token);
+            }
+            claims = parser.parseSignedClaims(token).getPayload();
+            if (maxCachedTokens > 0) {
+                if (verified.size() >= maxCachedTokens) {
+                    evict();
+                }
+                verified.put(token, claims);
+            }
+            return claims;
+        }
+
         // 🔹 Extract username (subject) from token
         public String extractUserName(String token) {
             return extractClaim(token, Claims::getSubject);
@@ -50,26 +116,82 @@ public jwtservice() {
 
         // 🔹 Generic method to extract claims
         public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-            final Claims claims = extractAllClaims(token);
+            final Claims claims = verify(token);
             return claimsResolver.apply(claims);
         }
 
-        private Claims extractAllClaims(String token) {
-            return Jwts.parser()
-                    .verifyWith(getkey())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
+        private boolean isExpired(Claims claims) {
+            Date expiration = claims.getExpiration();
+            return expiration != null && expiration.before(new Date());
+        }
+
+        // 🔹 Validate already verified claims against the loaded user
+        public boolean validateToken(Claims claims, UserDetails userDetails) {
+            return claims.getSubject().equals(userDetails.getUsername()) && !isExpired(claims)
+                    && isCurrentVersion(claims);
+        }
+
+        // 🔹 False once the user's tokens were revoked by a version bump after this one was issued
+        public boolean isCurrentVersion(Claims claims) {
+            return versions.isCurrent(claims.getSubject(), issuedAtMillis(claims));
         }
 
-        private Boolean isTokenExpired(String token) {
-            return extractExpiration(token).before(new Date());
+        // Older tokens only carry iat, taken as the start of its second; with neither, only unrevoked users pass
+        private static long issuedAtMillis(Claims claims) {
+            Number millis = claims.get(ISSUED_MILLIS_CLAIM, Number.class);
+            if (millis != null) {
+                return millis.longValue();
+            }
+            Date issuedAt = claims.getIssuedAt();
+            return issuedAt != null ? issuedAt.getTime() : Long.MIN_VALUE;
+        }
+
+        // 🔹 True if this token id was revoked (logout or compromise); tokens without jti cannot be revoked
+        public boolean isRevoked(Claims claims) {
+            String jti = claims.getId();
+            return jti != null && revocations.isRevoked(jti);
+        }
+
+        // 🔹 Revoke a valid token until it would have expired anyway
+        public void revoke(String token) {
+            Claims claims = verify(token);
+            if (claims.getId() != null && claims.getExpiration() != null) {
+                revocations.revoke(claims.getId(), claims.getExpiration().getTime());
+            }
+        }
+
+        // 🔹 True if the token carries everything needed to authenticate without a user lookup
+        public boolean isSelfContained(Claims claims) {
+            return claims.get(ISSUED_MILLIS_CLAIM) != null && claims.get(AUTHORITIES_CLAIM) instanceof List;
+        }
+
+        public List<GrantedAuthority> extractAuthorities(Claims claims) {
+            List<?> names = claims.get(AUTHORITIES_CLAIM, List.class);
+            List<GrantedAuthority> authorities = new ArrayList<>(names.size());
+            for (Object name : names) {
+                authorities.add(new SimpleGrantedAuthority(String.valueOf(name)));
+            }
+            return authorities;
         }
 
         // 🔹 Validate token
         public boolean validateToken(String token, UserDetails userDetails) {
-            final String username = extractUserName(token);
-            return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+            return validateToken(verify(token), userDetails);
+        }
+
+        int cachedTokens() {
+            return verified.size();
+        }
+
+        // Expired tokens go first, then arbitrary ones until the cache is at 90%
+        private void evict() {
+            verified.values().removeIf(this::isExpired);
+            int target = maxCachedTokens - maxCachedTokens / 10;
+            Iterator<String> it = verified.keySet().iterator();
+            while (verified.size() > target && it.hasNext()) {
+                it.next();
+                it.remove();
+            }
         }
 
 }
@@ -0,0 +1,77 @@
+package com.example.demo;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compares two JMH result files written by exec:exec@jmh, e.g. one per commit:
+ *
+ *   mvn -q test-compile exec:exec@jmh -Djmh.result=target/before.json
+ *   (change, rebuild)
+ *   mvn -q test-compile exec:exec@jmh -Djmh.result=target/after.json
+ *   mvn -q exec:exec -Dexec.classpathScope=test -Dexec.executable=java \
+ *       -Dexec.args="-cp %classpath com.example.demo.BenchmarkComparison target/before.json target/after.json"
+ *
+ * Prints each benchmark and parameter set with both scores and the change.
+ * Changes within the two runs' combined error are marked "~" as noise.
+ */
+class BenchmarkComparison {
+
+	public static void main(String[] args) throws IOException {
+		if (args.length != 2) {
+			System.err.println("usage: BenchmarkComparison <before.json> <after.json>");
+			System.exit(2);
+		}
+		Map<String, JsonNode> before = read(args[0]);
+		Map<String, JsonNode> after = read(args[1]);
+		System.out.printf("%-70s %14s %14s %-10s %9s%n", "Benchmark", "Before", "After", "Units", "Change");
+		for (Map.Entry<String, JsonNode> entry : after.entrySet()) {
+			JsonNode now = entry.getValue().get("primaryMetric");
+			JsonNode old = before.containsKey(entry.getKey()) ? before.get(entry.getKey()).get("primaryMetric") : null;
+			String units = now.get("scoreUnit").asText();
+			if (old == null) {
+				System.out.printf("%-70s %14s %14.3f %-10s %9s%n", entry.getKey(), "-", now.get("score").asDouble(), units, "new");
+				continue;
+			}
+			double was = old.get("score").asDouble();
+			double is = now.get("score").asDouble();
+			boolean noise = Math.abs(is - was) <= error(old) + error(now);
+			System.out.printf("%-70s %14.3f %14.3f %-10s %+8.1f%%%s%n", entry.getKey(), was, is, units,
+					(is - was) * 100 / was, noise ? "~" : "");
+		}
+		for (String key : before.keySet()) {
+			if (!after.containsKey(key)) {
+				System.out.printf("%-70s %14.3f %14s %-10s %9s%n", key,
+						before.get(key).get("primaryMetric").get("score").asDouble(), "-", "", "not run");
+			}
+		}
+	}
+
+	// JMH reports NaN error when there were too few iterations to compute one
+	private static double error(JsonNode metric) {
+		double error = metric.path("scoreError").asDouble(0);
+		return Double.isNaN(error) ? 0 : error;
+	}
+
+	// Keyed by benchmark name plus parameters, e.g. "JwtFilterBenchmark.cached:lookupMicros=500"
+	private static Map<String, JsonNode> read(String path) throws IOException {
+		Map<String, JsonNode> results = new LinkedHashMap<>();
+		for (JsonNode result : new ObjectMapper().readTree(new File(path))) {
+			String name = result.get("benchmark").asText();
+			StringBuilder key = new StringBuilder(name.substring(name.lastIndexOf('.', name.lastIndexOf('.') - 1) + 1));
+			JsonNode params = result.get("params");
+			if (params != null) {
+				for (Map.Entry<String, JsonNode> param : params.properties()) {
+					key.append(':').append(param.getKey()).append('=').append(param.getValue().asText());
+				}
+			}
+			results.put(key.toString(), result);
+		}
+		return results;
+	}
+}
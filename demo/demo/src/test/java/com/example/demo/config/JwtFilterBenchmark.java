@@ -0,0 +1,129 @@
+package com.example.demo.config;
+
+import com.example.demo.model.UserPrinciple;
+import com.example.demo.model.Users;
+import com.example.demo.service.ProductService;
+import com.example.demo.service.TokenRevocationList;
+import com.example.demo.service.UserTokenVersions;
+import com.example.demo.service.jwtservice;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * JwtFilter cost per authenticated request (not a unit test; run it by hand):
+ *
+ *   mvn -q test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java \
+ *       -Dexec.args="-cp %classpath org.openjdk.jmh.Main JwtFilterBenchmark"
+ *
+ * legacy replays the old filter: three signature checks per request, each
+ * rebuilding the key. uncached verifies once with the shared key; cached is
+ * a repeat request for a token that was already verified. Both then look the
+ * user up through a stub that takes lookupMicros, standing in for MySQL.
+ * stateless authenticates from the token's claims and never calls it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JwtFilterBenchmark {
+
+	private static final String SECRET = "cr709abcdefghijklmnopqrstuvwxyz1234567890ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+	private static final FilterChain NO_OP = (request, response) -> { };
+
+	@Param({"0", "500"})
+	public long lookupMicros;
+
+	private JwtFilter uncached;
+	private JwtFilter cached;
+	private JwtFilter stateless;
+	private UserDetails user;
+	private String token;
+	private MockHttpServletRequest request;
+
+	@Setup
+	public void setUp() {
+		Users users = new Users();
+		users.setUsername("harsha");
+		users.setPassword("secret");
+		user = new UserPrinciple(users);
+
+		UserTokenVersions versions = new UserTokenVersions();
+		TokenRevocationList revocations = new TokenRevocationList("", 1_000_000, 0.01);
+		jwtservice jwt = new jwtservice(versions, revocations, 10_000);
+		token = jwt.genetaredtoken("harsha", user.getAuthorities());
+		uncached = filter(new jwtservice(versions, revocations, 0), false);
+		cached = filter(jwt, false);
+		stateless = filter(jwt, true);
+		request = new MockHttpServletRequest("GET", "/products");
+		request.addHeader("Authorization", "Bearer " + token);
+	}
+
+	private JwtFilter filter(jwtservice jwt, boolean statelessAuth) {
+		JwtFilter filter = new JwtFilter();
+		ReflectionTestUtils.setField(filter, "jwtservices", jwt);
+		ReflectionTestUtils.setField(filter, "statelessAuth", statelessAuth);
+		ReflectionTestUtils.setField(filter, "userDetailsService", new ProductService() {
+			@Override
+			public UserDetails loadUserByUsername(String username) {
+				if (lookupMicros > 0) {
+					LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(lookupMicros));
+				}
+				return user;
+			}
+		});
+		return filter;
+	}
+
+	@TearDown(Level.Invocation)
+	public void clearContext() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Benchmark
+	public boolean legacy() {
+		String username = legacyClaims(token).getSubject();
+		return username.equals(user.getUsername())
+				&& legacyClaims(token).getSubject().equals(user.getUsername())
+				&& !legacyClaims(token).getExpiration().before(new Date());
+	}
+
+	@Benchmark
+	public Object uncached() throws Exception {
+		uncached.doFilter(request, new MockHttpServletResponse(), NO_OP);
+		return SecurityContextHolder.getContext().getAuthentication();
+	}
+
+	@Benchmark
+	public Object cached() throws Exception {
+		cached.doFilter(request, new MockHttpServletResponse(), NO_OP);
+		return SecurityContextHolder.getContext().getAuthentication();
+	}
+
+	@Benchmark
+	public Object stateless() throws Exception {
+		stateless.doFilter(request, new MockHttpServletResponse(), NO_OP);
+		return SecurityContextHolder.getContext().getAuthentication();
+	}
+
+	// The pre-change parse: decode the secret, build a key and a parser, verify
+	private static Claims legacyClaims(String token) {
+		SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+		return Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload();
+	}
+}
@@ -0,0 +1,85 @@
+package com.example.demo.controller;
+
+import com.example.demo.model.UserSummary;
+import com.example.demo.repository.Productrepo;
+import com.example.demo.service.ProductService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.UnsupportedEncodingException;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class ProductControllerTest {
+
+	private final ObjectMapper mapper = new ObjectMapper();
+	private final Productrepo repo = mock(Productrepo.class);
+	private final ProductController controller = new ProductController();
+
+	ProductControllerTest() {
+		ProductService service = new ProductService();
+		ReflectionTestUtils.setField(service, "repo", repo);
+		ReflectionTestUtils.setField(controller, "service", service);
+		ReflectionTestUtils.setField(controller, "objectMapper", mapper);
+	}
+
+	@Test
+	void fullPagePointsToTheNext() throws Exception {
+		when(repo.findByIdGreaterThanOrderByIdAsc(Integer.MIN_VALUE, Limit.of(2)))
+				.thenReturn(Stream.of(new UserSummary(3, "a"), new UserSummary(7, "b")));
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		controller.getproduct(null, 2, response);
+
+		JsonNode page = mapper.readTree(response.getContentAsString());
+		assertEquals(2, page.get("users").size());
+		assertEquals("b", page.get("users").get(1).get("username").asText());
+		assertEquals(7, page.get("next").asInt());
+	}
+
+	@Test
+	void failedQueryIsNotAnEmptyLastPage() {
+		when(repo.findByIdGreaterThanOrderByIdAsc(anyInt(), any()))
+				.thenThrow(new DataAccessResourceFailureException("connection lost"));
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		assertThrows(DataAccessResourceFailureException.class, () -> controller.getproduct(null, 100, response));
+		assertFalse(response.isCommitted());
+		assertNotJson(response);
+	}
+
+	@Test
+	void failureHalfWayIsNotAShortLastPage() {
+		Stream<UserSummary> rows = Stream.of(1, 2, 3).map(id -> {
+			if (id == 3) {
+				throw new DataAccessResourceFailureException("connection lost");
+			}
+			return new UserSummary(id, "user" + id);
+		});
+		when(repo.findByIdGreaterThanOrderByIdAsc(anyInt(), any())).thenReturn(rows);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		assertThrows(DataAccessResourceFailureException.class, () -> controller.getproduct(null, 100, response));
+		assertNotJson(response);
+	}
+
+	// Whatever reached the client must not parse as a complete page
+	private void assertNotJson(MockHttpServletResponse response) {
+		try {
+			assertTrue(mapper.readTree(response.getContentAsString()).isMissingNode(),
+					"complete JSON sent for a failed page: " + response.getContentAsString());
+		} catch (JsonProcessingException | UnsupportedEncodingException e) {
+			// Cut off part way, which is what a client should see
+		}
+	}
+}
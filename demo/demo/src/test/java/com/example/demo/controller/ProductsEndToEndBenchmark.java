@@ -0,0 +1,116 @@
+package com.example.demo.controller;
+
+import com.example.demo.DemoApplication;
+import com.example.demo.model.Users;
+import com.example.demo.repository.Productrepo;
+import com.example.demo.service.PasswordHashingService;
+import jakarta.servlet.Filter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Authenticated GET /products through the whole app: security filters, JwtFilter,
+ * controller, JPA and JSON (not a unit test; run it by hand or with the other
+ * benchmarks through exec:exec@jmh, see pom.xml):
+ *
+ *   mvn -q test-compile exec:exec@jmh -Djmh.include=ProductsEndToEndBenchmark
+ *
+ * The app starts with the "benchmark" profile (src/test/resources), on an
+ * embedded H2 database seeded with the given number of users, and logs in
+ * once through /login for the bearer token. concurrent runs four client
+ * threads against the same app.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductsEndToEndBenchmark {
+
+	@Param({"100", "5000"})
+	public int users;
+
+	@Param({"false", "true"})
+	public boolean statelessAuth;
+
+	private ConfigurableApplicationContext context;
+	private MockMvc mvc;
+	private String authorization;
+
+	@Setup
+	public void setUp() throws Exception {
+		context = new SpringApplicationBuilder(DemoApplication.class)
+				.profiles("benchmark")
+				.properties("jwt.stateless-auth=" + statelessAuth)
+				.run();
+		mvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context)
+				.addFilters(context.getBean("springSecurityFilterChain", Filter.class))
+				.build();
+
+		// One real hash for the login user; the others share a hash nobody logs in with
+		PasswordHashingService encoder = context.getBean(PasswordHashingService.class);
+		String filler = encoder.encode("filler");
+		List<Users> rows = new ArrayList<>(users);
+		for (int id = 1; id < users; id++) {
+			rows.add(user(id, "user" + id, filler));
+		}
+		rows.add(user(users, "harsha", encoder.encode("123321")));
+		context.getBean(Productrepo.class).saveAll(rows);
+
+		MockHttpServletResponse login = mvc.perform(post("/login")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"username\":\"harsha\",\"password\":\"123321\"}"))
+				.andReturn().getResponse();
+		if (login.getStatus() != 200) {
+			throw new IllegalStateException("Login failed with " + login.getStatus());
+		}
+		authorization = "Bearer " + login.getContentAsString();
+	}
+
+	private static Users user(int id, String username, String password) {
+		Users user = new Users();
+		user.setId(id);
+		user.setUsername(username);
+		user.setPassword(password);
+		return user;
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public int products() throws Exception {
+		return listProducts();
+	}
+
+	@Benchmark
+	@Threads(4)
+	public int concurrent() throws Exception {
+		return listProducts();
+	}
+
+	private int listProducts() throws Exception {
+		MockHttpServletResponse response = mvc.perform(get("/products").header("Authorization", authorization))
+				.andReturn().getResponse();
+		if (response.getStatus() != 200) {
+			throw new IllegalStateException("GET /products returned " + response.getStatus());
+		}
+		return response.getContentAsByteArray().length;
+	}
+}
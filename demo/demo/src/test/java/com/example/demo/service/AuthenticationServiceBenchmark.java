@@ -0,0 +1,70 @@
+package com.example.demo.service;
+
+import com.example.demo.model.UserPrinciple;
+import com.example.demo.model.Users;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * /login cost by BCrypt cost (not a unit test; run it by hand or with the other
+ * benchmarks through exec:exec@jmh, see pom.xml):
+ *
+ *   mvn -q test-compile exec:exec@jmh -Djmh.include=AuthenticationServiceBenchmark
+ *
+ * verify() goes through the same provider and PasswordHashingService as the
+ * app, against a user held in memory, so the time is the hash plus signing
+ * the token. Each cost step should roughly double it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AuthenticationServiceBenchmark {
+
+	@Param({"10", "12", "14"})
+	public int cost;
+
+	private PasswordHashingService hashing;
+	private AuthenticationService authService;
+	private Users login;
+
+	@Setup
+	public void setUp() {
+		hashing = new PasswordHashingService(cost, Duration.ZERO, 1, 32, Duration.ofSeconds(30), 1, 1);
+		Users stored = new Users();
+		stored.setUsername("harsha");
+		stored.setPassword(hashing.encode("123321"));
+		UserDetails user = new UserPrinciple(stored);
+
+		DaoAuthenticationProvider provider = new DaoAuthenticationProvider(username -> user);
+		provider.setPasswordEncoder(hashing);
+
+		UserTokenVersions versions = new UserTokenVersions();
+		authService = new AuthenticationService();
+		ReflectionTestUtils.setField(authService, "authenticationManager", new ProviderManager(provider));
+		ReflectionTestUtils.setField(authService, "jwtserv",
+				new jwtservice(versions, new TokenRevocationList("", 1_000, 0.01), 0));
+
+		login = new Users();
+		login.setUsername("harsha");
+		login.setPassword("123321");
+	}
+
+	@TearDown
+	public void tearDown() {
+		hashing.shutdown();
+	}
+
+	@Benchmark
+	public String verify() {
+		return authService.verify(login);
+	}
+}
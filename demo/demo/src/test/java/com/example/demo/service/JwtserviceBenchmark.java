@@ -0,0 +1,74 @@
+package com.example.demo.service;
+
+import com.example.demo.model.UserPrinciple;
+import com.example.demo.model.Users;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issue and validation cost in jwtservice (not a unit test; run it by hand
+ * or with the other benchmarks through exec:exec@jmh, see pom.xml):
+ *
+ *   mvn -q test-compile exec:exec@jmh -Djmh.include=JwtserviceBenchmark
+ *
+ * generate signs a token as /login does. verifyUncached checks the signature
+ * every time; verifyCached is a repeat request for an already verified token.
+ * validateToken and validateClaims are the checks JwtFilter makes after verify.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JwtserviceBenchmark {
+
+	private jwtservice uncached;
+	private jwtservice cached;
+	private UserDetails user;
+	private String token;
+	private Claims claims;
+
+	@Setup
+	public void setUp() {
+		Users users = new Users();
+		users.setUsername("harsha");
+		users.setPassword("secret");
+		user = new UserPrinciple(users);
+
+		UserTokenVersions versions = new UserTokenVersions();
+		TokenRevocationList revocations = new TokenRevocationList("", 1_000, 0.01);
+		uncached = new jwtservice(versions, revocations, 0);
+		cached = new jwtservice(versions, revocations, 10_000);
+		token = cached.genetaredtoken("harsha", user.getAuthorities());
+		claims = cached.verify(token);
+	}
+
+	@Benchmark
+	public String generate() {
+		return cached.genetaredtoken("harsha", user.getAuthorities());
+	}
+
+	@Benchmark
+	public Claims verifyUncached() {
+		return uncached.verify(token);
+	}
+
+	@Benchmark
+	public Claims verifyCached() {
+		return cached.verify(token);
+	}
+
+	@Benchmark
+	public boolean validateToken() {
+		return cached.validateToken(token, user);
+	}
+
+	@Benchmark
+	public boolean validateClaims() {
+		return cached.validateToken(claims, user) && !cached.isRevoked(claims);
+	}
+}
@@ -0,0 +1,84 @@
+package com.example.demo.service;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtserviceTest {
+
+	private final AtomicLong clock = new AtomicLong(System.currentTimeMillis());
+	private final UserTokenVersions versions = new UserTokenVersions(null, jwtservice.TOKEN_LIFETIME_MILLIS, clock::get);
+	private final TokenRevocationList revocations = new TokenRevocationList("", 1000, 0.01);
+
+	@Test
+	void verifiesOnceAndReusesClaims() {
+		jwtservice jwt = new jwtservice(versions, revocations, 10);
+		String token = jwt.genetaredtoken("harsha");
+
+		Claims first = jwt.verify(token);
+		assertEquals("harsha", first.getSubject());
+		assertSame(first, jwt.verify(token));
+		assertEquals("harsha", jwt.extractUserName(token));
+	}
+
+	@Test
+	void rejectsTamperedTokenEvenWhenOriginalIsCached() {
+		jwtservice jwt = new jwtservice(versions, revocations, 10);
+		String token = jwt.genetaredtoken("harsha");
+		jwt.verify(token);
+
+		String tampered = token.substring(0, token.length() - 2)
+				+ (token.endsWith("AA") ? "BB" : "AA");
+		assertThrows(JwtException.class, () -> jwt.verify(tampered));
+	}
+
+	@Test
+	void cacheStaysBounded() {
+		jwtservice jwt = new jwtservice(versions, revocations, 10);
+		for (int i = 0; i < 100; i++) {
+			assertEquals("user" + i, jwt.verify(jwt.genetaredtoken("user" + i)).getSubject());
+			assertTrue(jwt.cachedTokens() <= 10);
+		}
+	}
+
+	@Test
+	void embedsAuthoritiesForStatelessAuthentication() {
+		jwtservice jwt = new jwtservice(versions, revocations, 10);
+		Claims claims = jwt.verify(jwt.genetaredtoken("harsha", List.of(new SimpleGrantedAuthority("User"))));
+
+		assertTrue(jwt.isSelfContained(claims));
+		assertEquals(List.of("User"), jwt.extractAuthorities(claims).stream().map(GrantedAuthority::getAuthority).toList());
+		assertFalse(jwt.isSelfContained(jwt.verify(jwt.genetaredtoken("harsha"))));
+	}
+
+	@Test
+	void versionBumpRevokesEarlierTokens() {
+		jwtservice jwt = new jwtservice(versions, revocations, 10);
+		Claims before = jwt.verify(jwt.genetaredtoken("harsha", List.of()));
+		assertTrue(jwt.isCurrentVersion(before));
+
+		clock.incrementAndGet();
+		versions.bump("harsha");
+		assertFalse(jwt.isCurrentVersion(before));
+		assertTrue(jwt.isCurrentVersion(jwt.verify(jwt.genetaredtoken("harsha", List.of()))));
+	}
+
+	@Test
+	void revokedTokenIsReportedRevoked() {
+		jwtservice jwt = new jwtservice(versions, revocations, 10);
+		String token = jwt.genetaredtoken("harsha");
+		String other = jwt.genetaredtoken("harsha");
+		assertFalse(jwt.isRevoked(jwt.verify(token)));
+
+		jwt.revoke(token);
+		assertTrue(jwt.isRevoked(jwt.verify(token)));
+		assertFalse(jwt.isRevoked(jwt.verify(other)));
+	}
+}
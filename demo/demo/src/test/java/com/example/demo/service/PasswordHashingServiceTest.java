@@ -0,0 +1,154 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashingServiceTest {
+
+	@Test
+	void encodesAndMatchesOnTheExecutor() {
+		PasswordHashingService service = new PasswordHashingService(4, Duration.ZERO, 1, 4, Duration.ofSeconds(5), 1, 1);
+		String hash = service.encode("secret");
+
+		assertTrue(hash.startsWith("$2a$04$"));
+		assertTrue(service.matches("secret", hash));
+		assertFalse(service.matches("wrong", hash));
+		// Hashes made at another cost still verify
+		assertTrue(service.matches("secret", new BCryptPasswordEncoder(5).encode("secret")));
+		service.shutdown();
+	}
+
+	@Test
+	void rejectsFastWhenQueueIsFull() throws Exception {
+		PasswordHashingService service = new PasswordHashingService(4, Duration.ZERO, 1, 1, Duration.ofSeconds(5), 1, 1);
+		CountDownLatch running = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CompletableFuture<Object> busy = CompletableFuture.supplyAsync(() -> service.run(null, null, () -> {
+			running.countDown();
+			await(release);
+			return "done";
+		}));
+		assertTrue(running.await(5, TimeUnit.SECONDS));
+		CompletableFuture<Object> queued = CompletableFuture.supplyAsync(() -> service.run(null, null, () -> "queued"));
+		while (service.queueDepth() == 0) {
+			Thread.sleep(1);
+		}
+
+		long start = System.nanoTime();
+		assertThrows(PasswordHashingRejectedException.class, () -> service.encode("secret"));
+		assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(100));
+
+		release.countDown();
+		assertEquals("done", busy.get(5, TimeUnit.SECONDS));
+		assertEquals("queued", queued.get(5, TimeUnit.SECONDS));
+		service.shutdown();
+	}
+
+	@Test
+	void dropsWorkThatWaitedTooLong() throws Exception {
+		PasswordHashingService service = new PasswordHashingService(4, Duration.ZERO, 1, 4, Duration.ofMillis(300), 1, 1);
+		CountDownLatch running = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CompletableFuture<Object> busy = CompletableFuture.supplyAsync(() -> service.run(null, null, () -> {
+			running.countDown();
+			await(release);
+			return "done";
+		}));
+		assertTrue(running.await(5, TimeUnit.SECONDS));
+		CompletableFuture<Object> stale = CompletableFuture.supplyAsync(() -> service.run(null, null, () -> "ran"));
+		Thread.sleep(600);
+		release.countDown();
+
+		assertEquals("done", busy.get(5, TimeUnit.SECONDS));
+		Exception e = assertThrows(Exception.class, () -> stale.get(5, TimeUnit.SECONDS));
+		assertInstanceOf(PasswordHashingRejectedException.class, e.getCause());
+		service.shutdown();
+	}
+
+	@Test
+	void encodesAllInOrderOnTheBulkPool() {
+		// The login queue holds one; a batch must not go through it
+		PasswordHashingService service = new PasswordHashingService(4, Duration.ZERO, 1, 1, Duration.ofSeconds(5), 3, 1);
+		List<String> passwords = List.of("a", "b", "c", "d", "e", "f", "g", "h");
+		List<String> hashes = service.encodeAll(passwords);
+
+		assertEquals(passwords.size(), hashes.size());
+		for (int i = 0; i < passwords.size(); i++) {
+			assertTrue(service.matches(passwords.get(i), hashes.get(i)));
+		}
+		service.shutdown();
+	}
+
+	@Test
+	void bulkBatchBeyondThePermitsIsRejectedAtOnce() throws Exception {
+		PasswordHashingService service = new PasswordHashingService(4, Duration.ZERO, 1, 4, Duration.ofSeconds(5), 1, 1);
+		CountDownLatch hashing = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		// BCrypt reads the password through toString(), which holds the batch here
+		CharSequence held = new CharSequence() {
+			public int length() {
+				return 4;
+			}
+
+			public char charAt(int index) {
+				return "held".charAt(index);
+			}
+
+			public CharSequence subSequence(int start, int end) {
+				return "held".subSequence(start, end);
+			}
+
+			@Override
+			public String toString() {
+				hashing.countDown();
+				await(release);
+				return "held";
+			}
+		};
+		CompletableFuture<List<String>> first = CompletableFuture.supplyAsync(() -> service.encodeAll(List.of(held)));
+		assertTrue(hashing.await(5, TimeUnit.SECONDS));
+
+		long start = System.nanoTime();
+		assertThrows(PasswordHashingRejectedException.class, () -> service.encodeAll(List.of("a", "b")));
+		assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(100));
+		// Logins hash on their own pool meanwhile
+		assertTrue(service.matches("secret", service.encode("secret")));
+
+		release.countDown();
+		assertTrue(service.matches("held", first.get(5, TimeUnit.SECONDS).get(0)));
+		assertEquals(2, service.encodeAll(List.of("a", "b")).size());
+		service.shutdown();
+	}
+
+	@Test
+	void rejectsBatchesLargerThanTheQueueHolds() {
+		PasswordHashingService service = new PasswordHashingService(4, Duration.ZERO, 1, 4, Duration.ofSeconds(5), 1, 1);
+		List<String> tooMany = Collections.nCopies(PasswordHashingService.MAX_BULK_SIZE + 1, "pw");
+
+		assertThrows(IllegalArgumentException.class, () -> service.encodeAll(tooMany));
+		service.shutdown();
+	}
+
+	@Test
+	void calibrationStaysWithinBounds() {
+		assertEquals(PasswordHashingService.MIN_COST, PasswordHashingService.calibrate(Duration.ofNanos(1)));
+		assertEquals(PasswordHashingService.MAX_COST, PasswordHashingService.calibrate(Duration.ofDays(1)));
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,131 @@
+package com.example.demo.service;
+
+import com.example.demo.model.RegistrationResult;
+import com.example.demo.model.RegistrationResult.Status;
+import com.example.demo.model.UserSummary;
+import com.example.demo.model.Users;
+import com.example.demo.repository.Productrepo;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ProductServiceTest {
+
+	private final Productrepo repo = mock(Productrepo.class);
+	private final ProductService service = new ProductService();
+	private final JdbcTemplate jdbc = mock(JdbcTemplate.class);
+	private final TransactionTemplate transactions = mock(TransactionTemplate.class);
+	private final List<UserSummary> seen = new ArrayList<>();
+
+	ProductServiceTest() {
+		ReflectionTestUtils.setField(service, "repo", repo);
+		ReflectionTestUtils.setField(service, "jdbc", jdbc);
+		ReflectionTestUtils.setField(service, "transactions", transactions);
+		ReflectionTestUtils.setField(service, "userCache", new UserDetailsCache(Duration.ofMinutes(5), 10));
+		ReflectionTestUtils.setField(service, "passwordHashing",
+				new PasswordHashingService(4, Duration.ZERO, 1, 4, Duration.ofSeconds(5), 2, 1));
+		doAnswer(invocation -> {
+			invocation.<Consumer<Object>>getArgument(0).accept(null);
+			return null;
+		}).when(transactions).executeWithoutResult(any());
+	}
+
+	private static Users user(int id, String username, String password) {
+		Users user = new Users();
+		user.setId(id);
+		user.setUsername(username);
+		user.setPassword(password);
+		return user;
+	}
+
+	private static List<Status> statuses(List<RegistrationResult> results) {
+		return results.stream().map(RegistrationResult::status).toList();
+	}
+
+	@Test
+	void fullPageContinuesAfterLastId() {
+		when(repo.findByIdGreaterThanOrderByIdAsc(0, Limit.of(2)))
+				.thenReturn(Stream.of(new UserSummary(3, "a"), new UserSummary(7, "b")));
+
+		assertEquals(7, service.getproduct(0, 2, seen::add));
+		assertEquals(List.of(new UserSummary(3, "a"), new UserSummary(7, "b")), seen);
+	}
+
+	@Test
+	void shortPageIsTheLast() {
+		when(repo.findByIdGreaterThanOrderByIdAsc(7, Limit.of(2)))
+				.thenReturn(Stream.of(new UserSummary(9, "c")));
+
+		assertNull(service.getproduct(7, 2, seen::add));
+		assertEquals(1, seen.size());
+	}
+
+	@Test
+	void closesTheResultStream() {
+		List<String> closed = new ArrayList<>();
+		when(repo.findByIdGreaterThanOrderByIdAsc(anyInt(), any()))
+				.thenReturn(Stream.<UserSummary>empty().onClose(() -> closed.add("closed")));
+
+		assertNull(service.getproduct(0, 100, seen::add));
+		assertEquals(List.of("closed"), closed);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void bulkRegistrationReportsEachUserAndInsertsOnlyNewOnes() {
+		when(repo.findByIdInOrUsernameIn(any(), any())).thenReturn(List.of(new UserSummary(1, "taken")));
+		List<Users> users = Arrays.asList(
+				user(2, "a", "pw"),
+				user(1, "b", "pw"),
+				user(3, "taken", "pw"),
+				user(2, "c", "pw"),
+				user(4, "", "pw"),
+				user(5, "d", null),
+				null,
+				user(6, "e", "pw"));
+
+		List<RegistrationResult> results = service.registorAll(users);
+
+		assertEquals(List.of(Status.CREATED, Status.ID_TAKEN, Status.USERNAME_TAKEN, Status.DUPLICATE,
+				Status.INVALID, Status.INVALID, Status.INVALID, Status.CREATED), statuses(results));
+		// One conflict query covering every candidate id and username
+		verify(repo, times(1)).findByIdInOrUsernameIn(
+				argThat((Collection<Integer> ids) -> ids.size() == 4),
+				argThat((Collection<String> names) -> names.containsAll(List.of("a", "b", "taken", "e"))));
+		verify(jdbc).batchUpdate(anyString(), argThat((List<Object[]> rows) -> rows.size() == 2
+				&& rows.get(0)[0].equals(2) && rows.get(1)[1].equals("e")
+				&& ((String) rows.get(0)[2]).startsWith("$2a$04$")),
+				eq(ProductService.INSERT_BATCH_SIZE), any(ParameterizedPreparedStatementSetter.class));
+	}
+
+	@Test
+	void bulkRegistrationReportsConcurrentInsertsAsConflicts() {
+		when(repo.findByIdInOrUsernameIn(any(), any())).thenReturn(List.of());
+		doThrow(new DuplicateKeyException("id 2")).when(transactions).executeWithoutResult(any());
+
+		List<RegistrationResult> results = service.registorAll(List.of(user(2, "a", "pw"), user(3, "b", "pw")));
+
+		assertEquals(List.of(Status.CONFLICT, Status.CONFLICT), statuses(results));
+	}
+
+	@Test
+	void bulkRegistrationWithNothingNewSkipsHashingAndInsert() {
+		assertEquals(List.of(Status.INVALID), statuses(service.registorAll(List.of(user(1, null, "pw")))));
+		verifyNoInteractions(repo, jdbc, transactions);
+	}
+}
@@ -0,0 +1,74 @@
+package com.example.demo.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * isRevoked() cost with millions of revoked ids (not a unit test; run it by
+ * hand, -prof gc shows the allocation rate):
+ *
+ *   mvn -q test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java \
+ *       -Dexec.args="-cp %classpath org.openjdk.jmh.Main TokenRevocationListBenchmark -prof gc"
+ *
+ * Setup also prints the heap used by the list and the time to reload it
+ * from its file, as at startup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+@State(Scope.Benchmark)
+public class TokenRevocationListBenchmark {
+
+	private static final int SAMPLES = 1024;
+
+	@Param({"1000000", "5000000"})
+	public int revoked;
+
+	private TokenRevocationList list;
+	private final String[] liveIds = new String[SAMPLES];
+	private final String[] revokedIds = new String[SAMPLES];
+	private int next;
+
+	@Setup
+	public void setUp() throws Exception {
+		Path file = Files.createTempFile("revoked", ".bin");
+		long expires = System.currentTimeMillis() + TimeUnit.HOURS.toMillis(10);
+		TokenRevocationList writer = new TokenRevocationList(file.toString(), revoked, 0.01);
+		for (int i = 0; i < revoked; i++) {
+			String id = UUID.randomUUID().toString();
+			if (i < SAMPLES) {
+				revokedIds[i] = id;
+			}
+			writer.revoke(id, expires);
+		}
+		writer.close();
+
+		long start = System.nanoTime();
+		list = new TokenRevocationList(file.toString(), revoked, 0.01);
+		long reloadMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+		for (int i = 0; i < SAMPLES; i++) {
+			liveIds[i] = UUID.randomUUID().toString();
+		}
+		System.out.printf("%n%d revoked: %.1f MB heap (%.1f bytes/id), file %.1f MB, reload %d ms%n",
+				list.size(), list.memoryBytes() / 1e6, (double) list.memoryBytes() / list.size(),
+				Files.size(file) / 1e6, reloadMillis);
+		list.close();
+		Files.delete(file);
+	}
+
+	@Benchmark
+	public boolean liveToken() {
+		return list.isRevoked(liveIds[next++ & (SAMPLES - 1)]);
+	}
+
+	@Benchmark
+	public boolean revokedToken() {
+		return list.isRevoked(revokedIds[next++ & (SAMPLES - 1)]);
+	}
+}
@@ -0,0 +1,95 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenRevocationListTest {
+
+	private final AtomicLong clock = new AtomicLong(1_000_000);
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void revokesUuidAndOtherIds() {
+		TokenRevocationList list = new TokenRevocationList(null, 1000, 0.01, clock::get);
+		String uuid = UUID.randomUUID().toString();
+		list.revoke(uuid, clock.get() + 60_000);
+		list.revoke("not-a-uuid", clock.get() + 60_000);
+
+		assertTrue(list.isRevoked(uuid));
+		assertTrue(list.isRevoked("not-a-uuid"));
+		assertFalse(list.isRevoked(UUID.randomUUID().toString()));
+		assertFalse(list.isRevoked("not-a-uuid2"));
+	}
+
+	@Test
+	void growsWithoutLosingEntriesAndDropsExpiredOnes() {
+		TokenRevocationList list = new TokenRevocationList(null, 1000, 0.01, clock::get);
+		List<String> ids = new ArrayList<>();
+		for (int i = 0; i < 20_000; i++) {
+			String id = UUID.randomUUID().toString();
+			ids.add(id);
+			// The first half expires after one minute, the rest after an hour
+			list.revoke(id, clock.get() + (i < 10_000 ? 60_000 : 3_600_000));
+		}
+		for (String id : ids) {
+			assertTrue(list.isRevoked(id));
+		}
+
+		// Expired ids are purged the next time the table fills up
+		clock.addAndGet(120_000);
+		for (int i = 0; i < 40_000; i++) {
+			list.revoke(UUID.randomUUID().toString(), clock.get() + 3_600_000);
+		}
+		assertTrue(list.size() < 60_000, "expired ids purged, size " + list.size());
+		for (String id : ids.subList(10_000, 20_000)) {
+			assertTrue(list.isRevoked(id));
+		}
+	}
+
+	@Test
+	void falsePositivesOnlyComeFromTheBloomFilter() {
+		TokenRevocationList list = new TokenRevocationList(null, 10_000, 0.01, clock::get);
+		for (int i = 0; i < 10_000; i++) {
+			list.revoke(UUID.randomUUID().toString(), clock.get() + 60_000);
+		}
+		for (int i = 0; i < 100_000; i++) {
+			assertFalse(list.isRevoked(UUID.randomUUID().toString()));
+		}
+	}
+
+	@Test
+	void survivesRestartThroughFile() throws Exception {
+		Path file = dir.resolve("revoked.bin");
+		TokenRevocationList list = new TokenRevocationList(file, 1000, 0.01, clock::get);
+		String live = UUID.randomUUID().toString();
+		String expiring = UUID.randomUUID().toString();
+		list.revoke(live, clock.get() + 3_600_000);
+		list.revoke(expiring, clock.get() + 60_000);
+		list.close();
+
+		clock.addAndGet(120_000);
+		TokenRevocationList reloaded = new TokenRevocationList(file, 1000, 0.01, clock::get);
+		assertTrue(reloaded.isRevoked(live));
+		assertFalse(reloaded.isRevoked(expiring));
+		assertEquals(1, reloaded.size());
+		assertEquals(8 + 24, Files.size(file));
+	}
+
+	@Test
+	void refusesForeignFile() throws Exception {
+		Path file = dir.resolve("other.bin");
+		Files.writeString(file, "not ours");
+		assertThrows(IllegalStateException.class, () -> new TokenRevocationList(file, 1000, 0.01, clock::get));
+	}
+}
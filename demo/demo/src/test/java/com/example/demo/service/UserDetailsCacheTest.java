@@ -0,0 +1,74 @@
+package com.example.demo.service;
+
+import com.example.demo.model.UserPrinciple;
+import com.example.demo.model.Users;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserDetailsCacheTest {
+
+	private final AtomicLong clock = new AtomicLong();
+	private final UserDetailsCache cache = new UserDetailsCache(Duration.ofMinutes(5), 10, clock::get);
+	private final AtomicInteger loads = new AtomicInteger();
+
+	private UserDetails load(String username) {
+		loads.incrementAndGet();
+		Users users = new Users();
+		users.setUsername(username);
+		users.setPassword("hash-" + loads.get());
+		return new UserPrinciple(users);
+	}
+
+	@Test
+	void servesRepeatLookupsUntilTtl() {
+		UserDetails first = cache.get("harsha", () -> load("harsha"));
+		assertSame(first, cache.get("harsha", () -> load("harsha")));
+		assertEquals(1, loads.get());
+
+		clock.addAndGet(TimeUnit.MINUTES.toNanos(5));
+		assertNotSame(first, cache.get("harsha", () -> load("harsha")));
+		assertEquals(2, loads.get());
+	}
+
+	@Test
+	void invalidateForcesReload() {
+		cache.get("harsha", () -> load("harsha"));
+		cache.invalidate("harsha");
+
+		assertEquals("hash-2", cache.get("harsha", () -> load("harsha")).getPassword());
+	}
+
+	@Test
+	void loadOverlappingInvalidationIsNotCached() {
+		cache.get("harsha", () -> {
+			cache.invalidate("harsha");
+			return load("harsha");
+		});
+		cache.get("harsha", () -> load("harsha"));
+		assertEquals(2, loads.get());
+	}
+
+	@Test
+	void doesNotCacheMissingUsers() {
+		assertThrows(UsernameNotFoundException.class,
+				() -> cache.get("ghost", () -> { throw new UsernameNotFoundException("user mot found"); }));
+		assertEquals("ghost", cache.get("ghost", () -> load("ghost")).getUsername());
+	}
+
+	@Test
+	void staysBounded() {
+		for (int i = 0; i < 100; i++) {
+			String name = "user" + i;
+			cache.get(name, () -> load(name));
+			assertTrue(cache.size() <= 10);
+		}
+	}
+}
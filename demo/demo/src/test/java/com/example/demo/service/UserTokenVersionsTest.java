@@ -0,0 +1,93 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserTokenVersionsTest {
+
+	private static final long LIFETIME = TimeUnit.HOURS.toMillis(10);
+
+	private final AtomicLong clock = new AtomicLong(1_000_000);
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void bumpRevokesOnlyEarlierTokensOfThatUser() {
+		UserTokenVersions versions = new UserTokenVersions(null, LIFETIME, clock::get);
+		long before = clock.getAndIncrement();
+		versions.bump("harsha");
+
+		assertFalse(versions.isCurrent("harsha", before));
+		assertTrue(versions.isCurrent("harsha", clock.get()));
+		assertTrue(versions.isCurrent("other", before));
+	}
+
+	@Test
+	void restartKeepsRevokedTokensRevokedAndValidOnesValid() {
+		Path file = dir.resolve("versions.bin");
+		UserTokenVersions versions = new UserTokenVersions(file, LIFETIME, clock::get);
+		long before = clock.getAndIncrement();
+		versions.bump("harsha");
+		long after = clock.get();
+		versions.close();
+
+		UserTokenVersions restarted = new UserTokenVersions(file, LIFETIME, clock::get);
+		assertFalse(restarted.isCurrent("harsha", before));
+		assertTrue(restarted.isCurrent("harsha", after));
+		// Users that were never bumped have nothing to compare against
+		assertTrue(restarted.isCurrent("other", before));
+	}
+
+	@Test
+	void laterBumpWinsAndOldOnesAreDroppedAfterTheTokenLifetime() {
+		Path file = dir.resolve("versions.bin");
+		UserTokenVersions versions = new UserTokenVersions(file, LIFETIME, clock::get);
+		versions.bump("harsha");
+		clock.addAndGet(1_000);
+		versions.bump("harsha");
+		versions.bump("other");
+		versions.close();
+
+		UserTokenVersions restarted = new UserTokenVersions(file, LIFETIME, clock::get);
+		assertFalse(restarted.isCurrent("harsha", clock.get() - 1));
+		assertEquals(2, restarted.size());
+		restarted.close();
+
+		// Every token issued before those bumps has expired by now
+		clock.addAndGet(LIFETIME + 1);
+		assertEquals(0, new UserTokenVersions(file, LIFETIME, clock::get).size());
+	}
+
+	@Test
+	void ignoresARecordCutShortByACrash() throws IOException {
+		Path file = dir.resolve("versions.bin");
+		UserTokenVersions versions = new UserTokenVersions(file, LIFETIME, clock::get);
+		versions.bump("harsha");
+		versions.bump("other");
+		versions.close();
+		byte[] bytes = Files.readAllBytes(file);
+		Files.write(file, Arrays.copyOf(bytes, bytes.length - 3));
+
+		UserTokenVersions restarted = new UserTokenVersions(file, LIFETIME, clock::get);
+		assertEquals(1, restarted.size());
+	}
+
+	@Test
+	void refusesAFileThatIsNotOurs() throws IOException {
+		Path file = dir.resolve("versions.bin");
+		Files.writeString(file, "something else entirely");
+
+		assertThrows(IllegalStateException.class, () -> new UserTokenVersions(file, LIFETIME, clock::get));
+		assertEquals("something else entirely", Files.readString(file));
+	}
+}
@@ -1,22 +1,42 @@
 package com.example.ecom_site.controller;
 
+import com.example.ecom_site.model.ImageSize;
 import com.example.ecom_site.model.Product;
+import com.example.ecom_site.model.ProductImageRef;
+import com.example.ecom_site.model.ProductSuggestion;
+import com.example.ecom_site.controller.ProductUploadReader.ProductUpload;
 import com.example.ecom_site.service.ProductService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api")
 @CrossOrigin
 public class ProductController {
+    private static final String IMMUTABLE = CacheControl.maxAge(365, TimeUnit.DAYS)
+            .cachePublic().immutable().getHeaderValue();
+    private static final String NO_CACHE = CacheControl.noCache().getHeaderValue();
+    private static final int MAX_SEARCH_RESULTS = 200;
+    private static final int MAX_SUGGESTIONS = 20;
+
     @Autowired
     private ProductService service;
+    @Autowired
+    private ProductUploadReader uploads;
 
     @GetMapping("/product")
     public ResponseEntity<List<Product>> getallproduct() {
@@ -33,44 +53,93 @@ public class ProductController {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
     }
 
+    // Multipart with a prod JSON part and an imgfile part, streamed by ProductUploadReader
     @PostMapping("/product")
-    public ResponseEntity<?> addproduct(@RequestPart Product prod,
-                                        @RequestPart MultipartFile imgfile) {
+    public ResponseEntity<?> addproduct(HttpServletRequest request) {
+        ProductUpload upload = null;
         try {
-            Product product = service.addproduct(prod, imgfile);
+            upload = uploads.read(request, true);
+            Product product = service.addproduct(upload.product(), upload.image());
             return new ResponseEntity<>(product, HttpStatus.CREATED);
+        } catch (ResponseStatusException e) {
+            return new ResponseEntity<>(e.getReason(), e.getStatusCode());
         } catch (Exception e) {
+            discard(upload);
             return new ResponseEntity<>(e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
         }
 
     }
 
+    // Served from the image store with no database access; supports Range requests.
+    // ?size= picks a resized JPEG (thumbnail, card, detail) instead of the original.
     @GetMapping("/product/{id}/image")
-    public ResponseEntity<byte[]> getprodimgbyid(@PathVariable("id") int prodid) {
-        Product product = service.getproductbyid(prodid);
-        byte[] imgfile = product.getImgdata();
+    public void getprodimgbyid(@PathVariable("id") int prodid,
+                               @RequestParam(name = "v", required = false) String version,
+                               @RequestParam(name = "size", required = false) String sizename,
+                               HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ImageSize size;
+        try {
+            size = ImageSize.of(sizename);
+        } catch (IllegalArgumentException e) {
+            response.setStatus(HttpStatus.BAD_REQUEST.value());
+            return;
+        }
+        ProductImageRef image = service.getproductimage(prodid);
+        if (image == null) {
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
+        }
 
-        if (imgfile == null) {
-            return ResponseEntity.notFound().build();
+        // A versioned URL (Product.imageUrl) never changes content; the bare one has to be revalidated
+        response.setHeader(HttpHeaders.CACHE_CONTROL, image.version().equals(version) ? IMMUTABLE : NO_CACHE);
+        if (size != null) {
+            if (new ServletWebRequest(request, response).checkNotModified(image.etag(size))) {
+                return;
+            }
+            Resource variant = service.loadimage(image, size);
+            if (variant != null) {
+                ImageStreamer.send(variant, MediaType.IMAGE_JPEG_VALUE, image.etag(size), request, response);
+                return;
+            }
+            // Not resized, now or ever: the original, revalidated so a later resize replaces it
+            response.setHeader(HttpHeaders.CACHE_CONTROL, NO_CACHE);
+            response.setHeader(HttpHeaders.ETAG, image.etag());
+        }
+        // If-None-Match is answered with 304 from the index alone, before the store is touched
+        if (new ServletWebRequest(request, response).checkNotModified(image.etag())) {
+            return;
         }
 
-        return ResponseEntity.ok()
-                .contentType(MediaType.valueOf(product.getImgtype()))
-                .body(imgfile);
+        Resource imgfile = service.loadimage(image);
+        if (imgfile == null) {
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        ImageStreamer.send(imgfile, image.type(), image.etag(), request, response);
     }
 
+    // Like addproduct, but imgfile may be left out to keep the current image
     @PutMapping("/product/{id}")
-    public ResponseEntity<?> updateProduct(
-            @PathVariable Long id,
-            @RequestPart Product prod,
-            @RequestPart(required = false) MultipartFile imgfile) {
+    public ResponseEntity<?> updateProduct(@PathVariable Long id, HttpServletRequest request) {
+        ProductUpload upload = null;
         try {
-            Product product = service.updateProduct(id, prod, imgfile);
+            upload = uploads.read(request, false);
+            Product product = service.updateProduct(id, upload.product(), upload.image());
             return new ResponseEntity<>(product, HttpStatus.OK);
+        } catch (ResponseStatusException e) {
+            return new ResponseEntity<>(e.getReason(), e.getStatusCode());
         } catch (Exception e) {
+            discard(upload);
             return new ResponseEntity<>(e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
+
+    // The product was not saved; its image is removed unless another product shares it
+    private void discard(ProductUpload upload) {
+        if (upload != null && upload.image() != null) {
+            service.discardimage(upload.image().hash());
+        }
+    }
     @DeleteMapping("/product/{id}")
     public ResponseEntity<String>deleteproduct(@PathVariable int id){
         Product prod =service.getproductbyid(id);
@@ -81,9 +150,18 @@ public class ProductController {
         else
             return new ResponseEntity<>("Product not Found",HttpStatus.BAD_REQUEST);
     }
+    // Best matches first; the last word also matches as a prefix
     @GetMapping("/product/search")
-    public ResponseEntity<List<Product>>searchproduct(@RequestParam String keyword){
-        List<Product>products=service.searchproduct(keyword);
+    public ResponseEntity<List<Product>>searchproduct(@RequestParam String keyword,
+                                                      @RequestParam(defaultValue = "50") int limit){
+        List<Product>products=service.searchproduct(keyword, Math.min(limit, MAX_SEARCH_RESULTS));
        return new ResponseEntity<>(products,HttpStatus.OK);
     }
+
+    // Search as you type: ids and names only
+    @GetMapping("/product/suggest")
+    public ResponseEntity<List<ProductSuggestion>> suggestproduct(@RequestParam String prefix,
+                                                                  @RequestParam(defaultValue = "10") int limit) {
+        return new ResponseEntity<>(service.suggestproduct(prefix, Math.min(limit, MAX_SUGGESTIONS)), HttpStatus.OK);
+    }
 }
\ No newline at end of file
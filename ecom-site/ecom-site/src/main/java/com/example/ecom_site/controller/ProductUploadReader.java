@@ -0,0 +1,180 @@
+package com.example.ecom_site.controller;
+
+import com.example.ecom_site.model.Product;
+import com.example.ecom_site.model.UploadedImage;
+import com.example.ecom_site.service.ProductService;
+import com.fasterxml.jackson.core.JacksonException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import org.apache.tomcat.util.http.fileupload.FileItemIterator;
+import org.apache.tomcat.util.http.fileupload.FileItemStream;
+import org.apache.tomcat.util.http.fileupload.FileUpload;
+import org.apache.tomcat.util.http.fileupload.FileUploadException;
+import org.apache.tomcat.util.http.fileupload.MultipartStream.MalformedStreamException;
+import org.apache.tomcat.util.http.fileupload.impl.FileUploadIOException;
+import org.apache.tomcat.util.http.fileupload.impl.InvalidContentTypeException;
+import org.apache.tomcat.util.http.fileupload.impl.SizeException;
+import org.apache.tomcat.util.http.fileupload.servlet.ServletRequestContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.util.Arrays;
+
+/**
+ * Reads the multipart body of add and update product requests as it arrives
+ *
+ * Spring's own multipart handling is off (spring.servlet.multipart.enabled),
+ * so nothing is parsed or buffered before the controller runs. prod is read
+ * as JSON; imgfile goes straight from the socket into the ImageStore, which
+ * hashes it on the way, once its first bytes show a JPEG, PNG, GIF or WebP.
+ * Limits apply as bytes arrive: a Content-Length over the limit is refused
+ * before the body is read, and an image stops being read at
+ * images.upload.max-size. Bad uploads are ResponseStatusExceptions carrying
+ * the status to answer with; I/O errors are left as they are.
+ */
+@Component
+class ProductUploadReader {
+
+    record ProductUpload(Product product, UploadedImage image) {
+    }
+
+    private static final int MAX_PRODUCT_JSON = 64 * 1024;
+    // The prod part and multipart headers, on top of the image
+    private static final long REQUEST_OVERHEAD = 1024 * 1024;
+    private static final int MAX_PARTS = 10;
+
+    private static final byte[] JPEG = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF};
+    private static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final byte[] GIF = {'G', 'I', 'F', '8'};
+    private static final byte[] RIFF = {'R', 'I', 'F', 'F'};
+    private static final byte[] WEBP = {'W', 'E', 'B', 'P'};
+
+    @Autowired
+    private ProductService service;
+    @Autowired
+    private ObjectMapper mapper;
+
+    private final long maxImageSize;
+
+    ProductUploadReader(@Value("${images.upload.max-size:5MB}") DataSize maxImageSize) {
+        this.maxImageSize = maxImageSize.toBytes();
+    }
+
+    ProductUpload read(HttpServletRequest request, boolean imageRequired) throws IOException {
+        FileUpload upload = new FileUpload();
+        upload.setSizeMax(maxImageSize + REQUEST_OVERHEAD);
+        upload.setFileSizeMax(maxImageSize);
+        upload.setFileCountMax(MAX_PARTS);
+
+        Product product = null;
+        UploadedImage image = null;
+        boolean done = false;
+        try {
+            FileItemIterator parts = upload.getItemIterator(new ServletRequestContext(request));
+            while (parts.hasNext()) {
+                FileItemStream part = parts.next();
+                if ("prod".equals(part.getFieldName())) {
+                    product = readproduct(part);
+                } else if ("imgfile".equals(part.getFieldName()) && !part.isFormField()) {
+                    if (image != null) {
+                        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Only one imgfile is allowed");
+                    }
+                    image = readimage(part);
+                }
+                // Anything else is skipped by the iterator without being stored
+            }
+            if (product == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Missing prod part");
+            }
+            if (imageRequired && image == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Missing imgfile part");
+            }
+            done = true;
+            return new ProductUpload(product, image);
+        } catch (FileUploadException e) {
+            throw translate(e);
+        } catch (FileUploadIOException e) {
+            // A limit or parse error met while a part was being read
+            throw translate(e.getCause());
+        } catch (MalformedStreamException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Malformed multipart body", e);
+        } finally {
+            // Stored before the rest of the request failed; nothing refers to it yet
+            if (!done && image != null) {
+                service.discardimage(image.hash());
+            }
+        }
+    }
+
+    private Product readproduct(FileItemStream part) throws IOException {
+        byte[] json;
+        try (InputStream in = part.openStream()) {
+            json = in.readNBytes(MAX_PRODUCT_JSON + 1);
+        }
+        if (json.length > MAX_PRODUCT_JSON) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "prod is larger than " + MAX_PRODUCT_JSON + " bytes");
+        }
+        try {
+            return mapper.readValue(json, Product.class);
+        } catch (JacksonException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "prod is not a valid product: " + e.getOriginalMessage());
+        }
+    }
+
+    private UploadedImage readimage(FileItemStream part) throws IOException {
+        // Refused on the part's headers, before any of its bytes are read
+        String declared = part.getContentType();
+        if (declared != null && !declared.startsWith("image/") && !declared.equals("application/octet-stream")) {
+            throw new ResponseStatusException(HttpStatus.UNSUPPORTED_MEDIA_TYPE, "imgfile is " + declared + ", not an image");
+        }
+        try (InputStream in = part.openStream()) {
+            byte[] head = in.readNBytes(12);
+            String type = sniff(head);
+            if (type == null) {
+                throw new ResponseStatusException(HttpStatus.UNSUPPORTED_MEDIA_TYPE, "imgfile must be a JPEG, PNG, GIF or WebP image");
+            }
+            String hash = service.storeimage(new SequenceInputStream(new ByteArrayInputStream(head), in));
+            return new UploadedImage(hash, type, part.getName());
+        }
+    }
+
+    // The image format from its signature, or null if it is not one we accept
+    static String sniff(byte[] head) {
+        if (startsWith(head, JPEG, 0)) {
+            return "image/jpeg";
+        }
+        if (startsWith(head, PNG, 0)) {
+            return "image/png";
+        }
+        if (startsWith(head, GIF, 0)) {
+            return "image/gif";
+        }
+        if (startsWith(head, RIFF, 0) && startsWith(head, WEBP, 8)) {
+            return "image/webp";
+        }
+        return null;
+    }
+
+    private static boolean startsWith(byte[] head, byte[] signature, int offset) {
+        return head.length >= offset + signature.length
+                && Arrays.equals(head, offset, offset + signature.length, signature, 0, signature.length);
+    }
+
+    private static ResponseStatusException translate(Throwable e) {
+        if (e instanceof SizeException) {
+            return new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, e.getMessage());
+        }
+        if (e instanceof InvalidContentTypeException) {
+            return new ResponseStatusException(HttpStatus.UNSUPPORTED_MEDIA_TYPE, e.getMessage());
+        }
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Could not read the upload: " + e.getMessage(), e);
+    }
+}
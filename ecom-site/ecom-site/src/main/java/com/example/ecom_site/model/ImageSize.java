@@ -0,0 +1,30 @@
+package com.example.ecom_site.model;
+
+import java.util.Locale;
+
+// Fixed renditions of a product image, each fitting a square box; the original is served without ?size=
+public enum ImageSize {
+    THUMBNAIL(160),
+    CARD(480),
+    DETAIL(960);
+
+    private final int box;
+
+    ImageSize(int box) {
+        this.box = box;
+    }
+
+    public int box() {
+        return box;
+    }
+
+    // Name in ?size= and in the store, e.g. "card"
+    public String variant() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    // null for no size; an unknown name is an IllegalArgumentException
+    public static ImageSize of(String variant) {
+        return variant == null ? null : valueOf(variant.toUpperCase(Locale.ROOT));
+    }
+}
@@ -7,6 +7,7 @@ import java.math.BigDecimal;
 import java.util.Date;
 @Data
 @Entity
+@Table(indexes = @Index(name = "idx_product_imghash", columnList = "imghash"))
 public class Product {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -22,8 +23,14 @@ public class Product {
     private int quantity;
     private String imgtype;
     private String imgname;
-    @Lob
-    private byte[] imgdata;
+    // SHA-256 of the image content, its key in the ImageStore
+    @Column(length = 64)
+    private String imghash;
 
+    // Lists and search return this instead of the image bytes, which are in the ImageStore.
+    // Versioned by content, so browsers may cache it for good; a new image gets a new URL.
+    public String getImageUrl() {
+        return imghash == null ? null : "/api/product/" + id + "/image?v=" + ProductImageRef.version(imghash);
+    }
 
 }
@@ -0,0 +1,26 @@
+package com.example.ecom_site.model;
+
+// What serving a product's image needs: where the bytes are and their type
+public record ProductImageRef(int id, String hash, String type) {
+
+    // Enough of the hash to tell images apart in a URL
+    private static final int VERSION_LENGTH = 16;
+
+    // The ?v= of the image URL; changes whenever the product gets a new image
+    public static String version(String hash) {
+        return hash.substring(0, VERSION_LENGTH);
+    }
+
+    public String version() {
+        return version(hash);
+    }
+
+    // Strong validator: the content hash identifies the bytes exactly
+    public String etag() {
+        return "\"" + hash + "\"";
+    }
+
+    public String etag(ImageSize size) {
+        return "\"" + hash + "." + size.variant() + "\"";
+    }
+}
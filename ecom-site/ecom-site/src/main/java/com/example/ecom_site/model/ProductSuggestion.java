@@ -0,0 +1,5 @@
+package com.example.ecom_site.model;
+
+// One autocomplete entry: enough to show the name and open the product
+public record ProductSuggestion(int id, String name) {
+}
@@ -0,0 +1,5 @@
+package com.example.ecom_site.model;
+
+// An upload already in the ImageStore; type is what its content turned out to be, not what the client said
+public record UploadedImage(String hash, String type, String name) {
+}
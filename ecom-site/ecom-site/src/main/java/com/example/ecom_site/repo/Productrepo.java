@@ -1,14 +1,21 @@
 package com.example.ecom_site.repo;
 
 import com.example.ecom_site.model.Product;
+import com.example.ecom_site.model.ProductImageRef;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
 public interface Productrepo extends JpaRepository<Product,Integer> {
 
-    @Query("SELECT p FROM Product p WHERE LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%'))")
-    List<Product> searchproduct(@Param("keyword") String keyword);
+    // One page of products by id, for loading the search index
+    List<Product> findByIdGreaterThanOrderByIdAsc(int id, Limit limit);
+
+    @Query("SELECT new com.example.ecom_site.model.ProductImageRef(p.id, p.imghash, p.imgtype) FROM Product p WHERE p.imghash IS NOT NULL")
+    List<ProductImageRef> findimagerefs();
+
+    // Images are shared between products with identical uploads
+    boolean existsByImghash(String imghash);
 }
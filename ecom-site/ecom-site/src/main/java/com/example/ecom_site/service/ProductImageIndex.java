@@ -0,0 +1,49 @@
+package com.example.ecom_site.service;
+
+import com.example.ecom_site.model.Product;
+import com.example.ecom_site.model.ProductImageRef;
+import com.example.ecom_site.repo.Productrepo;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Product id to image hash and type, loaded at startup and kept current by ProductService
+ *
+ * Lets the image endpoint serve from the ImageStore without a database
+ * connection. Only this instance's writes are seen; another instance
+ * writing to the same database shows up after a restart.
+ */
+@Component
+public class ProductImageIndex {
+
+    private final ConcurrentHashMap<Integer, ProductImageRef> images = new ConcurrentHashMap<>();
+
+    @Autowired
+    private Productrepo repo;
+
+    @PostConstruct
+    public void reload() {
+        for (ProductImageRef image : repo.findimagerefs()) {
+            images.put(image.id(), image);
+        }
+    }
+
+    public ProductImageRef get(int productId) {
+        return images.get(productId);
+    }
+
+    public void update(Product product) {
+        if (product.getImghash() == null) {
+            images.remove(product.getId());
+        } else {
+            images.put(product.getId(), new ProductImageRef(product.getId(), product.getImghash(), product.getImgtype()));
+        }
+    }
+
+    public void remove(int productId) {
+        images.remove(productId);
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.ecom_site.service;
+
+import com.example.ecom_site.store.ImageStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.util.List;
+
+/**
+ * Moves image blobs out of MySQL into the ImageStore
+ *
+ * Covers both older layouts: the product.imgdata column and the
+ * product_image table. Runs at startup and does nothing once both are gone
+ * or empty. Each product is stored, pointed at its hash and then cleared on
+ * its own, so a restart halfway through picks up where it stopped. Both
+ * in-memory indexes are reloaded afterwards so images show up in listings,
+ * search and suggestions without a second restart.
+ * ddl-auto=update never drops anything; drop the column and table by hand
+ * once they are empty.
+ */
+@Component
+public class ProductImageMigration implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductImageMigration.class);
+
+    @Autowired
+    private JdbcTemplate jdbc;
+    @Autowired
+    private ImageStore imagestore;
+    @Autowired
+    private ProductImageIndex imageindex;
+    @Autowired
+    private ProductSearchIndex searchindex;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int moved = 0;
+        if (hasColumn("product", "imgdata")) {
+            moved += migrate("select id from product where imgdata is not null",
+                    "select imgdata from product where id = ?",
+                    "update product set imgdata = null where id = ?");
+        }
+        // Newer than the column, so it wins for a product found in both
+        if (hasColumn("product_image", "imgdata")) {
+            moved += migrate("select product_id from product_image",
+                    "select imgdata from product_image where product_id = ?",
+                    "delete from product_image where product_id = ?");
+        }
+        if (moved > 0) {
+            imageindex.reload();
+            // Built before the runners, so its copies still have no imghash
+            searchindex.reload();
+            logger.info("Moved {} product images from the database to the image store", moved);
+        }
+    }
+
+    private int migrate(String idsQuery, String imageQuery, String clearUpdate) {
+        List<Integer> ids = jdbc.queryForList(idsQuery, Integer.class);
+        for (int id : ids) {
+            String hash = jdbc.query(imageQuery, (ResultSet rs) -> {
+                if (!rs.next()) {
+                    return null;
+                }
+                try (InputStream in = rs.getBinaryStream(1)) {
+                    return in == null ? null : imagestore.put(in);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Could not store image of product " + id, e);
+                }
+            }, id);
+            if (hash != null) {
+                jdbc.update("update product set imghash = ? where id = ?", hash, id);
+            }
+            jdbc.update(clearUpdate, id);
+        }
+        return ids.size();
+    }
+
+    private boolean hasColumn(String table, String column) {
+        return Boolean.TRUE.equals(jdbc.execute((ConnectionCallback<Boolean>) connection -> {
+            try (ResultSet columns = connection.getMetaData()
+                    .getColumns(connection.getCatalog(), null, table, column)) {
+                return columns.next();
+            }
+        }));
+    }
+}
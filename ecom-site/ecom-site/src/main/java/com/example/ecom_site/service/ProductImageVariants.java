@@ -0,0 +1,242 @@
+package com.example.ecom_site.service;
+
+import com.example.ecom_site.model.ImageSize;
+import com.example.ecom_site.store.ImageStore;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOException;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Resized JPEG copies of product images, one per ImageSize, kept in the ImageStore beside the original
+ *
+ * Uploads schedule all sizes on a small bounded pool; a size asked for
+ * before it exists (older images, a full queue, a restart) is made on
+ * demand and stored like the others. Each original is decoded once for all
+ * of its sizes, and a request for an image already being resized waits for
+ * that work instead of repeating it. Images ImageIO cannot read (WebP, SVG)
+ * get no variants; callers serve the original instead.
+ */
+@Component
+public class ProductImageVariants {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductImageVariants.class);
+    private static final float JPEG_QUALITY = 0.85f;
+
+    private final ImageStore imagestore;
+    private final ThreadPoolExecutor executor;
+    private final long waitMillis;
+    private final Map<String, CompletableFuture<Void>> inflight = new ConcurrentHashMap<>();
+    // Originals that could not be decoded, so requests stop retrying them
+    private final Set<String> unsupported = ConcurrentHashMap.newKeySet();
+
+    public ProductImageVariants(ImageStore imagestore,
+                                @Value("${images.variants.threads:2}") int threads,
+                                @Value("${images.variants.queue:100}") int queue,
+                                @Value("${images.variants.wait-millis:5000}") long waitMillis) {
+        this.imagestore = imagestore;
+        this.waitMillis = waitMillis;
+        AtomicInteger count = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queue), task -> {
+                    Thread thread = new Thread(task, "image-variants-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    // Resizes in the background; with the queue full it is left to the first request
+    public void schedule(String hash) {
+        if (hash == null) {
+            return;
+        }
+        try {
+            submit(hash);
+        } catch (RejectedExecutionException e) {
+            logger.debug("Variant queue full, image {} will be resized on first request", hash);
+        }
+    }
+
+    /**
+     * The given size of the image, made now if missing. Null when there is
+     * none: the image cannot be decoded, or resizing is busy or failed and
+     * did not finish within images.variants.wait-millis.
+     */
+    public Resource get(String hash, ImageSize size) {
+        Resource variant = imagestore.getVariant(hash, size.variant());
+        if (variant != null || unsupported.contains(hash)) {
+            return variant;
+        }
+        try {
+            submit(hash).get(waitMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException | TimeoutException | ExecutionException e) {
+            logger.debug("No {} variant of image {} yet", size.variant(), hash, e);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        return imagestore.getVariant(hash, size.variant());
+    }
+
+    private CompletableFuture<Void> submit(String hash) {
+        CompletableFuture<Void> created = new CompletableFuture<>();
+        CompletableFuture<Void> running = inflight.putIfAbsent(hash, created);
+        if (running != null) {
+            return running;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    generate(hash);
+                    created.complete(null);
+                } catch (Throwable e) {
+                    logger.warn("Could not resize image {}", hash, e);
+                    created.completeExceptionally(e);
+                } finally {
+                    inflight.remove(hash, created);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inflight.remove(hash, created);
+            throw e;
+        }
+        return created;
+    }
+
+    void generate(String hash) throws IOException {
+        List<ImageSize> missing = new ArrayList<>();
+        for (ImageSize size : ImageSize.values()) {
+            if (imagestore.getVariant(hash, size.variant()) == null) {
+                missing.add(size);
+            }
+        }
+        Resource original = imagestore.get(hash);
+        if (missing.isEmpty() || original == null) {
+            return;
+        }
+
+        BufferedImage image;
+        try (ImageInputStream in = original.isFile()
+                ? ImageIO.createImageInputStream(original.getFile())
+                : new MemoryCacheImageInputStream(original.getInputStream())) {
+            image = read(in, missing.get(missing.size() - 1).box());
+        } catch (IIOException e) {
+            // Corrupt or truncated; no point trying again
+            image = null;
+        }
+        if (image == null) {
+            unsupported.add(hash);
+            logger.info("Image {} is not in a format ImageIO reads, serving it only at full size", hash);
+            return;
+        }
+        // Largest first, each made from the one before, so every step scales by a small factor
+        for (int i = missing.size() - 1; i >= 0; i--) {
+            ImageSize size = missing.get(i);
+            image = resize(image, size.box());
+            imagestore.putVariant(hash, size.variant(), new ByteArrayInputStream(jpeg(image)));
+        }
+    }
+
+    // Decodes with subsampling so a large photo is never held at full resolution
+    private static BufferedImage read(ImageInputStream input, int largestBox) throws IOException {
+        Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+        if (readers == null || !readers.hasNext()) {
+            return null;
+        }
+        ImageReader reader = readers.next();
+        try {
+            reader.setInput(input, true, true);
+            int longest = Math.max(reader.getWidth(0), reader.getHeight(0));
+            // Keep at least twice the largest box, so resize() still smooths it
+            int step = Math.max(1, longest / (2 * largestBox));
+            ImageReadParam param = reader.getDefaultReadParam();
+            param.setSourceSubsampling(step, step, 0, 0);
+            return reader.read(0, param);
+        } finally {
+            reader.dispose();
+        }
+    }
+
+    // Fits the image in a box x box square, halving first for smooth downscaling; never enlarges
+    static BufferedImage resize(BufferedImage image, int box) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        double scale = Math.min(1.0, (double) box / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * scale));
+        int targetHeight = Math.max(1, (int) Math.round(height * scale));
+
+        BufferedImage current = image;
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            BufferedImage next = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = next.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                // JPEG has no transparency; flatten onto white
+                g.setColor(Color.WHITE);
+                g.fillRect(0, 0, width, height);
+                g.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                g.dispose();
+            }
+            current = next;
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    private static byte[] jpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,379 @@
+package com.example.ecom_site.service;
+
+import com.example.ecom_site.model.Product;
+import com.example.ecom_site.repo.Productrepo;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Full-text search over product name, brand, category and description, held in memory
+ *
+ * An inverted index loaded at startup and kept current by ProductService,
+ * so searching never touches the database. Matches are ranked with BM25,
+ * with a word in the name counting for more than one in the description,
+ * and only the best results are sorted. The last word of a query also
+ * matches as a prefix ("lam" finds "lamp"), for search as you type. Like
+ * ProductImageIndex, only this instance's writes are seen.
+ *
+ * A product gets a new document number each time it changes; the old one
+ * is marked deleted and skipped until enough pile up to rebuild without
+ * them.
+ */
+@Component
+public class ProductSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductSearchIndex.class);
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final float NAME = 3f;
+    private static final float BRAND = 2f;
+    private static final float CATEGORY = 1.5f;
+    private static final float DESCRIPTION = 1f;
+    // A prefix expands to its most common completions, up to this many
+    private static final int MAX_COMPLETIONS = 32;
+    // Single letters would expand to most of the dictionary
+    private static final int MIN_PREFIX = 2;
+    // "lamp" should rank a desk lamp above a lampshade
+    private static final float COMPLETION_WEIGHT = 0.5f;
+    private static final int RELOAD_PAGE = 10_000;
+    // A word in more than 1 in this many products adds little to the ranking. Once rarer words have
+    // found enough results it only reorders those, rather than bringing in every product it is in.
+    private static final int COMMON_FRACTION = 10;
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    // Score arrays are as long as the index, so a few are kept for reuse instead of one per request thread
+    private final BlockingQueue<Scores> spareScores = new ArrayBlockingQueue<>(Runtime.getRuntime().availableProcessors());
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, Postings> terms = new TreeMap<>();
+    private final List<Product> docs = new ArrayList<>();
+    private final Map<Integer, Integer> docOf = new HashMap<>();
+    private final BitSet deleted = new BitSet();
+    private float[] lengths = new float[1024];
+    private double totalLength;
+
+    @Autowired
+    private Productrepo repo;
+
+    @PostConstruct
+    public void reload() {
+        int count = 0;
+        int after = 0;
+        List<Product> page;
+        do {
+            page = repo.findByIdGreaterThanOrderByIdAsc(after, Limit.of(RELOAD_PAGE));
+            for (Product product : page) {
+                update(product);
+                after = product.getId();
+            }
+            count += page.size();
+        } while (page.size() == RELOAD_PAGE);
+        logger.info("Indexed {} products for search", count);
+    }
+
+    public void update(Product product) {
+        Map<String, Float> frequencies = new HashMap<>();
+        float length = add(frequencies, product.getName(), NAME)
+                + add(frequencies, product.getBrand(), BRAND)
+                + add(frequencies, product.getCategory(), CATEGORY)
+                + add(frequencies, product.getDescription(), DESCRIPTION);
+
+        lock.writeLock().lock();
+        try {
+            delete(product.getId());
+            int doc = docs.size();
+            docs.add(product);
+            docOf.put(product.getId(), doc);
+            if (doc == lengths.length) {
+                lengths = Arrays.copyOf(lengths, doc * 2);
+            }
+            lengths[doc] = length;
+            totalLength += length;
+            for (Map.Entry<String, Float> term : frequencies.entrySet()) {
+                terms.computeIfAbsent(term.getKey(), key -> new Postings()).add(doc, term.getValue());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(int productId) {
+        lock.writeLock().lock();
+        try {
+            delete(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // The best matches first, at most limit of them
+    public List<Product> search(String query, int limit) {
+        List<String> words = tokenize(query);
+        if (words.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            int live = docOf.size();
+            if (live == 0) {
+                return List.of();
+            }
+            Scores scores = spareScores.poll();
+            scores = (scores == null ? new Scores() : scores).reset(docs.size());
+            try {
+                List<Match> matched = new ArrayList<>();
+                for (int i = 0; i < words.size() - 1; i++) {
+                    Postings postings = terms.get(words.get(i));
+                    if (postings != null) {
+                        matched.add(new Match(postings, 1));
+                    }
+                }
+                matched.addAll(completions(words.get(words.size() - 1)));
+                // Rarest first, so common words can be limited to products the rare ones already found
+                matched.sort(Comparator.comparingInt(match -> match.postings().size));
+                float averageLength = (float) (totalLength / live);
+                for (Match match : matched) {
+                    boolean common = match.postings().size > live / COMMON_FRACTION && scores.count >= limit;
+                    score(scores, match, live, averageLength, common);
+                }
+                return top(scores, limit);
+            } finally {
+                spareScores.offer(scores);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // The word itself and, for a long enough word, its most common completions at a lower weight
+    private List<Match> completions(String word) {
+        List<Match> matches = new ArrayList<>();
+        Postings exact = terms.get(word);
+        if (exact != null) {
+            matches.add(new Match(exact, 1));
+        }
+        if (word.length() < MIN_PREFIX) {
+            return matches;
+        }
+        PriorityQueue<Postings> common = new PriorityQueue<>(Comparator.comparingInt(postings -> postings.size));
+        for (Postings postings : terms.subMap(word, false, word + Character.MAX_VALUE, false).values()) {
+            common.add(postings);
+            if (common.size() > MAX_COMPLETIONS) {
+                common.poll();
+            }
+        }
+        for (Postings postings : common) {
+            matches.add(new Match(postings, COMPLETION_WEIGHT));
+        }
+        return matches;
+    }
+
+    // With onlyMatched, adds to the products some other word already matched and finds no new ones
+    private void score(Scores scores, Match match, int live, float averageLength, boolean onlyMatched) {
+        Postings postings = match.postings();
+        // Deleted documents still count towards df until the next rebuild
+        int df = Math.min(postings.size, live);
+        float idf = match.weight() * (float) Math.log(1 + (live - df + 0.5) / (df + 0.5));
+        for (int i = 0; i < postings.size; i++) {
+            int doc = postings.docs[i];
+            if ((onlyMatched && scores.value[doc] == 0) || deleted.get(doc)) {
+                continue;
+            }
+            float tf = postings.frequencies[i];
+            float norm = K1 * (1 - B + B * lengths[doc] / averageLength);
+            scores.add(doc, idf * tf * (K1 + 1) / (tf + norm));
+        }
+    }
+
+    // Selects the best with a min-heap of document numbers, so only limit of the matches are ever sorted
+    private List<Product> top(Scores scores, int limit) {
+        int[] heap = new int[Math.min(limit, scores.count)];
+        int size = 0;
+        for (int i = 0; i < scores.count; i++) {
+            int doc = scores.touched[i];
+            if (size < heap.length) {
+                heap[size] = doc;
+                siftUp(heap, size++, scores.value);
+            } else if (better(doc, heap[0], scores.value)) {
+                heap[0] = doc;
+                siftDown(heap, size, scores.value);
+            }
+        }
+        Product[] results = new Product[size];
+        while (size > 0) {
+            results[--size] = docs.get(heap[0]);
+            heap[0] = heap[size];
+            siftDown(heap, size, scores.value);
+        }
+        return Arrays.asList(results);
+    }
+
+    // Higher score first; ties go to the product indexed first
+    private static boolean better(int doc, int other, float[] score) {
+        return score[doc] > score[other] || (score[doc] == score[other] && doc < other);
+    }
+
+    private static void siftUp(int[] heap, int i, float[] score) {
+        while (i > 0 && better(heap[(i - 1) / 2], heap[i], score)) {
+            swap(heap, i, (i - 1) / 2);
+            i = (i - 1) / 2;
+        }
+    }
+
+    private static void siftDown(int[] heap, int size, float[] score) {
+        int i = 0;
+        while (2 * i + 1 < size) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && better(heap[child], heap[child + 1], score)) {
+                child++;
+            }
+            if (!better(heap[i], heap[child], score)) {
+                return;
+            }
+            swap(heap, i, child);
+            i = child;
+        }
+    }
+
+    private static void swap(int[] heap, int i, int j) {
+        int doc = heap[i];
+        heap[i] = heap[j];
+        heap[j] = doc;
+    }
+
+    private void delete(int productId) {
+        Integer doc = docOf.remove(productId);
+        if (doc == null) {
+            return;
+        }
+        deleted.set(doc);
+        docs.set(doc, null);
+        totalLength -= lengths[doc];
+        // Every product edit leaves a deleted document behind; drop them once they are half the index
+        if (deleted.cardinality() > Math.max(1024, docs.size() / 2)) {
+            compact();
+        }
+    }
+
+    private void compact() {
+        int[] renumbered = new int[docs.size()];
+        List<Product> live = new ArrayList<>(docOf.size());
+        for (int doc = 0; doc < docs.size(); doc++) {
+            if (!deleted.get(doc)) {
+                renumbered[doc] = live.size();
+                lengths[live.size()] = lengths[doc];
+                live.add(docs.get(doc));
+            }
+        }
+        terms.values().removeIf(postings -> postings.compact(deleted, renumbered));
+        docs.clear();
+        docs.addAll(live);
+        docOf.replaceAll((id, doc) -> renumbered[doc]);
+        deleted.clear();
+    }
+
+    // Adds the text's words with the field's weight; returns the weighted length
+    private static float add(Map<String, Float> frequencies, String text, float weight) {
+        List<String> words = tokenize(text);
+        for (String word : words) {
+            frequencies.merge(word, weight, Float::sum);
+        }
+        return words.size() * weight;
+    }
+
+    // Lower case words without accents: "Café-Crème 2L" is [cafe, creme, 2l]
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFKD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        List<String> words = new ArrayList<>();
+        for (String word : SEPARATORS.split(folded)) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    private record Match(Postings postings, float weight) {
+    }
+
+    private static final class Postings {
+        int[] docs = new int[2];
+        float[] frequencies = new float[2];
+        int size;
+
+        void add(int doc, float frequency) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            docs[size] = doc;
+            frequencies[size++] = frequency;
+        }
+
+        // Drops deleted documents and renumbers the rest; true if none are left
+        boolean compact(BitSet deleted, int[] renumbered) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (!deleted.get(docs[i])) {
+                    docs[kept] = renumbered[docs[i]];
+                    frequencies[kept++] = frequencies[i];
+                }
+            }
+            size = kept;
+            return size == 0;
+        }
+    }
+
+    private static final class Scores {
+        float[] value = new float[0];
+        int[] touched = new int[0];
+        int count;
+
+        Scores reset(int docs) {
+            for (int i = 0; i < count; i++) {
+                value[touched[i]] = 0;
+            }
+            count = 0;
+            if (value.length < docs) {
+                value = new float[docs];
+                touched = new int[docs];
+            }
+            return this;
+        }
+
+        void add(int doc, float score) {
+            if (value[doc] == 0) {
+                touched[count++] = doc;
+            }
+            value[doc] += score;
+        }
+    }
+}
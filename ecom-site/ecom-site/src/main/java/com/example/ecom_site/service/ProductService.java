@@ -1,39 +1,94 @@
 package com.example.ecom_site.service;
 
+import com.example.ecom_site.model.ImageSize;
 import com.example.ecom_site.model.Product;
+import com.example.ecom_site.model.ProductImageRef;
+import com.example.ecom_site.model.ProductSuggestion;
+import com.example.ecom_site.model.UploadedImage;
 import com.example.ecom_site.repo.Productrepo;
+import com.example.ecom_site.store.ImageStore;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.bind.annotation.RequestParam;
-import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
 
 @Service
 public class ProductService {
     @Autowired
     Productrepo repo;
+    @Autowired
+    ImageStore imagestore;
+    @Autowired
+    ProductImageIndex imageindex;
+    @Autowired
+    ProductImageVariants imagevariants;
+    @Autowired
+    ProductSearchIndex searchindex;
+
+    // releaseimage's check-then-delete and the saves that start using a hash take its lock
+    private final Object[] imagelocks = Stream.generate(Object::new).limit(64).toArray();
 
     public List<Product> getallproducts() {
         return repo.findAll();
     }
 
-    public Product addproduct(Product prod, MultipartFile imgfile) throws IOException {
-        prod.setImgtype(imgfile.getContentType());
-        prod.setImgname(imgfile.getOriginalFilename());
-        prod.setImgdata(imgfile.getBytes());
-        return repo.save(prod);
+    public Product addproduct(Product prod, UploadedImage image) {
+        setimage(prod, image);
+        Product saved;
+        synchronized (imagelock(image.hash())) {
+            requirestored(image.hash());
+            saved = repo.save(prod);
+        }
+        imageindex.update(saved);
+        searchindex.update(saved);
+        imagevariants.schedule(saved.getImghash());
+        return saved;
+    }
+
+    // Streamed into the store as it is read; identical content is stored once
+    public String storeimage(InputStream content) throws IOException {
+        return imagestore.put(content);
     }
 
+    // For an upload that did not make it into a product; kept if a product uses the same content
+    public void discardimage(String hash) {
+        releaseimage(hash);
+    }
 
+    private static void setimage(Product product, UploadedImage image) {
+        product.setImgtype(image.type());
+        product.setImgname(image.name());
+        product.setImghash(image.hash());
+    }
 
     public Product getproductbyid(int id) {
         return repo.findById(id).orElse(null);
     }
 
-    public Product updateProduct(Long id, Product prod, MultipartFile imgfile) throws IOException {
+    // From memory, without touching the database
+    public ProductImageRef getproductimage(int id) {
+        return imageindex.get(id);
+    }
+
+    public Resource loadimage(ProductImageRef image) {
+        return imagestore.get(image.hash());
+    }
+
+    // The resized copy, or null if the image cannot be resized or it is not ready in time
+    public Resource loadimage(ProductImageRef image, ImageSize size) {
+        return imagevariants.get(image.hash(), size);
+    }
+
+    public Product updateProduct(Long id, Product prod, UploadedImage image) {
         return repo.findById(Math.toIntExact(id)).map(product -> {
             // Update product fields
             product.setName(prod.getName());
@@ -46,25 +101,67 @@ public class ProductService {
             product.setQuantity(prod.getQuantity());
 
             // Update image if provided
-            if (imgfile != null && !imgfile.isEmpty()) {
-                try {
-                    product.setImgtype(imgfile.getContentType());
-                    product.setImgname(imgfile.getOriginalFilename());
-                    product.setImgdata(imgfile.getBytes());
-                } catch (IOException e) {
-                    throw new RuntimeException("Failed to process image file", e);
-                }
+            String previous = product.getImghash();
+            if (image != null) {
+                setimage(product, image);
             }
 
-            return repo.save(product);
+            Product saved;
+            synchronized (imagelock(product.getImghash())) {
+                if (image != null) {
+                    requirestored(image.hash());
+                }
+                saved = repo.save(product);
+            }
+            imageindex.update(saved);
+            searchindex.update(saved);
+            if (!Objects.equals(previous, saved.getImghash())) {
+                imagevariants.schedule(saved.getImghash());
+                releaseimage(previous);
+            }
+            return saved;
         }).orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
     }
 
     public void deleteproduct(int id) {
+        String hash = repo.findById(id).map(Product::getImghash).orElse(null);
         repo.deleteById(id);
+        imageindex.remove(id);
+        searchindex.remove(id);
+        releaseimage(hash);
+    }
+
+    // Deletes the stored image once no product refers to it any more
+    private void releaseimage(String hash) {
+        if (hash == null) {
+            return;
+        }
+        synchronized (imagelock(hash)) {
+            if (!repo.existsByImghash(hash)) {
+                imagestore.delete(hash);
+            }
+        }
+    }
+
+    // An upload of content whose last product was deleted since it was stored has lost its file
+    private void requirestored(String hash) {
+        if (imagestore.get(hash) == null) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "The image was removed while the product was saved; upload it again");
+        }
+    }
+
+    private Object imagelock(String hash) {
+        return imagelocks[Math.floorMod(Objects.hashCode(hash), imagelocks.length)];
+    }
+
+    // Ranked, from the in-memory index rather than the database
+    public List<Product> searchproduct(String keyword, int limit) {
+        return searchindex.search(keyword, limit);
     }
 
-    public List<Product> searchproduct(String keyword) {
-        return repo.searchproduct(keyword);
+    public List<ProductSuggestion> suggestproduct(String prefix, int limit) {
+        return searchindex.search(prefix, limit).stream()
+                .map(product -> new ProductSuggestion(product.getId(), product.getName()))
+                .toList();
     }
 }
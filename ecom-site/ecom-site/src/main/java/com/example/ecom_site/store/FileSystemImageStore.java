@@ -0,0 +1,149 @@
+package com.example.ecom_site.store;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+/**
+ * ImageStore under images.store.path, one file per hash
+ *
+ * Files live at ab/cd/abcd... so no directory grows too large. Uploads are
+ * hashed while they are copied to a temporary file, which is then renamed
+ * into place; readers never see a partial image. A second copy of the same
+ * content is dropped and the stored one kept. put and delete of one hash
+ * are serialised, so a put that returns always leaves the file behind, even
+ * when it raced a delete of the same content. Variants sit beside their
+ * original as abcd....name.
+ */
+@Component
+public class FileSystemImageStore implements ImageStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileSystemImageStore.class);
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+    private static final Pattern VARIANT = Pattern.compile("[a-z0-9]{1,32}");
+    private static final int STRIPES = 64;
+
+    private final Path root;
+    private final Path tmp;
+    private final Object[] locks = new Object[STRIPES];
+
+    public FileSystemImageStore(@Value("${images.store.path:data/images}") String root) throws IOException {
+        this.root = Path.of(root).toAbsolutePath();
+        this.tmp = this.root.resolve("tmp");
+        Files.createDirectories(tmp);
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    @Override
+    public String put(InputStream content) throws IOException {
+        MessageDigest sha256;
+        try {
+            sha256 = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        Path temp = Files.createTempFile(tmp, "upload", ".tmp");
+        try {
+            try (InputStream in = new DigestInputStream(content, sha256)) {
+                Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            String hash = HexFormat.of().formatHex(sha256.digest());
+            Path target = path(hash);
+            synchronized (lock(hash)) {
+                if (!Files.exists(target)) {
+                    Files.createDirectories(target.getParent());
+                    Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                }
+            }
+            return hash;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public Resource get(String hash) {
+        if (hash == null || !HASH.matcher(hash).matches()) {
+            return null;
+        }
+        Path file = path(hash);
+        return Files.isRegularFile(file) ? new FileSystemResource(file) : null;
+    }
+
+    @Override
+    public void delete(String hash) {
+        if (hash == null || !HASH.matcher(hash).matches()) {
+            return;
+        }
+        Path file = path(hash);
+        synchronized (lock(hash)) {
+            try (DirectoryStream<Path> variants = Files.newDirectoryStream(file.getParent(), hash + ".*")) {
+                for (Path variant : variants) {
+                    Files.deleteIfExists(variant);
+                }
+                Files.deleteIfExists(file);
+            } catch (NoSuchFileException e) {
+                // Never stored
+            } catch (IOException e) {
+                // Only leaves orphaned files behind
+                logger.warn("Could not delete image {}", hash, e);
+            }
+        }
+    }
+
+    @Override
+    public void putVariant(String hash, String variant, InputStream content) throws IOException {
+        Path target = variantPath(hash, variant);
+        if (target == null) {
+            throw new IllegalArgumentException("Invalid image variant " + hash + "." + variant);
+        }
+        Path temp = Files.createTempFile(tmp, "variant", ".tmp");
+        try {
+            Files.copy(content, temp, StandardCopyOption.REPLACE_EXISTING);
+            Files.createDirectories(target.getParent());
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public Resource getVariant(String hash, String variant) {
+        Path file = variantPath(hash, variant);
+        return file != null && Files.isRegularFile(file) ? new FileSystemResource(file) : null;
+    }
+
+    private Path variantPath(String hash, String variant) {
+        if (hash == null || !HASH.matcher(hash).matches() || variant == null || !VARIANT.matcher(variant).matches()) {
+            return null;
+        }
+        return path(hash).resolveSibling(hash + "." + variant);
+    }
+
+    // Held only around the existence check and rename, never while content is copied
+    private Object lock(String hash) {
+        return locks[Math.floorMod(hash.hashCode(), locks.length)];
+    }
+
+    private Path path(String hash) {
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.ecom_site.store;
+
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Image bytes addressed by the SHA-256 of their content
+ *
+ * Identical uploads share one stored copy, so an image is only deleted once
+ * no product refers to its hash. The filesystem store returns files, which
+ * are served with sendfile; another implementation may return any readable
+ * Resource and it will be streamed instead. Named variants (resized copies)
+ * are kept with their original and deleted along with it.
+ */
+public interface ImageStore {
+
+    // Stores the stream's content and returns its hex SHA-256 hash
+    String put(InputStream content) throws IOException;
+
+    // The image stored under hash, or null if there is none
+    Resource get(String hash);
+
+    // Removes the image and its variants; a missing one is not an error
+    void delete(String hash);
+
+    // Stores a variant of hash's image, replacing one of the same name
+    void putVariant(String hash, String variant, InputStream content) throws IOException;
+
+    // The variant stored for hash, or null if there is none
+    Resource getVariant(String hash, String variant);
+}
@@ -0,0 +1,104 @@
+package com.example.ecom_site.controller;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImageStreamerTest {
+
+	private static final byte[] IMAGE = "0123456789".getBytes();
+
+	@TempDir
+	Path dir;
+
+	private MockHttpServletResponse send(String range, boolean sendfile) throws Exception {
+		return send(range, null, sendfile);
+	}
+
+	private MockHttpServletResponse send(String range, String ifRange, boolean sendfile) throws Exception {
+		Path file = Files.write(dir.resolve("image"), IMAGE);
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/product/1/image");
+		if (range != null) {
+			request.addHeader("Range", range);
+		}
+		if (ifRange != null) {
+			request.addHeader("If-Range", ifRange);
+		}
+		if (sendfile) {
+			request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+		}
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		ImageStreamer.send(new FileSystemResource(file), "image/png", "\"v1\"", request, response);
+		if (sendfile) {
+			assertEquals(file.toAbsolutePath().toString(), request.getAttribute("org.apache.tomcat.sendfile.filename"));
+			response.addHeader("X-Sendfile-Range", request.getAttribute("org.apache.tomcat.sendfile.start")
+					+ "-" + request.getAttribute("org.apache.tomcat.sendfile.end"));
+		}
+		return response;
+	}
+
+	@Test
+	void sendsTheWholeImage() throws Exception {
+		MockHttpServletResponse response = send(null, false);
+
+		assertEquals(200, response.getStatus());
+		assertEquals("image/png", response.getContentType());
+		assertEquals("bytes", response.getHeader("Accept-Ranges"));
+		assertArrayEquals(IMAGE, response.getContentAsByteArray());
+	}
+
+	@Test
+	void sendsOneRange() throws Exception {
+		MockHttpServletResponse response = send("bytes=2-4", false);
+
+		assertEquals(206, response.getStatus());
+		assertEquals("bytes 2-4/10", response.getHeader("Content-Range"));
+		assertEquals("234", response.getContentAsString());
+		assertEquals("789", send("bytes=-3", false).getContentAsString());
+	}
+
+	@Test
+	void ignoresRangesForAnotherVersion() throws Exception {
+		assertEquals(206, send("bytes=2-4", "\"v1\"", false).getStatus());
+
+		MockHttpServletResponse response = send("bytes=2-4", "\"v0\"", false);
+		assertEquals(200, response.getStatus());
+		assertArrayEquals(IMAGE, response.getContentAsByteArray());
+	}
+
+	@Test
+	void rejectsUnsatisfiableRanges() throws Exception {
+		MockHttpServletResponse response = send("bytes=10-", false);
+
+		assertEquals(416, response.getStatus());
+		assertEquals("bytes */10", response.getHeader("Content-Range"));
+		assertEquals(416, send("bytes=oops", false).getStatus());
+	}
+
+	@Test
+	void handsFilesToSendfile() throws Exception {
+		MockHttpServletResponse response = send("bytes=2-4", true);
+
+		assertEquals(3, response.getContentLength());
+		assertEquals("2-5", response.getHeader("X-Sendfile-Range"));
+		assertEquals(0, response.getContentAsByteArray().length);
+	}
+
+	@Test
+	void streamsResourcesThatAreNotFiles() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/product/1/image");
+		request.addHeader("Range", "bytes=5-");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		ImageStreamer.send(new ByteArrayResource(IMAGE), "image/png", null, request, response);
+
+		assertEquals("56789", response.getContentAsString());
+	}
+}
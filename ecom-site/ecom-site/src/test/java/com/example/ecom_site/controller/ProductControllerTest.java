@@ -0,0 +1,105 @@
+package com.example.ecom_site.controller;
+
+import com.example.ecom_site.model.ImageSize;
+import com.example.ecom_site.model.ProductImageRef;
+import com.example.ecom_site.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ProductControllerTest {
+
+	private static final String HASH = "ab".repeat(32);
+
+	private final ProductService service = mock(ProductService.class);
+	private final ProductController controller = new ProductController();
+	private final ProductImageRef image = new ProductImageRef(1, HASH, "image/png");
+
+	ProductControllerTest() {
+		ReflectionTestUtils.setField(controller, "service", service);
+		when(service.getproductimage(1)).thenReturn(image);
+		when(service.loadimage(image)).thenReturn(new ByteArrayResource("png".getBytes()));
+	}
+
+	private MockHttpServletResponse get(String version, String ifNoneMatch) throws Exception {
+		return get(version, null, ifNoneMatch);
+	}
+
+	private MockHttpServletResponse get(String version, String size, String ifNoneMatch) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/product/1/image");
+		if (ifNoneMatch != null) {
+			request.addHeader("If-None-Match", ifNoneMatch);
+		}
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		controller.getprodimgbyid(1, version, size, request, response);
+		return response;
+	}
+
+	@Test
+	void versionedUrlIsCachedForever() throws Exception {
+		MockHttpServletResponse response = get(HASH.substring(0, 16), null);
+
+		assertEquals(200, response.getStatus());
+		assertEquals("\"" + HASH + "\"", response.getHeader("ETag"));
+		assertEquals("max-age=31536000, public, immutable", response.getHeader("Cache-Control"));
+		assertEquals("png", response.getContentAsString());
+	}
+
+	@Test
+	void bareOrStaleUrlIsRevalidated() throws Exception {
+		assertEquals("no-cache", get(null, null).getHeader("Cache-Control"));
+		assertEquals("no-cache", get("0123456789abcdef", null).getHeader("Cache-Control"));
+	}
+
+	@Test
+	void matchingEtagIsAnsweredWithoutTheStore() throws Exception {
+		MockHttpServletResponse response = get(null, "\"" + HASH + "\"");
+
+		assertEquals(304, response.getStatus());
+		assertEquals(0, response.getContentAsByteArray().length);
+		verify(service, never()).loadimage(any());
+	}
+
+	@Test
+	void sizedRequestGetsTheResizedCopy() throws Exception {
+		when(service.loadimage(image, ImageSize.CARD)).thenReturn(new ByteArrayResource("jpg".getBytes()));
+
+		MockHttpServletResponse response = get(HASH.substring(0, 16), "card", null);
+
+		assertEquals("image/jpeg", response.getContentType());
+		assertEquals("\"" + HASH + ".card\"", response.getHeader("ETag"));
+		assertEquals("max-age=31536000, public, immutable", response.getHeader("Cache-Control"));
+		assertEquals("jpg", response.getContentAsString());
+		assertEquals(304, get(null, "card", "\"" + HASH + ".card\"").getStatus());
+	}
+
+	@Test
+	void sizedRequestFallsBackToTheOriginalUncached() throws Exception {
+		MockHttpServletResponse response = get(HASH.substring(0, 16), "thumbnail", null);
+
+		assertEquals("image/png", response.getContentType());
+		assertEquals("\"" + HASH + "\"", response.getHeader("ETag"));
+		assertEquals("no-cache", response.getHeader("Cache-Control"));
+		assertEquals("png", response.getContentAsString());
+		assertEquals(304, get(null, "thumbnail", "\"" + HASH + "\"").getStatus());
+	}
+
+	@Test
+	void unknownSizeIsABadRequest() throws Exception {
+		assertEquals(400, get(null, "huge", null).getStatus());
+	}
+
+	@Test
+	void missingImageIsNotFound() throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		controller.getprodimgbyid(2, null, null, new MockHttpServletRequest(), response);
+
+		assertEquals(404, response.getStatus());
+		assertNull(response.getHeader("Cache-Control"));
+	}
+}
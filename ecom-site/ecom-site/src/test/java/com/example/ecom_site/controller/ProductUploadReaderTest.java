@@ -0,0 +1,139 @@
+package com.example.ecom_site.controller;
+
+import com.example.ecom_site.controller.ProductUploadReader.ProductUpload;
+import com.example.ecom_site.service.ProductService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ProductUploadReaderTest {
+
+	private static final String HASH = "ab".repeat(32);
+	private static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 0, 0, 0, 13, 'I', 'H', 'D', 'R'};
+
+	private final ProductService service = mock(ProductService.class);
+	private final ProductUploadReader reader = new ProductUploadReader(DataSize.ofKilobytes(1));
+	private final List<byte[]> stored = new ArrayList<>();
+
+	ProductUploadReaderTest() throws Exception {
+		ReflectionTestUtils.setField(reader, "service", service);
+		ReflectionTestUtils.setField(reader, "mapper", new ObjectMapper());
+		// Reads the stream the way the image store does
+		when(service.storeimage(any())).thenAnswer(invocation -> {
+			try (InputStream in = invocation.getArgument(0)) {
+				stored.add(in.readAllBytes());
+			}
+			return HASH;
+		});
+	}
+
+	private static MockHttpServletRequest request(Object... parts) throws Exception {
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+		for (int i = 0; i < parts.length; i += 3) {
+			String name = (String) parts[i];
+			String type = (String) parts[i + 1];
+			byte[] content = parts[i + 2] instanceof String text ? text.getBytes(StandardCharsets.UTF_8) : (byte[]) parts[i + 2];
+			body.write(("--b\r\nContent-Disposition: form-data; name=\"" + name + "\""
+					+ (name.equals("imgfile") ? "; filename=\"p.png\"" : "")
+					+ "\r\nContent-Type: " + type + "\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+			body.write(content);
+			body.write("\r\n".getBytes(StandardCharsets.UTF_8));
+		}
+		body.write("--b--\r\n".getBytes(StandardCharsets.UTF_8));
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/product");
+		request.setContentType("multipart/form-data; boundary=b");
+		request.setContent(body.toByteArray());
+		return request;
+	}
+
+	private int status(MockHttpServletRequest request, boolean imageRequired) {
+		return assertThrows(ResponseStatusException.class, () -> reader.read(request, imageRequired))
+				.getStatusCode().value();
+	}
+
+	@Test
+	void readsTheProductAndStreamsTheImageIntoTheStore() throws Exception {
+		ProductUpload upload = reader.read(request(
+				"prod", "application/json", "{\"name\":\"Lamp\",\"price\":12.5}",
+				"imgfile", "image/jpeg", PNG), true);
+
+		assertEquals("Lamp", upload.product().getName());
+		assertEquals(HASH, upload.image().hash());
+		// The content decides the type, not the client
+		assertEquals("image/png", upload.image().type());
+		assertEquals("p.png", upload.image().name());
+		assertArrayEquals(PNG, stored.get(0));
+	}
+
+	@Test
+	void imageIsOptionalForUpdates() throws Exception {
+		ProductUpload upload = reader.read(request("prod", "application/json", "{\"name\":\"Lamp\"}"), false);
+
+		assertNull(upload.image());
+		assertEquals(400, status(request("prod", "application/json", "{}"), true));
+	}
+
+	@Test
+	void refusesWhatIsNotAnImageBeforeStoringIt() throws Exception {
+		assertEquals(415, status(request("prod", "application/json", "{}",
+				"imgfile", "text/html", "<html>"), true));
+		assertEquals(415, status(request("prod", "application/json", "{}",
+				"imgfile", "image/png", "<svg onload=alert(1)>"), true));
+		verify(service, never()).storeimage(any());
+	}
+
+	@Test
+	void stopsReadingAnImageAtTheLimit() throws Exception {
+		byte[] large = Arrays.copyOf(PNG, 2048);
+
+		assertEquals(413, status(request("prod", "application/json", "{}", "imgfile", "image/png", large), true));
+		assertTrue(stored.isEmpty());
+	}
+
+	@Test
+	void refusesAnOversizedRequestBeforeReadingIt() throws Exception {
+		byte[] huge = Arrays.copyOf(PNG, 2 * 1024 * 1024);
+
+		assertEquals(413, status(request("imgfile", "image/png", huge), true));
+		verify(service, never()).storeimage(any());
+	}
+
+	@Test
+	void discardsTheImageWhenTheRestOfTheRequestIsBad() throws Exception {
+		assertEquals(400, status(request("imgfile", "image/png", PNG,
+				"prod", "application/json", "{not json"), true));
+		assertEquals(400, status(request("imgfile", "image/png", PNG), true));
+		verify(service, times(2)).discardimage(HASH);
+	}
+
+	@Test
+	void refusesRequestsThatAreNotMultipart() {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/product");
+		request.setContentType("application/json");
+		request.setContent("{}".getBytes());
+
+		assertEquals(415, status(request, true));
+	}
+
+	@Test
+	void sniffsTheAcceptedFormats() {
+		assertEquals("image/jpeg", ProductUploadReader.sniff(new byte[]{(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0}));
+		assertEquals("image/gif", ProductUploadReader.sniff("GIF89a".getBytes()));
+		assertEquals("image/webp", ProductUploadReader.sniff("RIFF\0\0\0\0WEBPVP8 ".getBytes()));
+		assertNull(ProductUploadReader.sniff("RIFF\0\0\0\0WAVE".getBytes()));
+		assertNull(ProductUploadReader.sniff(new byte[0]));
+	}
+}
@@ -0,0 +1,52 @@
+package com.example.ecom_site.service;
+
+import com.example.ecom_site.store.ImageStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ProductImageMigrationTest {
+
+	private final JdbcTemplate jdbc = mock(JdbcTemplate.class);
+	private final ProductImageIndex imageindex = mock(ProductImageIndex.class);
+	private final ProductSearchIndex searchindex = mock(ProductSearchIndex.class);
+	private final ProductImageMigration migration = new ProductImageMigration();
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(migration, "jdbc", jdbc);
+		ReflectionTestUtils.setField(migration, "imagestore", mock(ImageStore.class));
+		ReflectionTestUtils.setField(migration, "imageindex", imageindex);
+		ReflectionTestUtils.setField(migration, "searchindex", searchindex);
+	}
+
+	@Test
+	void movedImagesReachBothIndexes() {
+		// product.imgdata exists, product_image does not
+		when(jdbc.execute(any(ConnectionCallback.class))).thenReturn(true, false);
+		when(jdbc.queryForList(anyString(), eq(Integer.class))).thenReturn(List.of(7));
+
+		migration.run(null);
+
+		verify(imageindex).reload();
+		verify(searchindex).reload();
+	}
+
+	@Test
+	void nothingToMoveLeavesTheIndexesAlone() {
+		when(jdbc.execute(any(ConnectionCallback.class))).thenReturn(false);
+
+		migration.run(null);
+
+		verifyNoInteractions(imageindex, searchindex);
+	}
+}
@@ -0,0 +1,109 @@
+package com.example.ecom_site.service;
+
+import com.example.ecom_site.model.ImageSize;
+import com.example.ecom_site.store.FileSystemImageStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.Resource;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductImageVariantsTest {
+
+	@TempDir
+	Path root;
+
+	private FileSystemImageStore store;
+	private ProductImageVariants variants;
+
+	private void start() throws Exception {
+		store = new FileSystemImageStore(root.toString());
+		variants = new ProductImageVariants(store, 1, 10, 5000);
+	}
+
+	@AfterEach
+	void shutdown() {
+		if (variants != null) {
+			variants.shutdown();
+		}
+	}
+
+	private String put(int width, int height, String format) throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		int type = format.equals("png") ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+		ImageIO.write(new BufferedImage(width, height, type), format, out);
+		return store.put(new ByteArrayInputStream(out.toByteArray()));
+	}
+
+	private static BufferedImage decode(Resource resource) throws Exception {
+		try (InputStream in = resource.getInputStream()) {
+			return ImageIO.read(in);
+		}
+	}
+
+	@Test
+	void makesEverySizeOnDemand() throws Exception {
+		start();
+		String hash = put(2000, 1000, "png");
+
+		BufferedImage card = decode(variants.get(hash, ImageSize.CARD));
+
+		assertEquals(480, card.getWidth());
+		assertEquals(240, card.getHeight());
+		assertEquals(160, decode(store.getVariant(hash, "thumbnail")).getWidth());
+		assertEquals(960, decode(store.getVariant(hash, "detail")).getWidth());
+	}
+
+	@Test
+	void neverEnlarges() throws Exception {
+		start();
+		String hash = put(100, 300, "png");
+
+		BufferedImage detail = decode(variants.get(hash, ImageSize.DETAIL));
+
+		assertEquals(100, detail.getWidth());
+		assertEquals(300, detail.getHeight());
+		assertEquals(160, decode(store.getVariant(hash, "thumbnail")).getHeight());
+	}
+
+	@Test
+	void scheduledSizesAreStoredWithoutARequest() throws Exception {
+		start();
+		String hash = put(800, 800, "jpeg");
+
+		variants.schedule(hash);
+		for (int i = 0; i < 100 && store.getVariant(hash, "thumbnail") == null; i++) {
+			Thread.sleep(50);
+		}
+
+		for (ImageSize size : ImageSize.values()) {
+			assertNotNull(store.getVariant(hash, size.variant()), size.variant());
+		}
+	}
+
+	@Test
+	void unreadableImagesHaveNoSizes() throws Exception {
+		start();
+		String hash = store.put(new ByteArrayInputStream(new byte[]{1, 2, 3}));
+
+		assertNull(variants.get(hash, ImageSize.THUMBNAIL));
+		assertNull(variants.get(hash, ImageSize.CARD));
+		assertNull(variants.get("0".repeat(64), ImageSize.CARD));
+	}
+
+	@Test
+	void resizeKeepsTheAspectRatio() {
+		BufferedImage resized = ProductImageVariants.resize(new BufferedImage(3000, 1000, BufferedImage.TYPE_INT_RGB), 160);
+
+		assertEquals(160, resized.getWidth());
+		assertEquals(53, resized.getHeight());
+	}
+}
@@ -0,0 +1,122 @@
+package com.example.ecom_site.service;
+
+import com.example.ecom_site.model.Product;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductSearchIndexTest {
+
+	private final ProductSearchIndex index = new ProductSearchIndex();
+
+	private Product add(int id, String name, String brand, String category, String description) {
+		Product product = new Product();
+		product.setId(id);
+		product.setName(name);
+		product.setBrand(brand);
+		product.setCategory(category);
+		product.setDescription(description);
+		index.update(product);
+		return product;
+	}
+
+	private List<Integer> ids(String query, int limit) {
+		return index.search(query, limit).stream().map(Product::getId).toList();
+	}
+
+	@Test
+	void nameMatchesRankAboveDescriptionMatches() {
+		add(1, "Desk", "Ikea", "Furniture", "Fits a lamp in the corner");
+		add(2, "Lamp", "Ikea", "Lighting", "Bright and warm");
+		add(3, "Chair", "Ikea", "Furniture", "Comfortable");
+
+		assertEquals(List.of(2, 1), ids("lamp", 10));
+	}
+
+	@Test
+	void productsMatchingMoreWordsComeFirst() {
+		add(1, "Red shoes", "Acme", "Shoes", null);
+		add(2, "Blue shoes", "Acme", "Shoes", null);
+		add(3, "Red hat", "Acme", "Hats", null);
+
+		assertEquals(1, ids("red shoes", 10).get(0));
+		assertEquals(3, ids("red shoes", 10).size());
+	}
+
+	@Test
+	void lastWordMatchesAsAPrefix() {
+		add(1, "Desk lamp", null, null, null);
+		add(2, "Lampshade", null, null, null);
+		add(3, "Landscape print", null, null, null);
+
+		assertEquals(List.of(1, 2), ids("lam", 10).stream().sorted().toList());
+		// Only the last word is a prefix
+		assertEquals(List.of(1), ids("lam desk", 10));
+		assertEquals(List.of(1, 2), ids("desk lam", 10));
+		// One letter is too short to expand
+		assertEquals(List.of(), ids("l", 10));
+	}
+
+	@Test
+	void wholeWordsRankAboveCompletions() {
+		add(1, "Lampshade", null, null, null);
+		add(2, "Desk lamp", "Ikea", "Lighting", null);
+
+		assertEquals(List.of(2, 1), ids("lamp", 10));
+	}
+
+	@Test
+	void ignoresCaseAccentsAndPunctuation() {
+		add(1, "Café-Crème 2L", "Nespresso", "Coffee", null);
+
+		assertEquals(List.of(1), ids("CAFE creme", 10));
+		assertEquals(List.of(1), ids("2l!", 10));
+		assertEquals(List.of(), ids("  --  ", 10));
+		assertEquals(List.of(), ids(null, 10));
+	}
+
+	@Test
+	void returnsOnlyTheTopResultsInOrder() {
+		for (int id = 1; id <= 100; id++) {
+			add(id, "Lamp " + "bright ".repeat(id % 7), null, null, null);
+		}
+
+		List<Integer> top = ids("lamp", 5);
+		assertEquals(5, top.size());
+		List<Product> all = index.search("lamp", 100);
+		assertEquals(100, all.size());
+		assertEquals(top, all.subList(0, 5).stream().map(Product::getId).toList());
+	}
+
+	@Test
+	void updatesReplaceAndRemovalsDrop() {
+		Product product = add(1, "Lamp", null, null, null);
+		product.setName("Chair");
+		index.update(product);
+
+		assertEquals(List.of(), ids("lamp", 10));
+		assertEquals(List.of(1), ids("chair", 10));
+		index.remove(1);
+		assertEquals(List.of(), ids("chair", 10));
+		index.remove(1);
+	}
+
+	@Test
+	void staysCorrectAfterDeletedDocumentsAreDropped() {
+		for (int id = 1; id <= 50; id++) {
+			add(id, "Lamp " + id, null, null, null);
+		}
+		// Enough edits to rebuild the postings more than once
+		for (int round = 0; round < 60; round++) {
+			for (int id = 1; id <= 50; id++) {
+				add(id, (id % 2 == 0 ? "Lamp " : "Chair ") + id, null, null, null);
+			}
+		}
+
+		assertEquals(25, index.search("lamp", 100).size());
+		assertEquals(List.of(7), ids("chair 7", 1));
+		assertEquals(List.of(8), ids("lamp 8", 1));
+	}
+}
@@ -0,0 +1,113 @@
+package com.example.ecom_site.service;
+
+import com.example.ecom_site.model.Product;
+import com.example.ecom_site.model.UploadedImage;
+import com.example.ecom_site.repo.Productrepo;
+import com.example.ecom_site.store.FileSystemImageStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class ProductServiceTest {
+
+	@TempDir
+	Path root;
+
+	private final Productrepo repo = mock(Productrepo.class);
+	private final ProductService service = new ProductService();
+	private final ExecutorService callers = Executors.newFixedThreadPool(2);
+	private FileSystemImageStore store;
+	private String hash;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		store = new FileSystemImageStore(root.toString());
+		ReflectionTestUtils.setField(service, "repo", repo);
+		ReflectionTestUtils.setField(service, "imagestore", store);
+		ReflectionTestUtils.setField(service, "imageindex", mock(ProductImageIndex.class));
+		ReflectionTestUtils.setField(service, "imagevariants", mock(ProductImageVariants.class));
+		ReflectionTestUtils.setField(service, "searchindex", mock(ProductSearchIndex.class));
+		hash = service.storeimage(new ByteArrayInputStream("shared".getBytes()));
+	}
+
+	@AfterEach
+	void shutdown() {
+		callers.shutdownNow();
+	}
+
+	@Test
+	void releaseWaitsForASaveThatStartsUsingTheImage() throws Exception {
+		AtomicBoolean saved = new AtomicBoolean();
+		CountDownLatch saving = new CountDownLatch(1);
+		CountDownLatch commit = new CountDownLatch(1);
+		when(repo.save(any())).thenAnswer(invocation -> {
+			saving.countDown();
+			commit.await(5, TimeUnit.SECONDS);
+			saved.set(true);
+			return invocation.getArgument(0);
+		});
+		when(repo.existsByImghash(hash)).thenAnswer(invocation -> saved.get());
+
+		Future<Product> add = callers.submit(() -> service.addproduct(new Product(), upload()));
+		assertTrue(saving.await(5, TimeUnit.SECONDS));
+		// The previous product with this content goes away while the new one is being saved
+		Future<?> release = callers.submit(() -> service.discardimage(hash));
+		verify(repo, after(200).never()).existsByImghash(anyString());
+
+		commit.countDown();
+		add.get(5, TimeUnit.SECONDS);
+		release.get(5, TimeUnit.SECONDS);
+		assertNotNull(store.get(hash));
+	}
+
+	@Test
+	void uploadWhoseImageWasReleasedIsRefused() {
+		Product previous = new Product();
+		previous.setImghash(hash);
+		when(repo.findById(1)).thenReturn(Optional.of(previous));
+		when(repo.existsByImghash(hash)).thenReturn(false);
+
+		// The last product using the content is deleted after the upload stored it
+		service.deleteproduct(1);
+		assertNull(store.get(hash));
+
+		ResponseStatusException e = assertThrows(ResponseStatusException.class,
+				() -> service.addproduct(new Product(), upload()));
+		assertEquals(HttpStatus.CONFLICT, e.getStatusCode());
+		verify(repo, never()).save(any());
+	}
+
+	@Test
+	void imageOfTheLastProductIsDeletedAndSharedOnesKept() {
+		when(repo.existsByImghash(hash)).thenReturn(true);
+		service.discardimage(hash);
+		assertNotNull(store.get(hash));
+
+		when(repo.existsByImghash(hash)).thenReturn(false);
+		service.discardimage(hash);
+		assertNull(store.get(hash));
+	}
+
+	private UploadedImage upload() {
+		return new UploadedImage(hash, "image/png", "imgfile");
+	}
+}
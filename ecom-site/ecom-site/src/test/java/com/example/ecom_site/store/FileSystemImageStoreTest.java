@@ -0,0 +1,90 @@
+package com.example.ecom_site.store;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.Resource;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileSystemImageStoreTest {
+
+	@TempDir
+	Path root;
+
+	@Test
+	void storesByContentHash() throws Exception {
+		FileSystemImageStore store = new FileSystemImageStore(root.toString());
+		String hash = store.put(new ByteArrayInputStream("abc".getBytes()));
+
+		assertEquals("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad", hash);
+		Resource image = store.get(hash);
+		assertArrayEquals("abc".getBytes(), image.getContentAsByteArray());
+		assertTrue(Files.isRegularFile(root.resolve("ba/78").resolve(hash)));
+	}
+
+	@Test
+	void identicalContentIsStoredOnce() throws Exception {
+		FileSystemImageStore store = new FileSystemImageStore(root.toString());
+		String first = store.put(new ByteArrayInputStream("same".getBytes()));
+		String second = store.put(new ByteArrayInputStream("same".getBytes()));
+
+		assertEquals(first, second);
+		try (Stream<Path> files = Files.walk(root)) {
+			assertEquals(1, files.filter(Files::isRegularFile).count());
+		}
+	}
+
+	@Test
+	void putAfterDeleteStoresTheContentAgain() throws Exception {
+		FileSystemImageStore store = new FileSystemImageStore(root.toString());
+		String hash = store.put(new ByteArrayInputStream("again".getBytes()));
+		store.delete(hash);
+
+		assertEquals(hash, store.put(new ByteArrayInputStream("again".getBytes())));
+		assertArrayEquals("again".getBytes(), store.get(hash).getContentAsByteArray());
+	}
+
+	@Test
+	void deleteRemovesTheImage() throws Exception {
+		FileSystemImageStore store = new FileSystemImageStore(root.toString());
+		String hash = store.put(new ByteArrayInputStream("gone".getBytes()));
+		store.delete(hash);
+
+		assertNull(store.get(hash));
+		store.delete(hash);
+	}
+
+	@Test
+	void variantsLiveAndDieWithTheirImage() throws Exception {
+		FileSystemImageStore store = new FileSystemImageStore(root.toString());
+		String hash = store.put(new ByteArrayInputStream("original".getBytes()));
+		store.putVariant(hash, "card", new ByteArrayInputStream("small".getBytes()));
+		store.putVariant(hash, "card", new ByteArrayInputStream("smaller".getBytes()));
+
+		assertArrayEquals("smaller".getBytes(), store.getVariant(hash, "card").getContentAsByteArray());
+		assertNull(store.getVariant(hash, "detail"));
+		store.delete(hash);
+		assertNull(store.getVariant(hash, "card"));
+		try (Stream<Path> files = Files.walk(root)) {
+			assertEquals(0, files.filter(Files::isRegularFile).count());
+		}
+		store.delete("0".repeat(64));
+	}
+
+	@Test
+	void rejectsAnythingButAHash() throws Exception {
+		FileSystemImageStore store = new FileSystemImageStore(root.toString());
+
+		assertNull(store.get("../../etc/passwd"));
+		assertNull(store.get(null));
+		assertNull(store.get("0".repeat(64)));
+		assertNull(store.getVariant("0".repeat(64), "../x"));
+		assertThrows(IllegalArgumentException.class,
+				() -> store.putVariant("0".repeat(64), "../x", new ByteArrayInputStream(new byte[0])));
+	}
+}
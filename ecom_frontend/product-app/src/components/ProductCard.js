@@ -21,7 +21,7 @@ const ProductCard = ({ product, onEdit, onDelete, onView }) => {
   };
 
   // Build image URL from backend
-  const imageUrl = productService.getImageUrl(product.id);
+  const imageUrl = productService.getImageUrl(product, 'card');
 
   const handleImageError = () => {
     console.error('Image failed to load for product:', product.name, 'URL:', imageUrl);
@@ -40,7 +40,7 @@ const ProductDetails = ({ product, onEdit, onClose }) => {
             <div className="product-image-section">
               {product.id && !imageError ? (
                 <img 
-                  src={productService.getImageUrl(product.id)} 
+                  src={productService.getImageUrl(product, 'detail')} 
                   alt={product.name}
                   className="product-detail-image"
                   style={{ display: imageLoaded ? 'block' : 'none' }}
@@ -33,8 +33,8 @@ const ProductForm = ({ product, onSave, onCancel, isEdit = false }) => {
       });
       
       // Set image preview if product has an image
-      if (product.imagePath) {
-        setImagePreview(productService.getImageUrl(product.imagePath));
+      if (product.imageUrl) {
+        setImagePreview(productService.getImageUrl(product, 'detail'));
       }
     }
   }, [product, isEdit]);
@@ -8,6 +8,7 @@ const ProductList = ({ onEditProduct, onViewProduct }) => {
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState(null);
   const [searchTerm, setSearchTerm] = useState('');
+  const [suggestions, setSuggestions] = useState([]);
   const [selectedCategory, setSelectedCategory] = useState('');
   const [categories, setCategories] = useState([]);
 
@@ -15,6 +16,19 @@ const ProductList = ({ onEditProduct, onViewProduct }) => {
     fetchProducts();
   }, []);
 
+  // Suggest product names as the user types, once typing pauses
+  useEffect(() => {
+    const prefix = searchTerm.trim();
+    if (prefix.length < 2) {
+      setSuggestions([]);
+      return undefined;
+    }
+    const timer = setTimeout(async () => {
+      setSuggestions(await productService.suggestProducts(prefix));
+    }, 150);
+    return () => clearTimeout(timer);
+  }, [searchTerm]);
+
   const fetchProducts = async () => {
     try {
       setLoading(true);
@@ -80,11 +94,13 @@ const ProductList = ({ onEditProduct, onViewProduct }) => {
     }
   };
 
-  const filteredProducts = products.filter(product =>
-    product.name.toLowerCase().includes(searchTerm.toLowerCase()) ||
-    product.description.toLowerCase().includes(searchTerm.toLowerCase()) ||
-    product.brand.toLowerCase().includes(searchTerm.toLowerCase())
-  );
+  // Every typed word has to appear somewhere in the product
+  const searchWords = searchTerm.toLowerCase().split(/\s+/).filter(Boolean);
+  const filteredProducts = products.filter(product => {
+    const text = [product.name, product.description, product.brand, product.category]
+      .filter(Boolean).join(' ').toLowerCase();
+    return searchWords.every(word => text.includes(word));
+  });
 
   if (loading) {
     return (
@@ -122,8 +138,15 @@ const ProductList = ({ onEditProduct, onViewProduct }) => {
             placeholder="Search products..."
             value={searchTerm}
             onChange={(e) => setSearchTerm(e.target.value)}
+            onKeyDown={(e) => e.key === 'Enter' && handleSearch()}
             className="search-input"
+            list="product-suggestions"
           />
+          <datalist id="product-suggestions">
+            {suggestions.map(suggestion => (
+              <option key={suggestion.id} value={suggestion.name} />
+            ))}
+          </datalist>
           <button className="btn btn-primary" onClick={handleSearch}>
             Search
           </button>
@@ -105,13 +105,21 @@ const productService = {
     }
   },
 
-  // Get product image URL from backend endpoint
-  getImageUrl: (id) => {
+  // Get product image URL from backend endpoint. Prefer the product's own
+  // imageUrl: it carries the image version, so the browser can cache it for good.
+  // size ('thumbnail', 'card' or 'detail') asks for a resized copy instead of the original
+  getImageUrl: (product, size) => {
+    const id = product && typeof product === 'object' ? product.id : product;
     if (!id) {
       console.warn('Product ID is missing for image URL generation');
       return null;
     }
-    const imageUrl = `${BASE_URL}/product/${id}/image`;
+    let imageUrl = product.imageUrl
+      ? `${new URL(BASE_URL).origin}${product.imageUrl}`
+      : `${BASE_URL}/product/${id}/image`;
+    if (size) {
+      imageUrl += `${imageUrl.includes('?') ? '&' : '?'}size=${size}`;
+    }
     console.log('Generated image URL:', imageUrl);
     return imageUrl;
   },
@@ -138,10 +146,10 @@ const productService = {
     }
   },
 
-  // Search products by name
+  // Search products by name, brand, category and description, best matches first
   searchProducts: async (keyword) => {
     try {
-      const response = await axios.get(`${BASE_URL}/product/search?keyword=${keyword}`);
+      const response = await axios.get(`${BASE_URL}/product/search`, { params: { keyword } });
       return response.data;
     } catch (error) {
       console.error('Error searching products:', error);
@@ -149,6 +157,17 @@ const productService = {
     }
   },
 
+  // Product names for search as you type: [{ id, name }]
+  suggestProducts: async (prefix) => {
+    try {
+      const response = await axios.get(`${BASE_URL}/product/suggest`, { params: { prefix } });
+      return response.data;
+    } catch (error) {
+      console.error('Error fetching suggestions:', error);
+      return [];
+    }
+  },
+
   // Get products by category
   getProductsByCategory: async (category) => {
     try {
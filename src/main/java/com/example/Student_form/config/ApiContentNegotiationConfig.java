@@ -0,0 +1,25 @@
+package com.example.Student_form.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Response formats for /api/users besides JSON
+ *
+ * CBOR (application/cbor) and Smile (application/x-jackson-smile) come from
+ * Spring's default converters once their Jackson dataformats are on the
+ * classpath; Avro (application/avro) is added here. JSON stays the default
+ * for clients that don't ask for anything else.
+ */
+@Configuration
+public class ApiContentNegotiationConfig implements WebMvcConfigurer {
+    
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // Appended last so it never wins for Accept: */*
+        converters.add(new StudentListAvroConverter());
+    }
+}
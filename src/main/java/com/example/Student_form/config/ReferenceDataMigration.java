@@ -0,0 +1,72 @@
+package com.example.Student_form.config;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * One-time migration of the legacy free-text students.branch / students.course
+ * columns into the branches / courses lookup tables
+ * 
+ * Runs after Hibernate has created the lookup tables and the branch_id /
+ * course_id columns, and does nothing once the legacy columns are gone.
+ * Without ddl-auto=update (the fast-start profile) nothing creates them, so a
+ * legacy schema stops startup instead of failing half way through.
+ */
+@Component("referenceDataMigration")
+@DependsOn("entityManagerFactory")
+public class ReferenceDataMigration {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ReferenceDataMigration.class);
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @PostConstruct
+    public void migrate() {
+        migrateColumn("branch", "branches", "branch_id");
+        migrateColumn("course", "courses", "course_id");
+    }
+    
+    private void migrateColumn(String legacyColumn, String lookupTable, String idColumn) {
+        if (!columnExists("students", legacyColumn)) {
+            return;
+        }
+        if (!columnExists(lookupTable, "id") || !columnExists("students", idColumn)) {
+            throw new IllegalStateException("students." + legacyColumn + " has not been migrated to " + lookupTable
+                    + "; start once with the default profile (ddl-auto=update) to upgrade the schema");
+        }
+        
+        logger.info("Migrating students.{} into {}", legacyColumn, lookupTable);
+        
+        Integer migrated = transactionTemplate.execute(status -> {
+            jdbcTemplate.update("INSERT IGNORE INTO " + lookupTable + " (name) " +
+                    "SELECT DISTINCT TRIM(" + legacyColumn + ") FROM students " +
+                    "WHERE " + legacyColumn + " IS NOT NULL AND TRIM(" + legacyColumn + ") <> ''");
+            return jdbcTemplate.update("UPDATE students s JOIN " + lookupTable + " r " +
+                    "ON r.name = TRIM(s." + legacyColumn + ") SET s." + idColumn + " = r.id");
+        });
+        
+        // MySQL DDL commits implicitly, so these run outside the data transaction
+        jdbcTemplate.execute("ALTER TABLE students DROP COLUMN " + legacyColumn);
+        jdbcTemplate.execute("ALTER TABLE students MODIFY " + idColumn + " SMALLINT NOT NULL");
+        
+        logger.info("Migrated {} students from students.{} to {}", migrated, legacyColumn, lookupTable);
+    }
+    
+    private boolean columnExists(String table, String column) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.columns " +
+                "WHERE table_schema = DATABASE() AND table_name = ? AND column_name = ?",
+                Integer.class, table, column);
+        return count != null && count > 0;
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.Student_form.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ConfigurableBootstrapContext;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.SpringApplicationRunListener;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.ConfigurableEnvironment;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Records when each startup phase finishes and, with startup.timeline.enabled,
+ * logs the timeline once the application is ready and again when the first
+ * request has been served
+ * 
+ * Registered through META-INF/spring.factories so it sees the phases before
+ * the application context exists; it also registers itself as the
+ * "startupTimeline" bean for StartupTimelineFilter.
+ */
+public class StartupTimeline implements SpringApplicationRunListener {
+    
+    private static final Logger logger = LoggerFactory.getLogger(StartupTimeline.class);
+    
+    private final long jvmStartMillis = ProcessHandle.current().info().startInstant()
+            .map(Instant::toEpochMilli)
+            .orElse(System.currentTimeMillis());
+    
+    private final Map<String, Long> phases = new LinkedHashMap<>();
+    private boolean enabled;
+    
+    public StartupTimeline(SpringApplication application, String[] args) {
+        mark("JVM started, main class loaded");
+    }
+    
+    @Override
+    public void starting(ConfigurableBootstrapContext bootstrapContext) {
+        mark("SpringApplication starting");
+    }
+    
+    @Override
+    public void environmentPrepared(ConfigurableBootstrapContext bootstrapContext, ConfigurableEnvironment environment) {
+        enabled = environment.getProperty("startup.timeline.enabled", Boolean.class, false);
+        mark("Environment prepared");
+    }
+    
+    @Override
+    public void contextPrepared(ConfigurableApplicationContext context) {
+        context.getBeanFactory().registerSingleton("startupTimeline", this);
+        context.addApplicationListener(event -> {
+            if (event instanceof WebServerInitializedEvent) {
+                mark("Web server started");
+            }
+        });
+        mark("Context prepared");
+    }
+    
+    @Override
+    public void contextLoaded(ConfigurableApplicationContext context) {
+        mark("Bean definitions loaded");
+    }
+    
+    @Override
+    public void started(ConfigurableApplicationContext context, Duration timeTaken) {
+        mark("Context refreshed");
+    }
+    
+    @Override
+    public void ready(ConfigurableApplicationContext context, Duration timeTaken) {
+        mark("Application ready");
+        if (enabled) {
+            logger.info("Startup timeline (ms since JVM start):{}", format());
+        }
+    }
+    
+    /**
+     * Called by StartupTimelineFilter once the first request has completed
+     */
+    public void firstRequestServed(String uri) {
+        mark("First request served");
+        if (enabled) {
+            logger.info("First request ({}) served {} ms after JVM start",
+                    uri, System.currentTimeMillis() - jvmStartMillis);
+        }
+    }
+    
+    private synchronized void mark(String phase) {
+        phases.putIfAbsent(phase, System.currentTimeMillis());
+    }
+    
+    private synchronized String format() {
+        StringBuilder timeline = new StringBuilder();
+        long previous = jvmStartMillis;
+        for (Map.Entry<String, Long> phase : phases.entrySet()) {
+            timeline.append(String.format("%n  %6d ms  (+%5d ms)  %s",
+                    phase.getValue() - jvmStartMillis, phase.getValue() - previous, phase.getKey()));
+            previous = phase.getValue();
+        }
+        return timeline.toString();
+    }
+}
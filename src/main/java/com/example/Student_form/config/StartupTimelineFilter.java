@@ -0,0 +1,39 @@
+package com.example.Student_form.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Reports the first completed request to the startup timeline
+ * (time to first request is what matters for autoscaling)
+ */
+@Component
+@ConditionalOnProperty(name = "startup.timeline.enabled", havingValue = "true")
+public class StartupTimelineFilter extends OncePerRequestFilter {
+    
+    @Autowired
+    private StartupTimeline startupTimeline;
+    
+    private volatile boolean reported;
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (!reported) {
+                reported = true;
+                startupTimeline.firstRequestServed(request.getRequestURI());
+            }
+        }
+    }
+}
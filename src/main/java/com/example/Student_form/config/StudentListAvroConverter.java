@@ -0,0 +1,74 @@
+package com.example.Student_form.config;
+
+import com.example.Student_form.controller.StudentListResponse;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.avro.AvroMapper;
+import com.fasterxml.jackson.dataformat.avro.AvroSchema;
+import org.apache.avro.Schema;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+
+/**
+ * Writes the student list response envelope as Avro binary
+ * using the published schema at {@value #SCHEMA_LOCATION}
+ *
+ * Avro carries no field names, so it is the most compact format; clients
+ * need the schema to decode it and the response links to it.
+ */
+public class StudentListAvroConverter extends AbstractJackson2HttpMessageConverter {
+    
+    public static final MediaType APPLICATION_AVRO = new MediaType("application", "avro");
+    public static final String SCHEMA_LOCATION = "/schema/student-list.avsc";
+    
+    private final AvroSchema schema;
+    
+    public StudentListAvroConverter() {
+        super(new AvroMapper(), APPLICATION_AVRO);
+        this.schema = loadSchema();
+    }
+    
+    public AvroSchema getSchema() {
+        return schema;
+    }
+    
+    private static AvroSchema loadSchema() {
+        try (InputStream in = new ClassPathResource("static" + SCHEMA_LOCATION).getInputStream()) {
+            return new AvroSchema(new Schema.Parser().parse(in));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot load Avro schema " + SCHEMA_LOCATION, e);
+        }
+    }
+    
+    @Override
+    public boolean canRead(Type type, @Nullable Class<?> contextClass, @Nullable MediaType mediaType) {
+        // Response format only; no endpoint accepts a student list as input
+        return false;
+    }
+    
+    // Only the list envelopes fit the schema; anything else is not acceptable as Avro
+    @Override
+    public boolean canWrite(Class<?> clazz, @Nullable MediaType mediaType) {
+        return StudentListResponse.class.isAssignableFrom(clazz) && super.canWrite(clazz, mediaType);
+    }
+    
+    @Override
+    protected void addDefaultHeaders(HttpHeaders headers, Object object, @Nullable MediaType contentType)
+            throws IOException {
+        super.addDefaultHeaders(headers, object, contentType);
+        headers.add(HttpHeaders.LINK, "<" + SCHEMA_LOCATION + ">; rel=\"describedby\"");
+    }
+    
+    @Override
+    protected ObjectWriter customizeWriter(ObjectWriter writer, @Nullable JavaType javaType, @Nullable MediaType contentType) {
+        return writer.with(schema);
+    }
+}
@@ -1,9 +1,12 @@
 package com.example.Student_form.controller;
 
+import com.example.Student_form.idempotency.IdempotencyService;
 import com.example.Student_form.model.Student;
+import com.example.Student_form.service.DatabaseExecutor;
 import com.example.Student_form.service.StudentService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -12,6 +15,10 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 
 /**
  * RESTful API Controller for User Management
@@ -22,6 +29,12 @@ import java.util.Optional;
  * POST   /api/users        - Create a new user
  * PATCH  /api/users/{id}   - Update a specific user (partial update)
  * DELETE /api/users/{id}   - Delete a specific user
+ * PATCH  /api/users/branch/{branch}, /course/{course} - Bulk move users to a branch/course
+ * DELETE /api/users/branch/{branch}, /course/{course} - Bulk delete users
+ * 
+ * Responses are JSON by default; list endpoints can also be requested as
+ * application/cbor, application/x-jackson-smile or application/avro
+ * (schema at /schema/student-list.avsc) via the Accept header
  */
 @RestController
 @RequestMapping("/api/users")
@@ -31,6 +44,12 @@ public class StudentApiController {
     @Autowired
     private StudentService studentService;
     
+    @Autowired
+    private DatabaseExecutor databaseExecutor;
+    
+    @Autowired
+    private IdempotencyService idempotencyService;
+    
     // ==================== CORE CRUD OPERATIONS ====================
     
     /**
@@ -38,22 +57,24 @@ public class StudentApiController {
      * Get all users
      */
     @GetMapping
-    public ResponseEntity<Map<String, Object>> getAllStudents() {
-        try {
-            List<Student> students = studentService.getAllStudents();
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("message", "Students retrieved successfully");
-            response.put("data", students);
-            response.put("count", students.size());
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            Map<String, Object> error = new HashMap<>();
-            error.put("success", false);
-            error.put("message", "Error retrieving students");
-            error.put("error", e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
-        }
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> getAllStudents() {
+        return onDatabase(DatabaseExecutor.Lane.SCAN, () -> {
+            try {
+                List<Student> students = studentService.getAllStudents();
+                Map<String, Object> response = new StudentListResponse();
+                response.put("success", true);
+                response.put("message", "Students retrieved successfully");
+                response.put("data", students);
+                response.put("count", students.size());
+                return ResponseEntity.ok(response);
+            } catch (Exception e) {
+                Map<String, Object> error = new StudentListResponse();
+                error.put("success", false);
+                error.put("message", "Error retrieving students");
+                error.put("error", e.getMessage());
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+            }
+        });
     }
     
     /**
@@ -61,29 +82,31 @@ public class StudentApiController {
      * Get a specific user by ID
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Map<String, Object>> getStudentById(@PathVariable Long id) {
-        try {
-            Optional<Student> student = studentService.getStudentById(id);
-            Map<String, Object> response = new HashMap<>();
-            
-            if (student.isPresent()) {
-                response.put("success", true);
-                response.put("message", "Student found successfully");
-                response.put("data", student.get());
-                return ResponseEntity.ok(response);
-            } else {
-                response.put("success", false);
-                response.put("message", "Student not found");
-                response.put("error", "No student exists with ID: " + id);
-                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> getStudentById(@PathVariable Long id) {
+        return onDatabase(DatabaseExecutor.Lane.LOOKUP, () -> {
+            try {
+                Optional<Student> student = studentService.getStudentById(id);
+                Map<String, Object> response = new HashMap<>();
+                
+                if (student.isPresent()) {
+                    response.put("success", true);
+                    response.put("message", "Student found successfully");
+                    response.put("data", student.get());
+                    return ResponseEntity.ok(response);
+                } else {
+                    response.put("success", false);
+                    response.put("message", "Student not found");
+                    response.put("error", "No student exists with ID: " + id);
+                    return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+                }
+            } catch (Exception e) {
+                Map<String, Object> error = new HashMap<>();
+                error.put("success", false);
+                error.put("message", "Error retrieving student");
+                error.put("error", e.getMessage());
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
             }
-        } catch (Exception e) {
-            Map<String, Object> error = new HashMap<>();
-            error.put("success", false);
-            error.put("message", "Error retrieving student");
-            error.put("error", e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
-        }
+        });
     }
     
     /**
@@ -91,27 +114,30 @@ public class StudentApiController {
      * Create a new user
      */
     @PostMapping
-    public ResponseEntity<Map<String, Object>> createStudent(@Valid @RequestBody Student student) {
-        try {
-            Student savedStudent = studentService.saveStudent(student);
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("message", "Student created successfully");
-            response.put("data", savedStudent);
-            return ResponseEntity.status(HttpStatus.CREATED).body(response);
-        } catch (RuntimeException e) {
-            Map<String, Object> error = new HashMap<>();
-            error.put("success", false);
-            error.put("message", "Error creating student");
-            error.put("error", e.getMessage());
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
-        } catch (Exception e) {
-            Map<String, Object> error = new HashMap<>();
-            error.put("success", false);
-            error.put("message", "Internal server error");
-            error.put("error", e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
-        }
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> createStudent(@Valid @RequestBody Student student,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return onDatabaseOnce(idempotencyKey, "POST /api/users", student, DatabaseExecutor.Lane.LOOKUP, () -> {
+            try {
+                Student savedStudent = studentService.saveStudent(student);
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", true);
+                response.put("message", "Student created successfully");
+                response.put("data", savedStudent);
+                return ResponseEntity.status(HttpStatus.CREATED).body(response);
+            } catch (RuntimeException e) {
+                Map<String, Object> error = new HashMap<>();
+                error.put("success", false);
+                error.put("message", "Error creating student");
+                error.put("error", e.getMessage());
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+            } catch (Exception e) {
+                Map<String, Object> error = new HashMap<>();
+                error.put("success", false);
+                error.put("message", "Internal server error");
+                error.put("error", e.getMessage());
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+            }
+        });
     }
     
     /**
@@ -119,27 +145,30 @@ public class StudentApiController {
      * Update a specific user (partial update)
      */
     @PatchMapping("/{id}")
-    public ResponseEntity<Map<String, Object>> updateStudent(@PathVariable Long id, @RequestBody Student studentDetails) {
-        try {
-            Student updatedStudent = studentService.partialUpdateStudent(id, studentDetails);
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("message", "Student updated successfully");
-            response.put("data", updatedStudent);
-            return ResponseEntity.ok(response);
-        } catch (RuntimeException e) {
-            Map<String, Object> error = new HashMap<>();
-            error.put("success", false);
-            error.put("message", "Error updating student");
-            error.put("error", e.getMessage());
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
-        } catch (Exception e) {
-            Map<String, Object> error = new HashMap<>();
-            error.put("success", false);
-            error.put("message", "Internal server error");
-            error.put("error", e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
-        }
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> updateStudent(@PathVariable Long id, @RequestBody Student studentDetails,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return onDatabaseOnce(idempotencyKey, "PATCH /api/users/" + id, studentDetails, DatabaseExecutor.Lane.LOOKUP, () -> {
+            try {
+                Student updatedStudent = studentService.partialUpdateStudent(id, studentDetails);
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", true);
+                response.put("message", "Student updated successfully");
+                response.put("data", updatedStudent);
+                return ResponseEntity.ok(response);
+            } catch (RuntimeException e) {
+                Map<String, Object> error = new HashMap<>();
+                error.put("success", false);
+                error.put("message", "Error updating student");
+                error.put("error", e.getMessage());
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+            } catch (Exception e) {
+                Map<String, Object> error = new HashMap<>();
+                error.put("success", false);
+                error.put("message", "Internal server error");
+                error.put("error", e.getMessage());
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+            }
+        });
     }
     
     /**
@@ -147,37 +176,39 @@ public class StudentApiController {
      * Delete a specific user
      */
     @DeleteMapping("/{id}")
-    public ResponseEntity<Map<String, Object>> deleteStudent(@PathVariable Long id) {
-        try {
-            // First check if student exists to provide better response
-            Optional<Student> existingStudent = studentService.getStudentById(id);
-            if (!existingStudent.isPresent()) {
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> deleteStudent(@PathVariable Long id) {
+        return onDatabase(DatabaseExecutor.Lane.LOOKUP, () -> {
+            try {
+                // First check if student exists to provide better response
+                Optional<Student> existingStudent = studentService.getStudentById(id);
+                if (!existingStudent.isPresent()) {
+                    Map<String, Object> error = new HashMap<>();
+                    error.put("success", false);
+                    error.put("message", "Student not found");
+                    error.put("error", "No student exists with ID: " + id);
+                    return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+                }
+                
+                studentService.deleteStudent(id);
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", true);
+                response.put("message", "Student deleted successfully");
+                response.put("deletedStudent", existingStudent.get());
+                return ResponseEntity.ok(response);
+            } catch (RuntimeException e) {
                 Map<String, Object> error = new HashMap<>();
                 error.put("success", false);
-                error.put("message", "Student not found");
-                error.put("error", "No student exists with ID: " + id);
-                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+                error.put("message", "Error deleting student");
+                error.put("error", e.getMessage());
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+            } catch (Exception e) {
+                Map<String, Object> error = new HashMap<>();
+                error.put("success", false);
+                error.put("message", "Internal server error");
+                error.put("error", e.getMessage());
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
             }
-            
-            studentService.deleteStudent(id);
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("message", "Student deleted successfully");
-            response.put("deletedStudent", existingStudent.get());
-            return ResponseEntity.ok(response);
-        } catch (RuntimeException e) {
-            Map<String, Object> error = new HashMap<>();
-            error.put("success", false);
-            error.put("message", "Error deleting student");
-            error.put("error", e.getMessage());
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
-        } catch (Exception e) {
-            Map<String, Object> error = new HashMap<>();
-            error.put("success", false);
-            error.put("message", "Internal server error");
-            error.put("error", e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
-        }
+        });
     }
     
     // ==================== ADDITIONAL UTILITY ENDPOINTS ====================
@@ -187,23 +218,25 @@ public class StudentApiController {
      * Search users by name
      */
     @GetMapping("/search")
-    public ResponseEntity<Map<String, Object>> searchStudentsByName(@RequestParam String name) {
-        try {
-            List<Student> students = studentService.searchStudentsByName(name);
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("message", "Search completed successfully");
-            response.put("data", students);
-            response.put("count", students.size());
-            response.put("searchTerm", name);
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            Map<String, Object> error = new HashMap<>();
-            error.put("success", false);
-            error.put("message", "Error searching students");
-            error.put("error", e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
-        }
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> searchStudentsByName(@RequestParam String name) {
+        return onDatabase(DatabaseExecutor.Lane.SCAN, () -> {
+            try {
+                List<Student> students = studentService.searchStudentsByName(name);
+                Map<String, Object> response = new StudentListResponse();
+                response.put("success", true);
+                response.put("message", "Search completed successfully");
+                response.put("data", students);
+                response.put("count", students.size());
+                response.put("searchTerm", name);
+                return ResponseEntity.ok(response);
+            } catch (Exception e) {
+                Map<String, Object> error = new StudentListResponse();
+                error.put("success", false);
+                error.put("message", "Error searching students");
+                error.put("error", e.getMessage());
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+            }
+        });
     }
     
     /**
@@ -211,29 +244,31 @@ public class StudentApiController {
      * Get user by roll number
      */
     @GetMapping("/rollno/{rollNo}")
-    public ResponseEntity<Map<String, Object>> getStudentByRollNo(@PathVariable Integer rollNo) {
-        try {
-            Optional<Student> student = studentService.getStudentByRollNo(rollNo);
-            Map<String, Object> response = new HashMap<>();
-            
-            if (student.isPresent()) {
-                response.put("success", true);
-                response.put("message", "Student found successfully");
-                response.put("data", student.get());
-                return ResponseEntity.ok(response);
-            } else {
-                response.put("success", false);
-                response.put("message", "Student not found");
-                response.put("error", "No student exists with roll number: " + rollNo);
-                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> getStudentByRollNo(@PathVariable Integer rollNo) {
+        return onDatabase(DatabaseExecutor.Lane.LOOKUP, () -> {
+            try {
+                Optional<Student> student = studentService.getStudentByRollNo(rollNo);
+                Map<String, Object> response = new HashMap<>();
+                
+                if (student.isPresent()) {
+                    response.put("success", true);
+                    response.put("message", "Student found successfully");
+                    response.put("data", student.get());
+                    return ResponseEntity.ok(response);
+                } else {
+                    response.put("success", false);
+                    response.put("message", "Student not found");
+                    response.put("error", "No student exists with roll number: " + rollNo);
+                    return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+                }
+            } catch (Exception e) {
+                Map<String, Object> error = new HashMap<>();
+                error.put("success", false);
+                error.put("message", "Error retrieving student");
+                error.put("error", e.getMessage());
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
             }
-        } catch (Exception e) {
-            Map<String, Object> error = new HashMap<>();
-            error.put("success", false);
-            error.put("message", "Error retrieving student");
-            error.put("error", e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
-        }
+        });
     }
     
     /**
@@ -241,23 +276,25 @@ public class StudentApiController {
      * Get users by branch
      */
     @GetMapping("/branch/{branch}")
-    public ResponseEntity<Map<String, Object>> getStudentsByBranch(@PathVariable String branch) {
-        try {
-            List<Student> students = studentService.getStudentsByBranch(branch);
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("message", "Students retrieved successfully");
-            response.put("data", students);
-            response.put("count", students.size());
-            response.put("branch", branch);
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            Map<String, Object> error = new HashMap<>();
-            error.put("success", false);
-            error.put("message", "Error retrieving students");
-            error.put("error", e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
-        }
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> getStudentsByBranch(@PathVariable String branch) {
+        return onDatabase(DatabaseExecutor.Lane.SCAN, () -> {
+            try {
+                List<Student> students = studentService.getStudentsByBranch(branch);
+                Map<String, Object> response = new StudentListResponse();
+                response.put("success", true);
+                response.put("message", "Students retrieved successfully");
+                response.put("data", students);
+                response.put("count", students.size());
+                response.put("branch", branch);
+                return ResponseEntity.ok(response);
+            } catch (Exception e) {
+                Map<String, Object> error = new StudentListResponse();
+                error.put("success", false);
+                error.put("message", "Error retrieving students");
+                error.put("error", e.getMessage());
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+            }
+        });
     }
     
     /**
@@ -265,23 +302,200 @@ public class StudentApiController {
      * Get users by course
      */
     @GetMapping("/course/{course}")
-    public ResponseEntity<Map<String, Object>> getStudentsByCourse(@PathVariable String course) {
-        try {
-            List<Student> students = studentService.getStudentsByCourse(course);
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("message", "Students retrieved successfully");
-            response.put("data", students);
-            response.put("count", students.size());
-            response.put("course", course);
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            Map<String, Object> error = new HashMap<>();
-            error.put("success", false);
-            error.put("message", "Error retrieving students");
-            error.put("error", e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> getStudentsByCourse(@PathVariable String course) {
+        return onDatabase(DatabaseExecutor.Lane.SCAN, () -> {
+            try {
+                List<Student> students = studentService.getStudentsByCourse(course);
+                Map<String, Object> response = new StudentListResponse();
+                response.put("success", true);
+                response.put("message", "Students retrieved successfully");
+                response.put("data", students);
+                response.put("count", students.size());
+                response.put("course", course);
+                return ResponseEntity.ok(response);
+            } catch (Exception e) {
+                Map<String, Object> error = new StudentListResponse();
+                error.put("success", false);
+                error.put("message", "Error retrieving students");
+                error.put("error", e.getMessage());
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+            }
+        });
+    }
+    
+    // ==================== BULK OPERATIONS ====================
+    
+    /**
+     * PATCH /api/users/branch/{branch}
+     * Move every user in a branch to the given branch and/or course (one set-based statement; count = affected rows)
+     */
+    @PatchMapping("/branch/{branch}")
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> bulkUpdateByBranch(@PathVariable String branch, @RequestBody Student changes,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return onDatabaseOnce(idempotencyKey, "PATCH /api/users/branch/" + branch, changes, DatabaseExecutor.Lane.SCAN, () -> {
+            try {
+                int affected = studentService.bulkUpdateByBranch(branch, changes);
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", true);
+                response.put("message", "Students updated successfully");
+                response.put("count", affected);
+                response.put("branch", branch);
+                return ResponseEntity.ok(response);
+            } catch (RuntimeException e) {
+                Map<String, Object> error = new HashMap<>();
+                error.put("success", false);
+                error.put("message", "Error updating students");
+                error.put("error", e.getMessage());
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+            } catch (Exception e) {
+                Map<String, Object> error = new HashMap<>();
+                error.put("success", false);
+                error.put("message", "Internal server error");
+                error.put("error", e.getMessage());
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+            }
+        });
+    }
+    
+    /**
+     * PATCH /api/users/course/{course}
+     * Move every user in a course to the given branch and/or course (one set-based statement; count = affected rows)
+     */
+    @PatchMapping("/course/{course}")
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> bulkUpdateByCourse(@PathVariable String course, @RequestBody Student changes,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return onDatabaseOnce(idempotencyKey, "PATCH /api/users/course/" + course, changes, DatabaseExecutor.Lane.SCAN, () -> {
+            try {
+                int affected = studentService.bulkUpdateByCourse(course, changes);
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", true);
+                response.put("message", "Students updated successfully");
+                response.put("count", affected);
+                response.put("course", course);
+                return ResponseEntity.ok(response);
+            } catch (RuntimeException e) {
+                Map<String, Object> error = new HashMap<>();
+                error.put("success", false);
+                error.put("message", "Error updating students");
+                error.put("error", e.getMessage());
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+            } catch (Exception e) {
+                Map<String, Object> error = new HashMap<>();
+                error.put("success", false);
+                error.put("message", "Internal server error");
+                error.put("error", e.getMessage());
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+            }
+        });
+    }
+    
+    /**
+     * DELETE /api/users/branch/{branch}
+     * Delete every user in a branch (one set-based statement; count = affected rows)
+     */
+    @DeleteMapping("/branch/{branch}")
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> bulkDeleteByBranch(@PathVariable String branch) {
+        return onDatabase(DatabaseExecutor.Lane.SCAN, () -> {
+            try {
+                int affected = studentService.bulkDeleteByBranch(branch);
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", true);
+                response.put("message", "Students deleted successfully");
+                response.put("count", affected);
+                response.put("branch", branch);
+                return ResponseEntity.ok(response);
+            } catch (RuntimeException e) {
+                Map<String, Object> error = new HashMap<>();
+                error.put("success", false);
+                error.put("message", "Error deleting students");
+                error.put("error", e.getMessage());
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+            } catch (Exception e) {
+                Map<String, Object> error = new HashMap<>();
+                error.put("success", false);
+                error.put("message", "Internal server error");
+                error.put("error", e.getMessage());
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+            }
+        });
+    }
+    
+    /**
+     * DELETE /api/users/course/{course}
+     * Delete every user in a course (one set-based statement; count = affected rows)
+     */
+    @DeleteMapping("/course/{course}")
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> bulkDeleteByCourse(@PathVariable String course) {
+        return onDatabase(DatabaseExecutor.Lane.SCAN, () -> {
+            try {
+                int affected = studentService.bulkDeleteByCourse(course);
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", true);
+                response.put("message", "Students deleted successfully");
+                response.put("count", affected);
+                response.put("course", course);
+                return ResponseEntity.ok(response);
+            } catch (RuntimeException e) {
+                Map<String, Object> error = new HashMap<>();
+                error.put("success", false);
+                error.put("message", "Error deleting students");
+                error.put("error", e.getMessage());
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+            } catch (Exception e) {
+                Map<String, Object> error = new HashMap<>();
+                error.put("success", false);
+                error.put("message", "Internal server error");
+                error.put("error", e.getMessage());
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+            }
+        });
+    }
+    
+    // ==================== ASYNC SUPPORT ====================
+    
+    /**
+     * Run a handler body on the database executor; with api.async.enabled the
+     * servlet thread is released until the repository work completes
+     */
+    private CompletableFuture<ResponseEntity<Map<String, Object>>> onDatabase(
+            DatabaseExecutor.Lane lane, Supplier<ResponseEntity<Map<String, Object>>> handler) {
+        return databaseExecutor.submit(lane, handler).exceptionally(this::databaseUnavailable);
+    }
+    
+    /**
+     * onDatabase for POST/PATCH: with an Idempotency-Key header the handler
+     * runs once per key and retries get the stored response
+     * 
+     * The key is held until the write has really finished, not just until the
+     * client's api.async.timeout, so a retry after a 503 waits for (or
+     * replays) the first attempt instead of running the write again.
+     */
+    private CompletableFuture<ResponseEntity<Map<String, Object>>> onDatabaseOnce(
+            String idempotencyKey, String requestLine, Object request,
+            DatabaseExecutor.Lane lane, Supplier<ResponseEntity<Map<String, Object>>> handler) {
+        if (idempotencyKey == null) {
+            return onDatabase(lane, handler);
+        }
+        CompletableFuture<ResponseEntity<Map<String, Object>>> once = idempotencyService.execute(
+                idempotencyKey, requestLine, request, () -> databaseExecutor.submitUntimed(lane, handler));
+        return databaseExecutor.withTimeout(once).exceptionally(this::databaseUnavailable);
+    }
+    
+    private ResponseEntity<Map<String, Object>> databaseUnavailable(Throwable failure) {
+        Throwable cause = DatabaseExecutor.unwrap(failure);
+        Map<String, Object> error = new HashMap<>();
+        error.put("success", false);
+        if (cause instanceof TimeoutException || cause instanceof RejectedExecutionException) {
+            error.put("message", "Server busy");
+            error.put("error", cause instanceof TimeoutException
+                    ? "Request timed out waiting for the database" : "Too many queued database requests");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(error);
         }
+        error.put("message", "Internal server error");
+        error.put("error", cause.getMessage());
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
     }
     
     // Exception handling is now managed by GlobalExceptionHandler
@@ -0,0 +1,12 @@
+package com.example.Student_form.controller;
+
+import java.util.HashMap;
+
+/**
+ * Response envelope of the list endpoints (success, message, data, count, ...)
+ * 
+ * A plain map like the other responses; the distinct type lets the Avro
+ * converter serve exactly the responses that match student-list.avsc.
+ */
+public class StudentListResponse extends HashMap<String, Object> {
+}
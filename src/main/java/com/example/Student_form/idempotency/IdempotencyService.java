@@ -0,0 +1,286 @@
+package com.example.Student_form.idempotency;
+
+import com.example.Student_form.model.IdempotencyRecord;
+import com.example.Student_form.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency-Key support for POST and PATCH on /api/users
+ *
+ * The first response for a key is kept in a bounded, expiring in-memory
+ * store (and, with api.idempotency.store=jdbc, in the idempotency_keys table
+ * so other instances and restarts see it too). Retries get the stored
+ * response back with an Idempotent-Replayed header and never reach
+ * StudentService; concurrent duplicates wait for the first request. 5xx
+ * responses are not stored, so a retry after a server error runs again.
+ */
+@Service
+public class IdempotencyService {
+    
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyService.class);
+    private static final int MAX_KEY_LENGTH = 255;
+    // How long a database claim blocks other instances if its owner dies mid-request
+    private static final long CLAIM_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(1);
+    private static final int PURGE_EVERY_CLAIMS = 1000;
+    private static final TypeReference<LinkedHashMap<String, Object>> BODY_TYPE = new TypeReference<>() {};
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+    
+    private final IdempotencyStore<ResponseEntity<Map<String, Object>>> store;
+    private final long ttlMillis;
+    private final boolean databaseTier;
+    private final AtomicInteger databaseClaims = new AtomicInteger();
+    private final LongAdder replays = new LongAdder();
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    public IdempotencyService(
+            @Value("${api.idempotency.ttl:24h}") Duration ttl,
+            @Value("${api.idempotency.max-entries:10000}") int maxEntries,
+            @Value("${api.idempotency.store:memory}") String storeType) {
+        this.store = new IdempotencyStore<>(ttl.toMillis(), TimeUnit.MILLISECONDS, maxEntries);
+        this.ttlMillis = ttl.toMillis();
+        this.databaseTier = "jdbc".equalsIgnoreCase(storeType);
+    }
+    
+    /**
+     * Run the request once per key; without a key it simply runs
+     *
+     * The key stays claimed until the action's future completes, so that
+     * future must only complete once the work has really finished (not time
+     * out while a write is still running). Callers bound how long the client
+     * waits by applying their timeout to the returned future instead.
+     *
+     * @param requestLine method and path, e.g. "PATCH /api/users/7"
+     * @param request the deserialized body, part of the request fingerprint
+     */
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> execute(
+            String key, String requestLine, Object request,
+            Supplier<CompletableFuture<ResponseEntity<Map<String, Object>>>> action) {
+        if (key == null) {
+            return action.get();
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            return CompletableFuture.completedFuture(error(HttpStatus.BAD_REQUEST,
+                    HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters"));
+        }
+    
+        String fingerprint = fingerprint(requestLine, request);
+        IdempotencyStore.Claim<ResponseEntity<Map<String, Object>>> claim = store.claim(key, fingerprint);
+        if (claim.fingerprintMismatch) {
+            return CompletableFuture.completedFuture(keyReused());
+        }
+        if (!claim.owner) {
+            replays.increment();
+            return claim.result.thenApply(IdempotencyService::replayed);
+        }
+    
+        if (databaseTier) {
+            Optional<ResponseEntity<Map<String, Object>>> decided = claimInDatabase(key, fingerprint);
+            if (decided.isPresent()) {
+                ResponseEntity<Map<String, Object>> response = decided.get();
+                if (response.getHeaders().containsKey(REPLAYED_HEADER)) {
+                    replays.increment();
+                    store.complete(key, claim.result, response);
+                } else {
+                    store.abandon(key, claim.result);
+                    claim.result.complete(response);
+                }
+                return CompletableFuture.completedFuture(response);
+            }
+        }
+    
+        CompletableFuture<ResponseEntity<Map<String, Object>>> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            release(key, claim.result, null, e);
+            throw e;
+        }
+        return response.whenComplete((result, failure) -> release(key, claim.result, result, failure));
+    }
+    
+    // Store a replayable result, or forget the key so a retry runs again
+    private void release(String key, CompletableFuture<ResponseEntity<Map<String, Object>>> claimed,
+                         ResponseEntity<Map<String, Object>> result, Throwable failure) {
+        if (failure == null && !result.getStatusCode().is5xxServerError()) {
+            if (databaseTier) {
+                storeInDatabase(key, result);
+            }
+            store.complete(key, claimed, result);
+            return;
+        }
+    
+        store.abandon(key, claimed);
+        if (databaseTier) {
+            forgetInDatabase(key);
+        }
+        if (failure != null) {
+            claimed.completeExceptionally(failure);
+        } else {
+            claimed.complete(result);
+        }
+    }
+    
+    // ==================== DATABASE TIER ====================
+    
+    /**
+     * Claim the key in idempotency_keys
+     *
+     * @return empty if this instance now owns the key, otherwise the response
+     *         to send: a replay, a key-reuse error or a 409 while another
+     *         instance is still running the request
+     */
+    private Optional<ResponseEntity<Map<String, Object>>> claimInDatabase(String key, String fingerprint) {
+        long now = System.currentTimeMillis();
+        try {
+            if (databaseClaims.incrementAndGet() % PURGE_EVERY_CLAIMS == 0) {
+                idempotencyRecordRepository.deleteExpired(now);
+            }
+            if (tryInsertClaim(key, fingerprint, now)) {
+                return Optional.empty();
+            }
+    
+            Optional<IdempotencyRecord> existing = idempotencyRecordRepository.findById(key);
+            if (existing.isPresent() && existing.get().getExpiresAt() < now) {
+                idempotencyRecordRepository.deleteByKey(key);
+                if (tryInsertClaim(key, fingerprint, now)) {
+                    return Optional.empty();
+                }
+                existing = idempotencyRecordRepository.findById(key);
+            }
+            if (existing.isEmpty()) {
+                // Claimed and released again in between; run without the database tier
+                return Optional.empty();
+            }
+    
+            IdempotencyRecord record = existing.get();
+            if (!record.getFingerprint().equals(fingerprint)) {
+                return Optional.of(keyReused());
+            }
+            if (record.getStatus() == 0) {
+                return Optional.of(ResponseEntity.status(HttpStatus.CONFLICT)
+                        .header(HttpHeaders.RETRY_AFTER, "1")
+                        .body(errorBody("A request with this " + HEADER + " is still in progress")));
+            }
+            return Optional.of(replayed(ResponseEntity.status(record.getStatus())
+                    .body(objectMapper.readValue(record.getBody(), BODY_TYPE))));
+        } catch (DataAccessException | JsonProcessingException e) {
+            logger.warn("Idempotency database tier unavailable for key {}: {}", key, e.getMessage());
+            return Optional.empty();
+        }
+    }
+    
+    private boolean tryInsertClaim(String key, String fingerprint, long now) {
+        try {
+            idempotencyRecordRepository.insertClaim(key, fingerprint, now + CLAIM_TIMEOUT_MILLIS);
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+    
+    private void storeInDatabase(String key, ResponseEntity<Map<String, Object>> response) {
+        try {
+            idempotencyRecordRepository.storeResponse(key, response.getStatusCode().value(),
+                    objectMapper.writeValueAsString(response.getBody()), System.currentTimeMillis() + ttlMillis);
+        } catch (DataAccessException | JsonProcessingException e) {
+            logger.warn("Could not store idempotent response for key {}: {}", key, e.getMessage());
+        }
+    }
+    
+    private void forgetInDatabase(String key) {
+        try {
+            idempotencyRecordRepository.deleteByKey(key);
+        } catch (DataAccessException e) {
+            logger.warn("Could not release idempotency key {}: {}", key, e.getMessage());
+        }
+    }
+    
+    // ==================== HELPERS ====================
+    
+    // SHA-256 of the request line and JSON body: the same key with a different request is an error
+    private String fingerprint(String requestLine, Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(requestLine.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+            digest.update(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Cannot fingerprint request", e);
+        }
+    }
+    
+    private static ResponseEntity<Map<String, Object>> replayed(ResponseEntity<Map<String, Object>> original) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(original.getHeaders());
+        headers.set(REPLAYED_HEADER, "true");
+        return ResponseEntity.status(original.getStatusCode()).headers(headers).body(original.getBody());
+    }
+    
+    private static ResponseEntity<Map<String, Object>> keyReused() {
+        return error(HttpStatus.UNPROCESSABLE_ENTITY, HEADER + " was already used for a different request");
+    }
+    
+    private static ResponseEntity<Map<String, Object>> error(HttpStatus status, String message) {
+        return ResponseEntity.status(status).body(errorBody(message));
+    }
+    
+    private static Map<String, Object> errorBody(String message) {
+        Map<String, Object> error = new HashMap<>();
+        error.put("success", false);
+        error.put("message", "Idempotency check failed");
+        error.put("error", message);
+        return error;
+    }
+    
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("api.idempotency.keys", store, IdempotencyStore::size)
+                .description("Idempotency keys held in memory")
+                .register(meterRegistry);
+        FunctionCounter.builder("api.idempotency.replays", replays, LongAdder::sum)
+                .description("Requests answered from a stored idempotent response")
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.Student_form.idempotency;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded, expiring in-memory map from Idempotency-Key to the first
+ * response produced for it
+ *
+ * The first caller for a key claims it and must later either complete() it
+ * or abandon() it and complete the future itself. Every other caller gets
+ * the same future, so concurrent duplicates wait for the first instead of
+ * running the request again.
+ * Entries expire ttl after completion. In-flight entries are never evicted;
+ * when the map is full, expired entries go first, then arbitrary completed ones.
+ * Claims against a full map take a lock and wait for the sweep instead of
+ * inserting past it, so apart from in-flight entries the map exceeds
+ * maxEntries by at most the number of threads claiming at the same moment.
+ */
+final class IdempotencyStore<R> {
+    
+    static final class Claim<R> {
+        final boolean owner;
+        final boolean fingerprintMismatch;
+        final CompletableFuture<R> result;
+    
+        private Claim(boolean owner, boolean fingerprintMismatch, CompletableFuture<R> result) {
+            this.owner = owner;
+            this.fingerprintMismatch = fingerprintMismatch;
+            this.result = result;
+        }
+    }
+    
+    private static final class Entry<R> {
+        final String fingerprint;
+        final CompletableFuture<R> result = new CompletableFuture<>();
+        volatile long expiresAt;
+        // Set after expiresAt; in-flight entries never expire
+        volatile boolean completed;
+    
+        Entry(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+    
+        boolean isExpired(long now) {
+            return completed && expiresAt - now <= 0;
+        }
+    }
+    
+    private final ConcurrentHashMap<String, Entry<R>> entries = new ConcurrentHashMap<>();
+    private final Object evictionLock = new Object();
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final LongSupplier nanoClock;
+    
+    IdempotencyStore(long ttl, TimeUnit unit, int maxEntries) {
+        this(ttl, unit, maxEntries, System::nanoTime);
+    }
+    
+    IdempotencyStore(long ttl, TimeUnit unit, int maxEntries, LongSupplier nanoClock) {
+        this.ttlNanos = unit.toNanos(ttl);
+        this.maxEntries = maxEntries;
+        this.nanoClock = nanoClock;
+    }
+    
+    /**
+     * Claim a key for a request with the given fingerprint
+     *
+     * @return an owner claim if this caller must run the request, otherwise
+     *         the first request's (possibly still pending) result, or a
+     *         mismatch if the key was used for a different request
+     */
+    Claim<R> claim(String key, String fingerprint) {
+        long now = nanoClock.getAsLong();
+        if (entries.size() >= maxEntries) {
+            synchronized (evictionLock) {
+                // Another thread may have swept while we waited
+                if (entries.size() >= maxEntries) {
+                    evict(now);
+                }
+            }
+        }
+    
+        Entry<R> fresh = new Entry<>(fingerprint);
+        Entry<R> current = entries.compute(key, (k, existing) ->
+                existing == null || existing.isExpired(now) ? fresh : existing);
+    
+        if (current == fresh) {
+            return new Claim<>(true, false, fresh.result);
+        }
+        if (!current.fingerprint.equals(fingerprint)) {
+            return new Claim<>(false, true, null);
+        }
+        return new Claim<>(false, false, current.result);
+    }
+    
+    // Remember the response for ttl and release everyone waiting on it
+    void complete(String key, CompletableFuture<R> claimed, R response) {
+        Entry<R> entry = entries.get(key);
+        if (entry != null && entry.result == claimed) {
+            entry.expiresAt = nanoClock.getAsLong() + ttlNanos;
+            entry.completed = true;
+        }
+        claimed.complete(response);
+    }
+    
+    // Forget the key so the next request runs again; the caller still completes the claimed future
+    void abandon(String key, CompletableFuture<R> claimed) {
+        entries.computeIfPresent(key, (k, entry) -> entry.result == claimed ? null : entry);
+    }
+    
+    int size() {
+        return entries.size();
+    }
+    
+    // Called with evictionLock held
+    private void evict(long now) {
+        entries.values().removeIf(entry -> entry.isExpired(now));
+    
+        int target = maxEntries - Math.max(1, maxEntries / 10);
+        Iterator<Map.Entry<String, Entry<R>>> it = entries.entrySet().iterator();
+        while (entries.size() > target && it.hasNext()) {
+            if (it.next().getValue().result.isDone()) {
+                it.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.Student_form.login.config;
+
+import com.example.Student_form.login.session.FileSessionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.session.JdbcSessionDataSourceScriptDatabaseInitializer;
+import org.springframework.boot.autoconfigure.session.JdbcSessionProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.session.config.annotation.web.http.EnableSpringHttpSession;
+import org.springframework.session.jdbc.config.annotation.web.http.EnableJdbcHttpSession;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Selects where login sessions live, via login.session.store:
+ * 
+ * container - the servlet container's in-memory sessions (default, single node)
+ * jdbc      - Spring Session in the SPRING_SESSION tables, shared by every instance
+ * file      - one file per session under login.session.file.directory
+ * 
+ * Spring Boot's own session auto-configuration is excluded in
+ * application.properties so that the container store stays the default.
+ */
+@Configuration
+public class SessionStoreConfig {
+    
+    @Configuration
+    @ConditionalOnProperty(name = "login.session.store", havingValue = "jdbc")
+    @EnableJdbcHttpSession
+    @EnableConfigurationProperties(JdbcSessionProperties.class)
+    static class JdbcSessionStore {
+        
+        // Creates the SPRING_SESSION tables when spring.session.jdbc.initialize-schema=always
+        @Bean
+        JdbcSessionDataSourceScriptDatabaseInitializer jdbcSessionSchemaInitializer(
+                DataSource dataSource, JdbcSessionProperties properties) {
+            return new JdbcSessionDataSourceScriptDatabaseInitializer(dataSource, properties);
+        }
+    }
+    
+    @Configuration
+    @ConditionalOnProperty(name = "login.session.store", havingValue = "file")
+    @EnableSpringHttpSession
+    @EnableScheduling
+    static class FileSessionStore {
+        
+        @Autowired
+        private FileSessionRepository sessionRepository;
+        
+        // Static so the repository does not depend on this configuration instance
+        @Bean
+        static FileSessionRepository sessionRepository(
+                @Value("${login.session.file.directory}") Path directory,
+                @Value("${login.session.timeout:30m}") Duration timeout) throws IOException {
+            return new FileSessionRepository(directory, timeout);
+        }
+        
+        @Scheduled(fixedDelayString = "${login.session.file.cleanup-interval:5m}")
+        void cleanUpExpiredSessions() {
+            sessionRepository.cleanUpExpiredSessions();
+        }
+    }
+}
@@ -2,11 +2,18 @@ package com.example.Student_form.login.controller;
 
 import com.example.Student_form.login.model.LoginRequest;
 import com.example.Student_form.login.model.LoginResponse;
+import com.example.Student_form.login.model.StudentPrincipal;
 import com.example.Student_form.login.service.LoginService;
+import com.example.Student_form.login.status.LoginStatusCookie;
+import com.example.Student_form.login.throttle.LoginRateLimiter;
 import com.example.Student_form.model.Student;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
@@ -25,14 +32,19 @@ public class LoginController {
     @Autowired
     private LoginService loginService;
     
+    @Autowired
+    private LoginRateLimiter loginRateLimiter;
+    
+    @Autowired
+    private LoginStatusCookie loginStatusCookie;
+    
     /**
      * Show login form
      */
     @GetMapping
     public String showLoginForm(Model model, HttpSession session) {
         // Check if user is already logged in
-        Student loggedInStudent = (Student) session.getAttribute("loggedInStudent");
-        if (loggedInStudent != null) {
+        if (session.getAttribute(StudentPrincipal.SESSION_ATTRIBUTE) != null) {
             return "redirect:/login/dashboard";
         }
         
@@ -45,20 +57,30 @@ public class LoginController {
      */
     @PostMapping
     public String processLogin(@Valid @ModelAttribute("loginRequest") LoginRequest loginRequest,
-                             BindingResult result, Model model, HttpSession session) {
+                             BindingResult result, Model model,
+                             HttpServletRequest request, HttpServletResponse httpResponse) {
         if (result.hasErrors()) {
             return "login/login-form";
         }
         
+        // Reject throttled attempts before they reach the database
+        long retryAfterSeconds = loginRateLimiter.tryAcquire(loginRequest.getRollNo(), request.getRemoteAddr());
+        if (retryAfterSeconds > 0) {
+            httpResponse.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            httpResponse.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            model.addAttribute("error", "Too many login attempts. Please try again in " + retryAfterSeconds + " seconds.");
+            return "login/login-form";
+        }
+        
         LoginResponse response = loginService.authenticateStudent(loginRequest);
         
         if (response.isSuccess()) {
-            // Store student information in session
-            Optional<Student> student = loginService.getStudentByRollNo(loginRequest.getRollNo());
-            if (student.isPresent()) {
-                session.setAttribute("loggedInStudent", student.get());
-                session.setAttribute("loginTime", System.currentTimeMillis());
-            }
+            loginRateLimiter.loginSucceeded(loginRequest.getRollNo());
+            
+            // Store only the compact principal in session, not the Student entity
+            // (the session is created here, so rejected attempts never allocate one)
+            request.getSession().setAttribute(StudentPrincipal.SESSION_ATTRIBUTE, response.getPrincipal());
+            loginStatusCookie.issue(response.getPrincipal(), httpResponse);
             
             return "redirect:/login/dashboard";
         } else {
@@ -71,16 +93,25 @@ public class LoginController {
      * Show dashboard for logged-in student
      */
     @GetMapping("/dashboard")
-    public String showDashboard(Model model, HttpSession session) {
-        Student loggedInStudent = (Student) session.getAttribute("loggedInStudent");
+    public String showDashboard(Model model, HttpSession session, HttpServletResponse httpResponse) {
+        StudentPrincipal principal = (StudentPrincipal) session.getAttribute(StudentPrincipal.SESSION_ATTRIBUTE);
+        
+        if (principal == null) {
+            return "redirect:/login";
+        }
         
-        if (loggedInStudent == null) {
+        // The dashboard shows branch and course, so load the full record here
+        Optional<Student> student = loginService.getStudentById(principal.getId());
+        if (student.isEmpty()) {
+            session.invalidate();
             return "redirect:/login";
         }
         
-        Long loginTime = (Long) session.getAttribute("loginTime");
-        model.addAttribute("student", loggedInStudent);
-        model.addAttribute("loginTime", loginTime);
+        // Refresh the short-lived status cookie while the session is in use
+        loginStatusCookie.issue(principal, httpResponse);
+        
+        model.addAttribute("student", student.get());
+        model.addAttribute("loginTime", principal.getLoginTime());
         
         return "login/dashboard";
     }
@@ -89,10 +120,10 @@ public class LoginController {
      * Logout
      */
     @PostMapping("/logout")
-    public String logout(HttpSession session, Model model) {
-        session.removeAttribute("loggedInStudent");
-        session.removeAttribute("loginTime");
+    public String logout(HttpSession session, Model model, HttpServletResponse httpResponse) {
+        session.removeAttribute(StudentPrincipal.SESSION_ATTRIBUTE);
         session.invalidate();
+        loginStatusCookie.clear(httpResponse);
         
         model.addAttribute("message", "You have been logged out successfully.");
         model.addAttribute("loginRequest", new LoginRequest());
@@ -101,15 +132,31 @@ public class LoginController {
     
     /**
      * Check login status (AJAX endpoint)
+     * With login.status-cookie.enabled a valid signed status cookie answers
+     * this without any session lookup; once it is missing or expired the
+     * session answers instead and the cookie is re-issued
      */
     @GetMapping("/status")
     @ResponseBody
-    public LoginResponse checkLoginStatus(HttpSession session) {
-        Student loggedInStudent = (Student) session.getAttribute("loggedInStudent");
+    public LoginResponse checkLoginStatus(HttpServletRequest request, HttpServletResponse httpResponse) {
+        if (loginStatusCookie.isEnabled()) {
+            LoginResponse status = loginStatusCookie.verify(request);
+            if (status != null) {
+                return status;
+            }
+        }
+        
+        // Never create a session just to answer a poll
+        HttpSession session = request.getSession(false);
+        StudentPrincipal principal = session != null
+                ? (StudentPrincipal) session.getAttribute(StudentPrincipal.SESSION_ATTRIBUTE)
+                : null;
         
-        if (loggedInStudent != null) {
+        if (principal != null) {
+            // The session outlives the short cookie TTL, so slide the cookie along with it
+            loginStatusCookie.issue(principal, httpResponse);
             return new LoginResponse(true, "User is logged in", 
-                                   loggedInStudent.getName(), loggedInStudent.getRollNo());
+                                   principal.getName(), principal.getRollNo());
         } else {
             return new LoginResponse(false, "User is not logged in");
         }
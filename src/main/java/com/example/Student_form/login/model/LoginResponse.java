@@ -1,5 +1,7 @@
 package com.example.Student_form.login.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 /**
  * DTO for login responses
  */
@@ -10,6 +12,10 @@ public class LoginResponse {
     private String studentName;
     private Integer rollNo;
     
+    // Set on successful authentication so the caller needs no second lookup
+    @JsonIgnore
+    private StudentPrincipal principal;
+    
     // Default constructor
     public LoginResponse() {}
     
@@ -40,6 +46,9 @@ public class LoginResponse {
     public Integer getRollNo() { return rollNo; }
     public void setRollNo(Integer rollNo) { this.rollNo = rollNo; }
     
+    public StudentPrincipal getPrincipal() { return principal; }
+    public void setPrincipal(StudentPrincipal principal) { this.principal = principal; }
+    
     @Override
     public String toString() {
         return "LoginResponse{" +
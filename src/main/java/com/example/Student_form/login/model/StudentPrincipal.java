@@ -0,0 +1,75 @@
+package com.example.Student_form.login.model;
+
+import com.example.Student_form.model.Student;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+
+/**
+ * Compact identity of a logged-in student, kept in the HTTP session
+ * 
+ * Holds only what every request needs (id, roll number, name, login time) and
+ * writes itself field by field, so a replicated or persisted session stays a
+ * few dozen bytes instead of carrying a whole Student entity.
+ */
+public final class StudentPrincipal implements Externalizable {
+    
+    private static final long serialVersionUID = 1L;
+    
+    /** HTTP session attribute the principal is stored under */
+    public static final String SESSION_ATTRIBUTE = "loggedInStudent";
+    
+    private long id;
+    private int rollNo;
+    private String name;
+    private long loginTime;
+    
+    // Default constructor (required for deserialization)
+    public StudentPrincipal() {}
+    
+    // Constructor with parameters
+    public StudentPrincipal(long id, int rollNo, String name, long loginTime) {
+        this.id = id;
+        this.rollNo = rollNo;
+        this.name = name;
+        this.loginTime = loginTime;
+    }
+    
+    public static StudentPrincipal of(Student student, long loginTime) {
+        return new StudentPrincipal(student.getId(), student.getRollNo(), student.getName(), loginTime);
+    }
+    
+    // Getters
+    public Long getId() { return id; }
+    public Integer getRollNo() { return rollNo; }
+    public String getName() { return name; }
+    public long getLoginTime() { return loginTime; }
+    
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        out.writeLong(id);
+        out.writeInt(rollNo);
+        out.writeUTF(name);
+        out.writeLong(loginTime);
+    }
+    
+    @Override
+    public void readExternal(ObjectInput in) throws IOException {
+        id = in.readLong();
+        rollNo = in.readInt();
+        name = in.readUTF();
+        loginTime = in.readLong();
+    }
+    
+    @Override
+    public String toString() {
+        return "StudentPrincipal{" +
+                "id=" + id +
+                ", rollNo=" + rollNo +
+                ", name='" + name + '\'' +
+                ", loginTime=" + loginTime +
+                '}';
+    }
+}
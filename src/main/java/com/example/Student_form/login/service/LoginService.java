@@ -2,6 +2,7 @@ package com.example.Student_form.login.service;
 
 import com.example.Student_form.login.model.LoginRequest;
 import com.example.Student_form.login.model.LoginResponse;
+import com.example.Student_form.login.model.StudentPrincipal;
 import com.example.Student_form.model.Student;
 import com.example.Student_form.repository.StudentRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -52,7 +53,9 @@ public class LoginService {
             }
             
             // Successful authentication
-            return new LoginResponse(true, "Login successful", student.getName(), student.getRollNo());
+            LoginResponse response = new LoginResponse(true, "Login successful", student.getName(), student.getRollNo());
+            response.setPrincipal(StudentPrincipal.of(student, System.currentTimeMillis()));
+            return response;
             
         } catch (Exception e) {
             return new LoginResponse(false, "Login failed: " + e.getMessage());
@@ -66,6 +69,13 @@ public class LoginService {
         return studentRepository.existsByRollNo(rollNo);
     }
     
+    /**
+     * Get student information by ID
+     */
+    public Optional<Student> getStudentById(Long id) {
+        return studentRepository.findById(id);
+    }
+    
     /**
      * Get student information by roll number
      */
@@ -0,0 +1,139 @@
+package com.example.Student_form.login.session;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.session.MapSession;
+import org.springframework.session.SessionRepository;
+
+import java.io.*;
+import java.nio.file.*;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Spring Session repository that keeps each session in its own file
+ * 
+ * Every app instance pointed at the same directory (local disk or a shared
+ * volume) sees the same sessions. Files are written to a temporary name and
+ * moved into place, so readers never see a half-written session.
+ */
+public class FileSessionRepository implements SessionRepository<MapSession> {
+    
+    private static final Logger logger = LoggerFactory.getLogger(FileSessionRepository.class);
+    
+    private static final String SUFFIX = ".session";
+    private static final Pattern SESSION_ID = Pattern.compile("[A-Za-z0-9-]+");
+    
+    private final Path directory;
+    private final Duration maxInactiveInterval;
+    
+    public FileSessionRepository(Path directory, Duration maxInactiveInterval) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.maxInactiveInterval = maxInactiveInterval;
+    }
+    
+    @Override
+    public MapSession createSession() {
+        MapSession session = new MapSession();
+        session.setMaxInactiveInterval(maxInactiveInterval);
+        return session;
+    }
+    
+    @Override
+    public void save(MapSession session) {
+        if (!session.getId().equals(session.getOriginalId())) {
+            deleteById(session.getOriginalId());
+        }
+        
+        Path target = fileFor(session.getId());
+        try {
+            Path temp = Files.createTempFile(directory, session.getId(), ".tmp");
+            try (ObjectOutputStream out = new ObjectOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeObject(new MapSession(session));
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store session " + session.getId(), e);
+        }
+    }
+    
+    @Override
+    public MapSession findById(String id) {
+        Path file = fileFor(id);
+        if (file == null || !Files.exists(file)) {
+            return null;
+        }
+        
+        try (ObjectInputStream in = new ObjectInputStream(
+                new BufferedInputStream(Files.newInputStream(file)))) {
+            if (!(in.readObject() instanceof MapSession session)) {
+                logger.warn("Discarding session file {} that does not hold a session", file);
+                deleteById(id);
+                return null;
+            }
+            if (session.isExpired()) {
+                deleteById(id);
+                return null;
+            }
+            return new MapSession(session);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException | ClassNotFoundException e) {
+            logger.warn("Discarding unreadable session file {}: {}", file, e.getMessage());
+            deleteById(id);
+            return null;
+        }
+    }
+    
+    @Override
+    public void deleteById(String id) {
+        Path file = fileFor(id);
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Failed to delete session file {}: {}", file, e.getMessage());
+        }
+    }
+    
+    /**
+     * Remove session files that have not been touched for longer than the
+     * inactivity timeout
+     */
+    public int cleanUpExpiredSessions() {
+        Instant cutoff = Instant.now().minus(maxInactiveInterval);
+        int removed = 0;
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (isStale(file, cutoff)) {
+                    Files.deleteIfExists(file);
+                    removed++;
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Session cleanup in {} failed: {}", directory, e.getMessage());
+        }
+        return removed;
+    }
+    
+    private boolean isStale(Path file, Instant cutoff) throws IOException {
+        String name = file.getFileName().toString();
+        if (!name.endsWith(SUFFIX) && !name.endsWith(".tmp")) {
+            return false;
+        }
+        return Files.getLastModifiedTime(file).toInstant().isBefore(cutoff);
+    }
+    
+    // Session ids are generated UUIDs; anything else never maps to a file
+    private Path fileFor(String id) {
+        if (id == null || !SESSION_ID.matcher(id).matches()) {
+            return null;
+        }
+        return directory.resolve(id + SUFFIX);
+    }
+}
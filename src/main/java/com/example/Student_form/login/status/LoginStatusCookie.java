@@ -0,0 +1,230 @@
+package com.example.Student_form.login.status;
+
+import com.example.Student_form.login.model.LoginResponse;
+import com.example.Student_form.login.model.StudentPrincipal;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Short-lived HMAC-signed cookie that answers /login/status without
+ * touching the HTTP session
+ * 
+ * Value: rollNo.expiresAtEpochSeconds.base64url(name).base64url(HMAC-SHA256)
+ * 
+ * The HMAC key is built once; each thread keeps its own Mac and scratch
+ * buffers, so verifying a cookie allocates nothing but the decoded name.
+ * The cookie only reports status - it is never accepted in place of the
+ * session for anything else - and logging out clears it; a copy kept
+ * elsewhere stays valid until it expires (login.status-cookie.ttl).
+ */
+@Component
+public class LoginStatusCookie {
+    
+    private static final Logger logger = LoggerFactory.getLogger(LoginStatusCookie.class);
+    
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int MAC_LENGTH = 32;
+    private static final int MAX_VALUE_LENGTH = 2048;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    
+    private final boolean enabled;
+    private final String cookieName;
+    private final Duration ttl;
+    private final Mac prototype;
+    
+    private final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(Scratch::new);
+    
+    public LoginStatusCookie(
+            @Value("${login.status-cookie.enabled:false}") boolean enabled,
+            @Value("${login.status-cookie.name:LOGIN_STATUS}") String cookieName,
+            @Value("${login.status-cookie.ttl:5m}") Duration ttl,
+            @Value("${login.status-cookie.secret:}") String secret) throws GeneralSecurityException {
+        this.enabled = enabled;
+        this.cookieName = cookieName;
+        this.ttl = ttl;
+        
+        byte[] key;
+        if (secret == null || secret.isBlank()) {
+            // Fine for one instance; set a shared secret when running several
+            key = new byte[MAC_LENGTH];
+            new SecureRandom().nextBytes(key);
+            if (enabled) {
+                logger.warn("login.status-cookie.secret is not set, using a random per-process key");
+            }
+        } else {
+            key = Base64.getDecoder().decode(secret);
+        }
+        this.prototype = Mac.getInstance(ALGORITHM);
+        this.prototype.init(new SecretKeySpec(key, ALGORITHM));
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    /**
+     * Set the status cookie for a freshly logged-in (or revisiting) student
+     */
+    public void issue(StudentPrincipal principal, HttpServletResponse response) {
+        if (!enabled) {
+            return;
+        }
+        long expiresAt = System.currentTimeMillis() / 1000 + ttl.toSeconds();
+        String payload = principal.getRollNo() + "." + expiresAt + "."
+                + ENCODER.encodeToString(principal.getName().getBytes(StandardCharsets.UTF_8));
+        
+        Mac mac = scratch.get().mac;
+        String value = payload + "." + ENCODER.encodeToString(mac.doFinal(payload.getBytes(StandardCharsets.US_ASCII)));
+        
+        response.addCookie(cookie(value, (int) ttl.toSeconds()));
+    }
+    
+    /**
+     * Remove the status cookie on logout
+     */
+    public void clear(HttpServletResponse response) {
+        if (enabled) {
+            response.addCookie(cookie("", 0));
+        }
+    }
+    
+    /**
+     * Check the request's status cookie
+     * 
+     * @return a success response for the cookie's student, or null if there is
+     *         no cookie or it is malformed, forged or expired
+     */
+    public LoginResponse verify(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return null;
+        }
+        for (Cookie cookie : cookies) {
+            if (cookieName.equals(cookie.getName())) {
+                return verify(cookie.getValue(), System.currentTimeMillis() / 1000);
+            }
+        }
+        return null;
+    }
+    
+    LoginResponse verify(String value, long nowEpochSeconds) {
+        if (value == null || value.length() > MAX_VALUE_LENGTH) {
+            return null;
+        }
+        int firstDot = value.indexOf('.');
+        int secondDot = value.indexOf('.', firstDot + 1);
+        int thirdDot = value.indexOf('.', secondDot + 1);
+        if (firstDot <= 0 || secondDot <= firstDot + 1 || thirdDot <= secondDot) {
+            return null;
+        }
+        
+        long rollNo = parseDigits(value, 0, firstDot);
+        long expiresAt = parseDigits(value, firstDot + 1, secondDot);
+        if (rollNo < 0 || rollNo > Integer.MAX_VALUE || expiresAt < nowEpochSeconds) {
+            return null;
+        }
+        
+        Scratch s = scratch.get();
+        
+        // Sign the payload and compare the base64url form with the presented
+        // signature in constant time, all within the thread's buffers
+        int payloadLength = s.copy(value, 0, thirdDot);
+        if (payloadLength < 0) {
+            return null;
+        }
+        s.mac.update(s.buffer, 0, payloadLength);
+        try {
+            s.mac.doFinal(s.expected, 0);
+        } catch (ShortBufferException e) {
+            throw new IllegalStateException(e);
+        }
+        int encodedLength = ENCODER.encode(s.expected, s.encoded);
+        if (value.length() - thirdDot - 1 != encodedLength) {
+            return null;
+        }
+        int diff = 0;
+        for (int i = 0; i < encodedLength; i++) {
+            diff |= s.encoded[i] ^ value.charAt(thirdDot + 1 + i);
+        }
+        if (diff != 0) {
+            return null;
+        }
+        
+        String name;
+        try {
+            name = new String(DECODER.decode(value.substring(secondDot + 1, thirdDot)), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        return new LoginResponse(true, "User is logged in", name, (int) rollNo);
+    }
+    
+    private Cookie cookie(String value, int maxAge) {
+        Cookie cookie = new Cookie(cookieName, value);
+        cookie.setPath("/");
+        cookie.setHttpOnly(true);
+        cookie.setMaxAge(maxAge);
+        return cookie;
+    }
+    
+    // Parse a non-negative decimal number, -1 if the range holds anything else
+    private static long parseDigits(String value, int from, int to) {
+        if (to - from > 18) {
+            return -1;
+        }
+        long result = 0;
+        for (int i = from; i < to; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            result = result * 10 + (c - '0');
+        }
+        return result;
+    }
+    
+    /**
+     * Per-thread Mac and buffers, reused for every cookie the thread handles
+     */
+    private final class Scratch {
+        final Mac mac;
+        final byte[] buffer = new byte[MAX_VALUE_LENGTH];
+        final byte[] expected = new byte[MAC_LENGTH];
+        final byte[] encoded = new byte[(MAC_LENGTH * 4 + 2) / 3];
+        
+        Scratch() {
+            try {
+                mac = (Mac) prototype.clone();
+            } catch (CloneNotSupportedException e) {
+                throw new IllegalStateException(ALGORITHM + " does not support cloning", e);
+            }
+        }
+        
+        // Copy ASCII characters into the buffer, returning the count (-1 if not ASCII)
+        int copy(String value, int from, int to) {
+            for (int i = from; i < to; i++) {
+                char c = value.charAt(i);
+                if (c > 0x7f) {
+                    return -1;
+                }
+                buffer[i - from] = (byte) c;
+            }
+            return to - from;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.Student_form.login.throttle;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Throttles login attempts per roll number and per client IP before they
+ * reach LoginService, so a credential-stuffing burst is rejected in memory
+ * instead of becoming one findByRollNo query per attempt
+ */
+@Component
+public class LoginRateLimiter {
+    
+    private final boolean enabled;
+    private final TokenBucketMap<Integer> rollNoBuckets;
+    private final TokenBucketMap<String> clientBuckets;
+    
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+    
+    public LoginRateLimiter(
+            @Value("${login.throttle.enabled:true}") boolean enabled,
+            @Value("${login.throttle.roll-no.burst:5}") int rollNoBurst,
+            @Value("${login.throttle.roll-no.per-minute:5}") int rollNoPerMinute,
+            @Value("${login.throttle.client.burst:20}") int clientBurst,
+            @Value("${login.throttle.client.per-minute:30}") int clientPerMinute,
+            @Value("${login.throttle.max-entries:100000}") int maxEntries) {
+        this.enabled = enabled;
+        this.rollNoBuckets = new TokenBucketMap<>(rollNoBurst, rollNoPerMinute, maxEntries);
+        this.clientBuckets = new TokenBucketMap<>(clientBurst, clientPerMinute, maxEntries);
+    }
+    
+    /**
+     * Take a token from both the client's and the roll number's bucket
+     * 
+     * @return 0 if the attempt may proceed, otherwise seconds to wait (at least 1)
+     */
+    public long tryAcquire(Integer rollNo, String clientAddress) {
+        if (!enabled) {
+            return 0;
+        }
+        
+        long waitNanos = clientAddress != null ? clientBuckets.tryAcquire(clientAddress) : 0;
+        if (waitNanos == 0 && rollNo != null) {
+            waitNanos = rollNoBuckets.tryAcquire(rollNo);
+        }
+        
+        if (waitNanos == 0) {
+            allowed.increment();
+            return 0;
+        }
+        throttled.increment();
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+    
+    // A successful login clears the roll number's failed-attempt history
+    public void loginSucceeded(Integer rollNo) {
+        if (enabled && rollNo != null) {
+            rollNoBuckets.reset(rollNo);
+        }
+    }
+    
+    public long getAllowedCount() { return allowed.sum(); }
+    public long getThrottledCount() { return throttled.sum(); }
+    public int getTrackedRollNumbers() { return rollNoBuckets.size(); }
+    public int getTrackedClients() { return clientBuckets.size(); }
+}
@@ -0,0 +1,114 @@
+package com.example.Student_form.login.throttle;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded map of per-key token buckets
+ * 
+ * Each bucket is a single AtomicLong holding its "theoretical arrival time"
+ * (the GCRA form of a token bucket), updated with a CAS loop, so checking a
+ * known key takes no lock and allocates nothing. The map is a
+ * ConcurrentHashMap, which already stripes its locks per bin.
+ * 
+ * A bucket whose arrival time is in the past is full again, which makes it
+ * indistinguishable from a brand-new one, so such idle buckets can be evicted
+ * without losing any state. If the map is still over its size bound after
+ * that, arbitrary buckets are dropped to keep memory bounded.
+ * 
+ * Only inserting a new key into a full map takes a lock: threads wait for the
+ * sweep instead of inserting past it, so the map can exceed maxEntries by at
+ * most the number of threads inserting at the same moment.
+ */
+public class TokenBucketMap<K> {
+    
+    private final ConcurrentHashMap<K, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final Object evictionLock = new Object();
+    
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final int maxEntries;
+    private final LongSupplier nanoClock;
+    
+    /**
+     * @param burst          attempts allowed back to back
+     * @param refillPerMinute attempts regained per minute
+     * @param maxEntries     upper bound on tracked keys
+     */
+    public TokenBucketMap(int burst, int refillPerMinute, int maxEntries) {
+        this(burst, refillPerMinute, maxEntries, System::nanoTime);
+    }
+    
+    TokenBucketMap(int burst, int refillPerMinute, int maxEntries, LongSupplier nanoClock) {
+        if (burst < 1 || refillPerMinute < 1 || maxEntries < 1) {
+            throw new IllegalArgumentException("burst, refillPerMinute and maxEntries must be positive");
+        }
+        this.emissionIntervalNanos = TimeUnit.MINUTES.toNanos(1) / refillPerMinute;
+        this.burstToleranceNanos = emissionIntervalNanos * (burst - 1);
+        this.maxEntries = maxEntries;
+        this.nanoClock = nanoClock;
+    }
+    
+    /**
+     * Take one token for the key
+     * 
+     * @return 0 if the attempt is allowed, otherwise nanoseconds until it would be
+     */
+    public long tryAcquire(K key) {
+        long now = nanoClock.getAsLong();
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = newBucket(key, now);
+        }
+        
+        while (true) {
+            long tat = bucket.get();
+            long start = Math.max(tat, now);
+            long wait = start - now - burstToleranceNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(tat, start + emissionIntervalNanos)) {
+                return 0;
+            }
+        }
+    }
+    
+    // Forget the key, e.g. after a successful login
+    public void reset(K key) {
+        buckets.remove(key);
+    }
+    
+    public int size() {
+        return buckets.size();
+    }
+    
+    private AtomicLong newBucket(K key, long now) {
+        if (buckets.size() >= maxEntries) {
+            synchronized (evictionLock) {
+                // Another thread may have swept while we waited
+                if (buckets.size() >= maxEntries) {
+                    evict(now);
+                }
+            }
+        }
+        AtomicLong created = new AtomicLong(now);
+        AtomicLong existing = buckets.putIfAbsent(key, created);
+        return existing != null ? existing : created;
+    }
+    
+    // Called with evictionLock held
+    private void evict(long now) {
+        buckets.values().removeIf(bucket -> bucket.get() <= now);
+        
+        Iterator<AtomicLong> it = buckets.values().iterator();
+        int target = maxEntries - Math.max(1, maxEntries / 10);
+        while (buckets.size() > target && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+}
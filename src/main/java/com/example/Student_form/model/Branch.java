@@ -0,0 +1,20 @@
+package com.example.Student_form.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+
+/**
+ * Reference table for branch names, shared by all students of that branch
+ */
+@Entity
+@Table(name = "branches")
+public class Branch extends ReferenceEntry {
+    
+    // Default constructor
+    public Branch() {}
+    
+    // Constructor with parameters
+    public Branch(String name) {
+        super(name);
+    }
+}
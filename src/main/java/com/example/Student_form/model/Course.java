@@ -0,0 +1,20 @@
+package com.example.Student_form.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+
+/**
+ * Reference table for course names, shared by all students of that course
+ */
+@Entity
+@Table(name = "courses")
+public class Course extends ReferenceEntry {
+    
+    // Default constructor
+    public Course() {}
+    
+    // Constructor with parameters
+    public Course(String name) {
+        super(name);
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.Student_form.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Stored response for an Idempotency-Key (database tier of the idempotency store)
+ * A row with status 0 is a claim by a request that is still running
+ */
+@Entity
+@Table(name = "idempotency_keys",
+       indexes = @Index(name = "idx_idempotency_keys_expires_at", columnList = "expires_at"))
+public class IdempotencyRecord {
+    
+    @Id
+    @Column(name = "idempotency_key", length = 255)
+    private String key;
+    
+    @Column(name = "fingerprint", nullable = false, length = 64)
+    private String fingerprint;
+    
+    @Column(name = "status", nullable = false)
+    private int status;
+    
+    // JSON response body
+    @Lob
+    @Column(name = "body")
+    private String body;
+    
+    // Epoch millis
+    @Column(name = "expires_at", nullable = false)
+    private long expiresAt;
+    
+    // Default constructor
+    public IdempotencyRecord() {}
+    
+    // Getters & Setters
+    public String getKey() { return key; }
+    public void setKey(String key) { this.key = key; }
+    
+    public String getFingerprint() { return fingerprint; }
+    public void setFingerprint(String fingerprint) { this.fingerprint = fingerprint; }
+    
+    public int getStatus() { return status; }
+    public void setStatus(int status) { this.status = status; }
+    
+    public String getBody() { return body; }
+    public void setBody(String body) { this.body = body; }
+    
+    public long getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(long expiresAt) { this.expiresAt = expiresAt; }
+}
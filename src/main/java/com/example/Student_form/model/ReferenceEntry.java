@@ -0,0 +1,41 @@
+package com.example.Student_form.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Common mapping for small name lookup tables (branches, courses)
+ * Rows are referenced from students by their SMALLINT id
+ */
+@MappedSuperclass
+public abstract class ReferenceEntry {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Short id;
+    
+    @Column(name = "name", nullable = false, unique = true, length = 100)
+    private String name;
+    
+    // Default constructor
+    protected ReferenceEntry() {}
+    
+    // Constructor with parameters
+    protected ReferenceEntry(String name) {
+        this.name = name;
+    }
+    
+    // Getters & Setters
+    public Short getId() { return id; }
+    public void setId(Short id) { this.id = id; }
+    
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "{" +
+                "id=" + getId() +
+                ", name='" + getName() + '\'' +
+                '}';
+    }
+}
@@ -1,12 +1,17 @@
 package com.example.Student_form.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 
 @Entity
-@Table(name = "students")
+@Table(name = "students", indexes = {
+        @Index(name = "idx_students_branch_id", columnList = "branch_id"),
+        @Index(name = "idx_students_course_id", columnList = "course_id")
+})
+@EntityListeners(StudentReferenceListener.class)
 public class Student {
     
     @Id
@@ -22,14 +27,35 @@ public class Student {
     @Column(name = "roll_no", nullable = false, unique = true)
     private Integer rollNo;
     
+    // Branch and course names are resolved through ReferenceDataService;
+    // only the lookup ids are stored on the row
     @NotBlank(message = "Branch is required")
-    @Column(name = "branch", nullable = false)
+    @Transient
     private String branch;
     
     @NotBlank(message = "Course is required")
-    @Column(name = "course", nullable = false)
+    @Transient
     private String course;
     
+    @JsonIgnore
+    @Column(name = "branch_id")
+    private Short branchId;
+    
+    @JsonIgnore
+    @Column(name = "course_id")
+    private Short courseId;
+    
+    // Read-only associations, mapped so the schema gets the foreign keys
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "branch_id", insertable = false, updatable = false)
+    private Branch branchRef;
+    
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "course_id", insertable = false, updatable = false)
+    private Course courseRef;
+    
     // Default constructor
     public Student() {}
     
@@ -41,6 +67,18 @@ public class Student {
         this.course = course;
     }
     
+    // Copy constructor: a detached snapshot of the row and its resolved names,
+    // without the lazy associations of the persistence context it was loaded in
+    public Student(Student other) {
+        this.id = other.id;
+        this.name = other.name;
+        this.rollNo = other.rollNo;
+        this.branch = other.branch;
+        this.course = other.course;
+        this.branchId = other.branchId;
+        this.courseId = other.courseId;
+    }
+    
     // Getters & Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -57,6 +95,12 @@ public class Student {
     public String getCourse() { return course; }
     public void setCourse(String course) { this.course = course; }
     
+    public Short getBranchId() { return branchId; }
+    public void setBranchId(Short branchId) { this.branchId = branchId; }
+    
+    public Short getCourseId() { return courseId; }
+    public void setCourseId(Short courseId) { this.courseId = courseId; }
+    
     @Override
     public String toString() {
         return "Student{" +
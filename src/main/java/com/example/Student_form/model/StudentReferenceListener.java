@@ -0,0 +1,22 @@
+package com.example.Student_form.model;
+
+import com.example.Student_form.service.ReferenceDataService;
+import jakarta.persistence.PostLoad;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+
+/**
+ * Fills in the transient branch and course names whenever a student is loaded
+ */
+public class StudentReferenceListener {
+    
+    // Lazy: Hibernate creates listeners while the EntityManagerFactory is still starting
+    @Lazy
+    @Autowired
+    private ReferenceDataService referenceDataService;
+    
+    @PostLoad
+    public void populateNames(Student student) {
+        referenceDataService.populateNames(student);
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.Student_form.overload;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrency limit that follows observed latency (gradient scheme)
+ *
+ * A slow-moving RTT average is the baseline; when the recent RTT rises above it
+ * requests are queueing somewhere downstream and the limit shrinks in
+ * proportion, otherwise it grows by a small queue allowance. Failed requests
+ * back the limit off multiplicatively.
+ */
+public class AdaptiveConcurrencyLimit {
+    
+    // Recent RTT may reach this multiple of the baseline before the limit shrinks
+    private static final double TOLERANCE = 1.5;
+    private static final double MIN_GRADIENT = 0.5;
+    private static final double SMOOTHING = 0.2;
+    private static final double BACKOFF_RATIO = 0.9;
+    private static final double SHORT_RTT_ALPHA = 0.2;
+    // The baseline follows latency down quickly but up only slowly, otherwise
+    // sustained queueing would become the new baseline and the limit would creep back up
+    private static final double BASELINE_DOWN_ALPHA = 0.05;
+    private static final double BASELINE_UP_ALPHA = 1.0 / 2000;
+    
+    private final int minLimit;
+    private final int maxLimit;
+    
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+    private volatile int limit;
+    
+    // Guarded by this
+    private double estimatedLimit;
+    private double shortRttNanos;
+    private double baselineRttNanos;
+    
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Invalid limit bounds: " + minLimit + ".." + maxLimit);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.estimatedLimit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.limit = (int) estimatedLimit;
+    }
+    
+    /**
+     * Claim a slot without waiting
+     *
+     * @return false if the limit is already reached; the caller should shed the request
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                rejected.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+    
+    /**
+     * Return a slot claimed by tryAcquire and feed its latency into the limit
+     *
+     * @param rttNanos time the request held the slot
+     * @param dropped true if the request failed or timed out downstream
+     */
+    public void release(long rttNanos, boolean dropped) {
+        int inFlightAtCompletion = inFlight.getAndDecrement();
+        onSample(rttNanos, inFlightAtCompletion, dropped);
+    }
+    
+    private synchronized void onSample(long rttNanos, int inFlightAtCompletion, boolean dropped) {
+        if (dropped) {
+            update(estimatedLimit * BACKOFF_RATIO);
+            return;
+        }
+    
+        if (baselineRttNanos == 0) {
+            shortRttNanos = rttNanos;
+            baselineRttNanos = rttNanos;
+        } else {
+            shortRttNanos += (rttNanos - shortRttNanos) * SHORT_RTT_ALPHA;
+            double alpha = rttNanos < baselineRttNanos ? BASELINE_DOWN_ALPHA : BASELINE_UP_ALPHA;
+            baselineRttNanos += (rttNanos - baselineRttNanos) * alpha;
+        }
+    
+        // Traffic too light to tell whether a higher limit would be safe
+        if (inFlightAtCompletion < estimatedLimit / 2) {
+            return;
+        }
+    
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, TOLERANCE * baselineRttNanos / shortRttNanos));
+        double queueAllowance = Math.sqrt(estimatedLimit);
+        double target = estimatedLimit * gradient + queueAllowance;
+        // Every in-flight request reports a sample, so smooth per window of `limit` samples
+        // rather than per sample; otherwise the limit overshoots before latency catches up
+        update(estimatedLimit + (target - estimatedLimit) * SMOOTHING / estimatedLimit);
+    }
+    
+    private void update(double newLimit) {
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        limit = (int) estimatedLimit;
+    }
+    
+    public int getLimit() { return limit; }
+    public int getInFlight() { return inFlight.get(); }
+    public long getRejectedCount() { return rejected.sum(); }
+}
@@ -0,0 +1,184 @@
+package com.example.Student_form.overload;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Sheds /api/** requests once their route class reaches its adaptive
+ * concurrency limit, so a slow database cannot tie up every Tomcat thread
+ * (and with them /web/users) behind queued API calls
+ */
+@Component
+@ConditionalOnProperty(name = "api.concurrency-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class ApiConcurrencyLimitFilter extends OncePerRequestFilter {
+    
+    enum RouteClass {
+        READS, WRITES, SEARCH;
+    
+        final String tag = name().toLowerCase();
+    
+        final byte[] rejectionBody = ("{\"success\":false,\"message\":\"Server busy\","
+                + "\"error\":\"Too many concurrent " + tag + " requests, retry later\"}")
+                .getBytes(StandardCharsets.UTF_8);
+    }
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private final AdaptiveConcurrencyLimit reads;
+    private final AdaptiveConcurrencyLimit writes;
+    private final AdaptiveConcurrencyLimit search;
+    private final String retryAfterSeconds;
+    
+    public ApiConcurrencyLimitFilter(
+            @Value("${api.concurrency-limit.reads.initial:20}") int readsInitial,
+            @Value("${api.concurrency-limit.reads.min:4}") int readsMin,
+            @Value("${api.concurrency-limit.reads.max:80}") int readsMax,
+            @Value("${api.concurrency-limit.writes.initial:10}") int writesInitial,
+            @Value("${api.concurrency-limit.writes.min:2}") int writesMin,
+            @Value("${api.concurrency-limit.writes.max:40}") int writesMax,
+            @Value("${api.concurrency-limit.search.initial:5}") int searchInitial,
+            @Value("${api.concurrency-limit.search.min:1}") int searchMin,
+            @Value("${api.concurrency-limit.search.max:20}") int searchMax,
+            @Value("${api.concurrency-limit.retry-after-seconds:1}") int retryAfterSeconds) {
+        this.reads = new AdaptiveConcurrencyLimit(readsInitial, readsMin, readsMax);
+        this.writes = new AdaptiveConcurrencyLimit(writesInitial, writesMin, writesMax);
+        this.search = new AdaptiveConcurrencyLimit(searchInitial, searchMin, searchMax);
+        this.retryAfterSeconds = String.valueOf(Math.max(1, retryAfterSeconds));
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        RouteClass routeClass = classify(request);
+        AdaptiveConcurrencyLimit limit = limitFor(routeClass);
+    
+        if (!limit.tryAcquire()) {
+            reject(response, routeClass);
+            return;
+        }
+    
+        long start = System.nanoTime();
+        boolean dropped = true;
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            // Async handlers (api.async.enabled) hold the slot until the response completes
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseOnComplete(limit, response, start));
+                async = true;
+            }
+            // Controllers turn database failures into 500s rather than exceptions
+            dropped = response.getStatus() >= 500;
+        } finally {
+            if (!async) {
+                limit.release(System.nanoTime() - start, dropped);
+            }
+        }
+    }
+    
+    private static final class ReleaseOnComplete implements AsyncListener {
+        
+        private final AdaptiveConcurrencyLimit limit;
+        private final HttpServletResponse response;
+        private final long start;
+        
+        ReleaseOnComplete(AdaptiveConcurrencyLimit limit, HttpServletResponse response, long start) {
+            this.limit = limit;
+            this.response = response;
+            this.start = start;
+        }
+        
+        @Override
+        public void onComplete(AsyncEvent event) {
+            limit.release(System.nanoTime() - start, response.getStatus() >= 500);
+        }
+        
+        // Timeouts and errors are followed by onComplete, which releases the slot
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+        
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+        
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+    
+    static RouteClass classify(HttpServletRequest request) {
+        if (!HttpMethod.GET.matches(request.getMethod()) && !HttpMethod.HEAD.matches(request.getMethod())) {
+            return RouteClass.WRITES;
+        }
+        // Filtered scans, as opposed to primary-key / unique-key reads
+        String uri = request.getRequestURI();
+        if (uri.startsWith("/api/users/search") || uri.startsWith("/api/users/branch/")
+                || uri.startsWith("/api/users/course/")) {
+            return RouteClass.SEARCH;
+        }
+        return RouteClass.READS;
+    }
+    
+    AdaptiveConcurrencyLimit limitFor(RouteClass routeClass) {
+        return switch (routeClass) {
+            case READS -> reads;
+            case WRITES -> writes;
+            case SEARCH -> search;
+        };
+    }
+    
+    private void reject(HttpServletResponse response, RouteClass routeClass) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(routeClass.rejectionBody.length);
+        response.getOutputStream().write(routeClass.rejectionBody);
+    }
+    
+    /**
+     * Publish limit, in-flight and rejected counts per route class
+     */
+    @PostConstruct
+    void registerMetrics() {
+        for (RouteClass routeClass : RouteClass.values()) {
+            AdaptiveConcurrencyLimit limit = limitFor(routeClass);
+            Gauge.builder("api.concurrency.limit", limit, AdaptiveConcurrencyLimit::getLimit)
+                    .tag("route", routeClass.tag)
+                    .register(meterRegistry);
+            Gauge.builder("api.concurrency.in.flight", limit, AdaptiveConcurrencyLimit::getInFlight)
+                    .tag("route", routeClass.tag)
+                    .register(meterRegistry);
+            FunctionCounter.builder("api.concurrency.rejected", limit, AdaptiveConcurrencyLimit::getRejectedCount)
+                    .description("API requests shed with 503")
+                    .tag("route", routeClass.tag)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.Student_form.repository;
+
+import com.example.Student_form.model.Branch;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface BranchRepository extends ReferenceRepository<Branch> {
+}
@@ -0,0 +1,8 @@
+package com.example.Student_form.repository;
+
+import com.example.Student_form.model.Course;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CourseRepository extends ReferenceRepository<Course> {
+}
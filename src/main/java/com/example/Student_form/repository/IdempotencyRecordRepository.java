@@ -0,0 +1,38 @@
+package com.example.Student_form.repository;
+
+import com.example.Student_form.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+    
+    // Claim a key with a plain INSERT; a concurrent claim by another instance fails on the primary key
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO idempotency_keys (idempotency_key, fingerprint, status, expires_at) " +
+                   "VALUES (:key, :fingerprint, 0, :expiresAt)", nativeQuery = true)
+    int insertClaim(@Param("key") String key, @Param("fingerprint") String fingerprint,
+                    @Param("expiresAt") long expiresAt);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE IdempotencyRecord r SET r.status = :status, r.body = :body, r.expiresAt = :expiresAt " +
+           "WHERE r.key = :key")
+    int storeResponse(@Param("key") String key, @Param("status") int status,
+                      @Param("body") String body, @Param("expiresAt") long expiresAt);
+    
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.key = :key")
+    int deleteByKey(@Param("key") String key);
+    
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") long now);
+}
@@ -0,0 +1,17 @@
+package com.example.Student_form.repository;
+
+import com.example.Student_form.model.ReferenceEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.repository.NoRepositoryBean;
+
+import java.util.Optional;
+
+/**
+ * Shared queries for the branch and course lookup tables
+ */
+@NoRepositoryBean
+public interface ReferenceRepository<T extends ReferenceEntry> extends JpaRepository<T, Short> {
+    
+    // Find entry by name (case insensitive, matching the column collation)
+    Optional<T> findByNameIgnoreCase(String name);
+}
@@ -2,9 +2,11 @@ package com.example.Student_form.repository;
 
 import com.example.Student_form.model.Student;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -15,11 +17,11 @@ public interface StudentRepository extends JpaRepository<Student, Long> {
     // Find student by roll number
     Optional<Student> findByRollNo(Integer rollNo);
     
-    // Find students by branch
-    List<Student> findByBranch(String branch);
+    // Find students by branch lookup id (indexed)
+    List<Student> findByBranchId(Short branchId);
     
-    // Find students by course
-    List<Student> findByCourse(String course);
+    // Find students by course lookup id (indexed)
+    List<Student> findByCourseId(Short courseId);
     
     // Check if student exists by roll number
     boolean existsByRollNo(Integer rollNo);
@@ -27,4 +29,34 @@ public interface StudentRepository extends JpaRepository<Student, Long> {
     // Custom query to find students by name containing (case insensitive)
     @Query("SELECT s FROM Student s WHERE LOWER(s.name) LIKE LOWER(CONCAT('%', :name, '%'))")
     List<Student> findByNameContainingIgnoreCase(@Param("name") String name);
+    
+    // Bulk statements: one UPDATE/DELETE each, returning the affected row count.
+    // A null new id keeps the current value. The persistence context is cleared
+    // so no stale Student instances survive the statement.
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE Student s SET s.branchId = COALESCE(:newBranchId, s.branchId), " +
+           "s.courseId = COALESCE(:newCourseId, s.courseId) WHERE s.branchId = :branchId")
+    int bulkReassignByBranchId(@Param("branchId") Short branchId,
+                               @Param("newBranchId") Short newBranchId,
+                               @Param("newCourseId") Short newCourseId);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE Student s SET s.branchId = COALESCE(:newBranchId, s.branchId), " +
+           "s.courseId = COALESCE(:newCourseId, s.courseId) WHERE s.courseId = :courseId")
+    int bulkReassignByCourseId(@Param("courseId") Short courseId,
+                               @Param("newBranchId") Short newBranchId,
+                               @Param("newCourseId") Short newCourseId);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
+    @Query("DELETE FROM Student s WHERE s.branchId = :branchId")
+    int bulkDeleteByBranchId(@Param("branchId") Short branchId);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
+    @Query("DELETE FROM Student s WHERE s.courseId = :courseId")
+    int bulkDeleteByCourseId(@Param("courseId") Short courseId);
 }
\ No newline at end of file
@@ -0,0 +1,183 @@
+package com.example.Student_form.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Bounded executor for blocking repository work, sized to the JDBC pool
+ *
+ * With api.async.enabled the API handlers hand their work to this executor
+ * and release the servlet thread while MySQL answers. Work is split into
+ * two lanes that together have one thread per pooled connection, so slow
+ * scans can never occupy every connection and starve key lookups. When async
+ * mode is off, work runs inline on the calling thread.
+ */
+@Component
+public class DatabaseExecutor {
+
+    public enum Lane {
+        // Primary-key / unique-key reads and single-row writes
+        LOOKUP,
+        // List, search and bulk statements
+        SCAN
+    }
+
+    private final boolean enabled;
+    private final Duration timeout;
+    private final ThreadPoolExecutor lookups;
+    private final ThreadPoolExecutor scans;
+
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    public DatabaseExecutor(
+            @Value("${api.async.enabled:false}") boolean enabled,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+            @Value("${api.async.scan-threads:4}") int scanThreads,
+            @Value("${api.async.queue-capacity:200}") int queueCapacity,
+            @Value("${api.async.timeout:5s}") Duration timeout) {
+        this.enabled = enabled;
+        this.timeout = timeout;
+        int scanLane = Math.max(1, Math.min(scanThreads, poolSize - 1));
+        this.scans = newLane("db-scan-", scanLane, queueCapacity);
+        this.lookups = newLane("db-lookup-", Math.max(1, poolSize - scanLane), queueCapacity);
+    }
+
+    private static ThreadPoolExecutor newLane(String prefix, int threads, int queueCapacity) {
+        AtomicInteger count = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Run repository work on the given lane
+     *
+     * The future fails with RejectedExecutionException when the lane's queue
+     * is full and with TimeoutException after api.async.timeout; work that
+     * times out while still queued is skipped instead of run.
+     */
+    public <T> CompletableFuture<T> submit(Lane lane, Supplier<T> work) {
+        if (!enabled) {
+            return runInline(work);
+        }
+
+        CompletableFuture<T> future;
+        try {
+            future = CompletableFuture.supplyAsync(work, lane == Lane.SCAN ? scans : lookups);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            return CompletableFuture.failedFuture(e);
+        }
+        return countTimeouts(future.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Run repository work on the given lane without a timeout
+     *
+     * The future completes only once the work has really run, so callers that
+     * must know how a write ended (e.g. to hold an Idempotency-Key until then)
+     * can wait for it and apply withTimeout to what they hand to the client.
+     * Queued work is never skipped.
+     */
+    public <T> CompletableFuture<T> submitUntimed(Lane lane, Supplier<T> work) {
+        if (!enabled) {
+            return runInline(work);
+        }
+        try {
+            return CompletableFuture.supplyAsync(work, lane == Lane.SCAN ? scans : lookups);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * A copy of the future that fails with TimeoutException after
+     * api.async.timeout; the future itself and its work are left alone
+     */
+    public <T> CompletableFuture<T> withTimeout(CompletableFuture<T> future) {
+        if (!enabled) {
+            return future;
+        }
+        return countTimeouts(future.copy().orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS));
+    }
+
+    private static <T> CompletableFuture<T> runInline(Supplier<T> work) {
+        try {
+            return CompletableFuture.completedFuture(work.get());
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private <T> CompletableFuture<T> countTimeouts(CompletableFuture<T> future) {
+        return future.whenComplete((result, failure) -> {
+            if (unwrap(failure) instanceof TimeoutException) {
+                timedOut.increment();
+            }
+        });
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public static Throwable unwrap(Throwable failure) {
+        return failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+    }
+
+    @PostConstruct
+    void registerMetrics() {
+        registerLaneMetrics("lookup", lookups);
+        registerLaneMetrics("scan", scans);
+        FunctionCounter.builder("db.executor.rejected", rejected, LongAdder::sum)
+                .description("Repository tasks rejected because a lane queue was full")
+                .register(meterRegistry);
+        FunctionCounter.builder("db.executor.timed.out", timedOut, LongAdder::sum)
+                .description("API requests that hit api.async.timeout")
+                .register(meterRegistry);
+    }
+
+    private void registerLaneMetrics(String lane, ThreadPoolExecutor executor) {
+        Gauge.builder("db.executor.queue.depth", executor, e -> e.getQueue().size())
+                .description("Repository tasks waiting for a database thread")
+                .tag("lane", lane)
+                .register(meterRegistry);
+        Gauge.builder("db.executor.active", executor, ThreadPoolExecutor::getActiveCount)
+                .tag("lane", lane)
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        lookups.shutdown();
+        scans.shutdown();
+    }
+}
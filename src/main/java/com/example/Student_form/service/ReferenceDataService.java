@@ -0,0 +1,98 @@
+package com.example.Student_form.service;
+
+import com.example.Student_form.model.Branch;
+import com.example.Student_form.model.Course;
+import com.example.Student_form.model.Student;
+import com.example.Student_form.repository.BranchRepository;
+import com.example.Student_form.repository.CourseRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+
+/**
+ * Resolves branch and course names to their lookup table ids and back
+ * 
+ * Students only store the small integer ids; every name the application
+ * shows or filters on goes through the cached dictionaries held here.
+ */
+@Service
+@DependsOn("referenceDataMigration")
+public class ReferenceDataService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ReferenceDataService.class);
+    
+    @Autowired
+    private BranchRepository branchRepository;
+    
+    @Autowired
+    private CourseRepository courseRepository;
+    
+    private ReferenceDictionary<Branch> branches;
+    private ReferenceDictionary<Course> courses;
+    
+    @PostConstruct
+    void loadDictionaries() {
+        branches = new ReferenceDictionary<>(branchRepository, Branch::new);
+        courses = new ReferenceDictionary<>(courseRepository, Course::new);
+        reload();
+    }
+    
+    // Reload both dictionaries from the database
+    public void reload() {
+        branches.reload();
+        courses.reload();
+        logger.info("Loaded {} branches and {} courses into the reference dictionary",
+                branches.size(), courses.size());
+    }
+    
+    // Find branch id by name, empty if no student has ever used it
+    public Optional<Short> findBranchId(String branch) {
+        return branches.findId(branch);
+    }
+    
+    // Find course id by name, empty if no student has ever used it
+    public Optional<Short> findCourseId(String course) {
+        return courses.findId(course);
+    }
+    
+    // Branch id for a name, creating the lookup row on first use
+    public Short resolveBranchId(String branch) {
+        return branches.resolveId(branch);
+    }
+    
+    // Course id for a name, creating the lookup row on first use
+    public Short resolveCourseId(String course) {
+        return courses.resolveId(course);
+    }
+    
+    public String branchName(Short branchId) {
+        return branches.nameOf(branchId);
+    }
+    
+    public String courseName(Short courseId) {
+        return courses.nameOf(courseId);
+    }
+    
+    /**
+     * Point the student at the lookup rows for its branch and course names,
+     * creating them on first use, before the student is written
+     */
+    public void applyReferences(Student student) {
+        student.setBranchId(resolveBranchId(student.getBranch()));
+        student.setCourseId(resolveCourseId(student.getCourse()));
+        populateNames(student);
+    }
+    
+    /**
+     * Fill in the branch and course names of a student loaded from the database
+     */
+    public void populateNames(Student student) {
+        student.setBranch(branches.nameOf(student.getBranchId()));
+        student.setCourse(courses.nameOf(student.getCourseId()));
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.Student_form.service;
+
+import com.example.Student_form.model.ReferenceEntry;
+import com.example.Student_form.repository.ReferenceRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Canonical in-memory copy of one lookup table (name <-> id)
+ * 
+ * Reads never touch the database once an entry is cached. Names are matched
+ * trimmed and case insensitive, the same way the MySQL column collation does.
+ * 
+ * A name that is not in the table is remembered as missing for a short while,
+ * so repeated filters on an unknown name cost one query per MISS_TTL rather
+ * than one per request. Rows another instance adds show up after that.
+ */
+class ReferenceDictionary<T extends ReferenceEntry> {
+    
+    static final long MISS_TTL_NANOS = TimeUnit.SECONDS.toNanos(30);
+    // Names come from request parameters, so the miss cache is bounded
+    static final int MAX_MISSES = 1024;
+    
+    private final ReferenceRepository<T> repository;
+    private final Function<String, T> factory;
+    private final LongSupplier nanoClock;
+    
+    private final Map<String, Short> idsByKey = new ConcurrentHashMap<>();
+    private final Map<Short, String> namesById = new ConcurrentHashMap<>();
+    // Key -> nanoTime until which the name is known not to exist
+    private final Map<String, Long> missesUntil = new ConcurrentHashMap<>();
+    
+    ReferenceDictionary(ReferenceRepository<T> repository, Function<String, T> factory) {
+        this(repository, factory, System::nanoTime);
+    }
+    
+    ReferenceDictionary(ReferenceRepository<T> repository, Function<String, T> factory, LongSupplier nanoClock) {
+        this.repository = repository;
+        this.factory = factory;
+        this.nanoClock = nanoClock;
+    }
+    
+    // Load every row of the table into memory
+    void reload() {
+        idsByKey.clear();
+        namesById.clear();
+        missesUntil.clear();
+        repository.findAll().forEach(this::cache);
+    }
+    
+    // Find the id for a name without creating it
+    Optional<Short> findId(String name) {
+        if (name == null || name.trim().isEmpty()) {
+            return Optional.empty();
+        }
+        String key = key(name);
+        Short id = idsByKey.get(key);
+        if (id != null) {
+            return Optional.of(id);
+        }
+        long now = nanoClock.getAsLong();
+        Long until = missesUntil.get(key);
+        if (until != null && now - until < 0) {
+            return Optional.empty();
+        }
+        // Another instance may have added it since we loaded
+        Optional<Short> found = repository.findByNameIgnoreCase(name.trim()).map(this::cache);
+        if (found.isEmpty()) {
+            rememberMiss(key, now);
+        }
+        return found;
+    }
+    
+    // Find the id for a name, inserting a new row the first time it is seen
+    Short resolveId(String name) {
+        Short id = idsByKey.get(key(name));
+        if (id != null) {
+            return id;
+        }
+        synchronized (this) {
+            id = idsByKey.get(key(name));
+            if (id != null) {
+                return id;
+            }
+            String canonical = name.trim();
+            T entry = repository.findByNameIgnoreCase(canonical).orElse(null);
+            if (entry == null) {
+                try {
+                    entry = repository.saveAndFlush(factory.apply(canonical));
+                } catch (DataIntegrityViolationException e) {
+                    // Inserted concurrently by another instance, use that row
+                    entry = repository.findByNameIgnoreCase(canonical).orElseThrow(() -> e);
+                }
+            }
+            return cache(entry);
+        }
+    }
+    
+    // Get the canonical name for an id
+    String nameOf(Short id) {
+        if (id == null) {
+            return null;
+        }
+        String name = namesById.get(id);
+        if (name != null) {
+            return name;
+        }
+        return repository.findById(id).map(entry -> {
+            cache(entry);
+            return entry.getName();
+        }).orElse(null);
+    }
+    
+    int size() {
+        return namesById.size();
+    }
+    
+    int missCount() {
+        return missesUntil.size();
+    }
+    
+    private void rememberMiss(String key, long now) {
+        if (missesUntil.size() >= MAX_MISSES) {
+            missesUntil.values().removeIf(until -> now - until >= 0);
+            if (missesUntil.size() >= MAX_MISSES) {
+                missesUntil.clear();
+            }
+        }
+        missesUntil.put(key, now + MISS_TTL_NANOS);
+    }
+    
+    private Short cache(T entry) {
+        String key = key(entry.getName());
+        idsByKey.put(key, entry.getId());
+        missesUntil.remove(key);
+        namesById.put(entry.getId(), entry.getName());
+        return entry.getId();
+    }
+    
+    private static String key(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.Student_form.service;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent loads of the same key into one
+ * 
+ * The first caller for a key runs the loader; callers arriving while it is
+ * in flight wait for that result instead of running their own query. Every
+ * waiter sees the same value or the same exception. A waiter that is
+ * interrupted stops waiting on its own; the load and the other waiters carry
+ * on. Nothing is cached: once the load finishes the next caller starts a new one.
+ * 
+ * Results are shared between threads, so callers must treat them as read-only.
+ */
+public class SingleFlight<K, V> {
+    
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            coalesced.increment();
+            return await(existing);
+        }
+        
+        executed.increment();
+        try {
+            V value = loader.get();
+            call.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+    
+    // Loads actually run
+    public long getExecutedCount() { return executed.sum(); }
+    
+    // Calls answered by another caller's load
+    public long getCoalescedCount() { return coalesced.sum(); }
+    
+    public int getInFlightCount() { return inFlight.size(); }
+    
+    private V await(CompletableFuture<V> call) {
+        try {
+            // get() on the shared future: an interrupt only ends this caller's wait
+            return call.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            CancellationException cancelled = new CancellationException("Interrupted while waiting for an in-flight load");
+            cancelled.initCause(e);
+            throw cancelled;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+}
@@ -5,6 +5,10 @@ import com.example.Student_form.exception.InvalidStudentDataException;
 import com.example.Student_form.exception.StudentNotFoundException;
 import com.example.Student_form.model.Student;
 import com.example.Student_form.repository.StudentRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -17,6 +21,38 @@ public class StudentService {
     @Autowired
     private StudentRepository studentRepository;
     
+    @Autowired
+    private ReferenceDataService referenceDataService;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    // Concurrent lookups of the same hot student share one query. The shared
+    // result is a detached copy and every caller gets a copy of its own, so no
+    // request holds an entity managed by another request's persistence context
+    private final SingleFlight<Long, Optional<Student>> lookupsById = new SingleFlight<>();
+    private final SingleFlight<Integer, Optional<Student>> lookupsByRollNo = new SingleFlight<>();
+    
+    @PostConstruct
+    void registerMetrics() {
+        registerLookupMetrics("id", lookupsById);
+        registerLookupMetrics("rollNo", lookupsByRollNo);
+    }
+    
+    private void registerLookupMetrics(String lookup, SingleFlight<?, ?> flights) {
+        FunctionCounter.builder("students.lookup.executed", flights, SingleFlight::getExecutedCount)
+                .description("Student lookups that ran a query")
+                .tag("lookup", lookup)
+                .register(meterRegistry);
+        FunctionCounter.builder("students.lookup.coalesced", flights, SingleFlight::getCoalescedCount)
+                .description("Student lookups answered by a concurrent in-flight query")
+                .tag("lookup", lookup)
+                .register(meterRegistry);
+        Gauge.builder("students.lookup.in.flight", flights, SingleFlight::getInFlightCount)
+                .tag("lookup", lookup)
+                .register(meterRegistry);
+    }
+    
     // Save a new student
     public Student saveStudent(Student student) {
         // Validate student data
@@ -26,6 +62,7 @@ public class StudentService {
         if (studentRepository.existsByRollNo(student.getRollNo())) {
             throw new DuplicateRollNumberException(student.getRollNo());
         }
+        referenceDataService.applyReferences(student);
         return studentRepository.save(student);
     }
     
@@ -34,14 +71,16 @@ public class StudentService {
         return studentRepository.findAll();
     }
     
-    // Get student by ID
+    // Get student by ID (concurrent calls for the same ID share one query)
     public Optional<Student> getStudentById(Long id) {
-        return studentRepository.findById(id);
+        return lookupsById.execute(id, () -> studentRepository.findById(id).map(Student::new))
+                .map(Student::new);
     }
     
-    // Get student by roll number
+    // Get student by roll number (concurrent calls for the same roll number share one query)
     public Optional<Student> getStudentByRollNo(Integer rollNo) {
-        return studentRepository.findByRollNo(rollNo);
+        return lookupsByRollNo.execute(rollNo, () -> studentRepository.findByRollNo(rollNo).map(Student::new))
+                .map(Student::new);
     }
     
     // Update student
@@ -62,6 +101,7 @@ public class StudentService {
         student.setRollNo(studentDetails.getRollNo());
         student.setBranch(studentDetails.getBranch());
         student.setCourse(studentDetails.getCourse());
+        referenceDataService.applyReferences(student);
         
         return studentRepository.save(student);
     }
@@ -73,14 +113,54 @@ public class StudentService {
         studentRepository.delete(student);
     }
     
-    // Get students by branch
+    // Get students by branch (unknown names skip the students query)
     public List<Student> getStudentsByBranch(String branch) {
-        return studentRepository.findByBranch(branch);
+        return referenceDataService.findBranchId(branch)
+                .map(studentRepository::findByBranchId)
+                .orElseGet(List::of);
     }
     
-    // Get students by course
+    // Get students by course (unknown names skip the students query)
     public List<Student> getStudentsByCourse(String course) {
-        return studentRepository.findByCourse(course);
+        return referenceDataService.findCourseId(course)
+                .map(studentRepository::findByCourseId)
+                .orElseGet(List::of);
+    }
+    
+    // Move every student of a branch to another branch and/or course with one UPDATE
+    public int bulkUpdateByBranch(String branch, Student changes) {
+        validateBulkChanges(changes);
+        Optional<Short> branchId = referenceDataService.findBranchId(branch);
+        if (branchId.isEmpty()) {
+            return 0;
+        }
+        return studentRepository.bulkReassignByBranchId(branchId.get(),
+                newBranchId(changes), newCourseId(changes));
+    }
+    
+    // Move every student of a course to another branch and/or course with one UPDATE
+    public int bulkUpdateByCourse(String course, Student changes) {
+        validateBulkChanges(changes);
+        Optional<Short> courseId = referenceDataService.findCourseId(course);
+        if (courseId.isEmpty()) {
+            return 0;
+        }
+        return studentRepository.bulkReassignByCourseId(courseId.get(),
+                newBranchId(changes), newCourseId(changes));
+    }
+    
+    // Delete every student of a branch with one DELETE
+    public int bulkDeleteByBranch(String branch) {
+        return referenceDataService.findBranchId(branch)
+                .map(studentRepository::bulkDeleteByBranchId)
+                .orElse(0);
+    }
+    
+    // Delete every student of a course with one DELETE
+    public int bulkDeleteByCourse(String course) {
+        return referenceDataService.findCourseId(course)
+                .map(studentRepository::bulkDeleteByCourseId)
+                .orElse(0);
     }
     
     // Search students by name
@@ -119,10 +199,36 @@ public class StudentService {
         if (studentDetails.getCourse() != null && !studentDetails.getCourse().trim().isEmpty()) {
             student.setCourse(studentDetails.getCourse());
         }
+        referenceDataService.applyReferences(student);
         
         return studentRepository.save(student);
     }
     
+    // Bulk changes may only touch branch and course; names and roll numbers are per student
+    private void validateBulkChanges(Student changes) {
+        if (changes == null) {
+            throw new InvalidStudentDataException("Student data cannot be null");
+        }
+        if (changes.getName() != null || changes.getRollNo() != null) {
+            throw new InvalidStudentDataException("Bulk update can only change branch and course");
+        }
+        if (isBlank(changes.getBranch()) && isBlank(changes.getCourse())) {
+            throw new InvalidStudentDataException("Bulk update needs a branch or course");
+        }
+    }
+    
+    private Short newBranchId(Student changes) {
+        return isBlank(changes.getBranch()) ? null : referenceDataService.resolveBranchId(changes.getBranch());
+    }
+    
+    private Short newCourseId(Student changes) {
+        return isBlank(changes.getCourse()) ? null : referenceDataService.resolveCourseId(changes.getCourse());
+    }
+    
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+    
     // Validate student data
     private void validateStudentData(Student student) {
         if (student == null) {
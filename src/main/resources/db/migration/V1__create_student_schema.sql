@@ -0,0 +1,31 @@
+-- Student schema as of the branch/course lookup tables.
+-- Databases already created by ddl-auto=update are baselined at this
+-- version (spring.flyway.baseline-on-migrate) and skip this script.
+
+CREATE TABLE branches (
+    id   SMALLINT     NOT NULL AUTO_INCREMENT,
+    name VARCHAR(100) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_branches_name UNIQUE (name)
+) ENGINE = InnoDB;
+
+CREATE TABLE courses (
+    id   SMALLINT     NOT NULL AUTO_INCREMENT,
+    name VARCHAR(100) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_courses_name UNIQUE (name)
+) ENGINE = InnoDB;
+
+CREATE TABLE students (
+    id        BIGINT       NOT NULL AUTO_INCREMENT,
+    name      VARCHAR(255) NOT NULL,
+    roll_no   INT          NOT NULL,
+    branch_id SMALLINT     NOT NULL,
+    course_id SMALLINT     NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_students_roll_no UNIQUE (roll_no),
+    INDEX idx_students_branch_id (branch_id),
+    INDEX idx_students_course_id (course_id),
+    CONSTRAINT fk_students_branch FOREIGN KEY (branch_id) REFERENCES branches (id),
+    CONSTRAINT fk_students_course FOREIGN KEY (course_id) REFERENCES courses (id)
+) ENGINE = InnoDB;
@@ -0,0 +1,12 @@
+-- Database tier of the Idempotency-Key store (api.idempotency.store=jdbc).
+-- status 0 marks a claim whose request is still running.
+
+CREATE TABLE idempotency_keys (
+    idempotency_key VARCHAR(255) NOT NULL,
+    fingerprint     VARCHAR(64)  NOT NULL,
+    status          INT          NOT NULL,
+    body            LONGTEXT,
+    expires_at      BIGINT       NOT NULL,
+    PRIMARY KEY (idempotency_key),
+    INDEX idx_idempotency_keys_expires_at (expires_at)
+) ENGINE = InnoDB;
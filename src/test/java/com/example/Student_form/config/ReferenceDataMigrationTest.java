@@ -0,0 +1,60 @@
+package com.example.Student_form.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ReferenceDataMigrationTest {
+
+	private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+	private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+	private final ReferenceDataMigration migration = new ReferenceDataMigration();
+
+	ReferenceDataMigrationTest() {
+		ReflectionTestUtils.setField(migration, "jdbcTemplate", jdbcTemplate);
+		ReflectionTestUtils.setField(migration, "transactionTemplate", transactionTemplate);
+		when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), anyString(), anyString())).thenReturn(0);
+	}
+
+	@Test
+	void upgradedSchemaIsLeftAlone() {
+		migration.migrate();
+
+		verifyNoInteractions(transactionTemplate);
+		verify(jdbcTemplate, never()).execute(anyString());
+	}
+
+	@Test
+	void legacySchemaWithoutLookupTablesStopsStartup() {
+		// What a pre-lookup database looks like when nothing has run ddl-auto=update
+		column("students", "branch");
+		column("students", "course");
+
+		IllegalStateException e = assertThrows(IllegalStateException.class, migration::migrate);
+		assertTrue(e.getMessage().contains("students.branch"));
+		verifyNoInteractions(transactionTemplate);
+		verify(jdbcTemplate, never()).execute(anyString());
+	}
+
+	@Test
+	void legacySchemaWithLookupTablesIsMigrated() {
+		column("students", "branch");
+		column("branches", "id");
+		column("students", "branch_id");
+
+		migration.migrate();
+
+		verify(transactionTemplate).execute(any());
+		verify(jdbcTemplate).execute("ALTER TABLE students DROP COLUMN branch");
+		verify(jdbcTemplate, never()).execute("ALTER TABLE students DROP COLUMN course");
+	}
+
+	private void column(String table, String column) {
+		when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), eq(table), eq(column))).thenReturn(1);
+	}
+}
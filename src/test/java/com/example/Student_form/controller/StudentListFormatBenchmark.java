@@ -0,0 +1,103 @@
+package com.example.Student_form.controller;
+
+import com.example.Student_form.config.StudentListAvroConverter;
+import com.example.Student_form.model.Student;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.avro.AvroMapper;
+import com.fasterxml.jackson.dataformat.avro.AvroSchema;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Payload size and serialize/deserialize time of the list response in each
+ * negotiated format (not a unit test; run it by hand). Reads decode into a
+ * JsonNode tree, as a schema-agnostic client would:
+ *
+ *   mvn -q test-compile exec:java -Dexec.classpathScope=test \
+ *       -Dexec.mainClass=com.example.Student_form.controller.StudentListFormatBenchmark
+ *
+ * The 1M-student run needs about 3GB of heap (MAVEN_OPTS=-Xmx3g).
+ */
+public class StudentListFormatBenchmark {
+
+	private static final String[] BRANCHES = {"CSE", "ECE", "ME", "CE", "EE", "IT"};
+	private static final String[] COURSES = {"BTech", "MTech", "PhD"};
+
+	record Format(String name, ObjectWriter writer, ObjectReader reader) {
+	}
+
+	interface Task {
+		Object run() throws IOException;
+	}
+
+	public static void main(String[] args) throws IOException {
+		ObjectMapper json = new ObjectMapper();
+		ObjectMapper cbor = new CBORMapper();
+		ObjectMapper smile = new SmileMapper();
+		AvroMapper avro = new AvroMapper();
+		AvroSchema schema = new StudentListAvroConverter().getSchema();
+
+		List<Format> formats = List.of(
+				new Format("json", json.writer(), json.readerFor(JsonNode.class)),
+				new Format("cbor", cbor.writer(), cbor.readerFor(JsonNode.class)),
+				new Format("smile", smile.writer(), smile.readerFor(JsonNode.class)),
+				new Format("avro", avro.writer(schema), avro.readerFor(JsonNode.class).with(schema)));
+
+		System.out.printf("%-9s %-6s %12s %12s %10s %10s%n", "students", "format", "bytes", "gzip bytes", "write ms", "read ms");
+		for (int count : new int[] {1_000, 100_000, 1_000_000}) {
+			StudentListResponse response = response(count);
+			int rounds = count >= 1_000_000 ? 3 : count >= 100_000 ? 10 : 500;
+			for (Format format : formats) {
+				byte[] bytes = format.writer().writeValueAsBytes(response);
+				double writeMillis = bestOf(rounds, () -> format.writer().writeValueAsBytes(response));
+				double readMillis = bestOf(rounds, () -> format.reader().readValue(bytes));
+				System.out.printf("%-9d %-6s %12d %12d %10.2f %10.2f%n",
+						count, format.name(), bytes.length, gzip(bytes).length, writeMillis, readMillis);
+			}
+		}
+	}
+
+	private static StudentListResponse response(int count) {
+		List<Student> students = new ArrayList<>(count);
+		for (int i = 1; i <= count; i++) {
+			Student student = new Student("Student " + i, 100_000 + i,
+					BRANCHES[i % BRANCHES.length], COURSES[i % COURSES.length]);
+			student.setId((long) i);
+			students.add(student);
+		}
+		StudentListResponse response = new StudentListResponse();
+		response.put("success", true);
+		response.put("message", "Students retrieved successfully");
+		response.put("data", students);
+		response.put("count", students.size());
+		return response;
+	}
+
+	// Best of several runs: the JIT is warm after the first few and GC noise is excluded
+	private static double bestOf(int rounds, Task task) throws IOException {
+		long best = Long.MAX_VALUE;
+		for (int i = 0; i < rounds; i++) {
+			long start = System.nanoTime();
+			task.run();
+			best = Math.min(best, System.nanoTime() - start);
+		}
+		return best / 1e6;
+	}
+
+	private static byte[] gzip(byte[] bytes) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4);
+		try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+			gzip.write(bytes);
+		}
+		return out.toByteArray();
+	}
+}
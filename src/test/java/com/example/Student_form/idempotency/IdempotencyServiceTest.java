@@ -0,0 +1,128 @@
+package com.example.Student_form.idempotency;
+
+import com.example.Student_form.repository.IdempotencyRecordRepository;
+import com.example.Student_form.service.DatabaseExecutor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class IdempotencyServiceTest {
+
+	private static final Map<String, Object> BODY = Map.of("name", "Alice", "rollNo", 101);
+
+	private final IdempotencyRecordRepository repository = mock(IdempotencyRecordRepository.class);
+	private final DatabaseExecutor databaseExecutor = new DatabaseExecutor(true, 2, 1, 10, Duration.ofMillis(100));
+	private final CountDownLatch release = new CountDownLatch(1);
+	private final AtomicInteger runs = new AtomicInteger();
+
+	@AfterEach
+	void shutdown() {
+		release.countDown();
+		ReflectionTestUtils.invokeMethod(databaseExecutor, "shutdown");
+	}
+
+	@Test
+	void timedOutWriteKeepsItsKeyUntilItFinishes() throws Exception {
+		IdempotencyService service = newService("memory");
+
+		// The client gives up after the timeout while the write is still running
+		CompletableFuture<ResponseEntity<Map<String, Object>>> first = post(service);
+		assertTimedOut(first);
+		assertEquals(1, runs.get());
+
+		// A retry meanwhile waits for the running write instead of starting a second one
+		CompletableFuture<ResponseEntity<Map<String, Object>>> retry = post(service);
+		assertTimedOut(retry);
+		CompletableFuture<ResponseEntity<Map<String, Object>>> patient = service.execute(
+				"key-1", "POST /api/users", BODY, slowWrite());
+		assertFalse(patient.isDone());
+
+		release.countDown();
+		ResponseEntity<Map<String, Object>> replayed = patient.get(5, TimeUnit.SECONDS);
+		assertEquals(HttpStatus.CREATED, replayed.getStatusCode());
+		assertEquals("true", replayed.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+
+		// Later retries replay the stored response; the write ran exactly once
+		ResponseEntity<Map<String, Object>> later = post(service).get(5, TimeUnit.SECONDS);
+		assertEquals(HttpStatus.CREATED, later.getStatusCode());
+		assertEquals(1, runs.get());
+	}
+
+	@Test
+	void databaseClaimIsNotReleasedWhileTheWriteRuns() throws Exception {
+		IdempotencyService service = newService("jdbc");
+		when(repository.insertClaim(eq("key-1"), anyString(), anyLong())).thenReturn(1);
+
+		assertTimedOut(post(service));
+		verify(repository, never()).deleteByKey(any());
+		verify(repository, never()).storeResponse(any(), anyInt(), any(), anyLong());
+
+		release.countDown();
+		verify(repository, timeout(5_000)).storeResponse(eq("key-1"), eq(201), anyString(), anyLong());
+		verify(repository, never()).deleteByKey(any());
+		assertEquals(1, runs.get());
+	}
+
+	@Test
+	void failedWriteReleasesItsKeySoARetryRuns() throws Exception {
+		IdempotencyService service = newService("memory");
+		AtomicInteger attempts = new AtomicInteger();
+		Supplier<CompletableFuture<ResponseEntity<Map<String, Object>>>> failing = () ->
+				databaseExecutor.submitUntimed(DatabaseExecutor.Lane.LOOKUP, () -> {
+					attempts.incrementAndGet();
+					return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).<Map<String, Object>>body(Map.of());
+				});
+
+		assertEquals(500, service.execute("key-2", "POST /api/users", BODY, failing)
+				.get(5, TimeUnit.SECONDS).getStatusCode().value());
+		assertEquals(500, service.execute("key-2", "POST /api/users", BODY, failing)
+				.get(5, TimeUnit.SECONDS).getStatusCode().value());
+		assertEquals(2, attempts.get());
+	}
+
+	// What the controller does: the key covers the whole write, the timeout only the client's wait
+	private CompletableFuture<ResponseEntity<Map<String, Object>>> post(IdempotencyService service) {
+		return databaseExecutor.withTimeout(service.execute("key-1", "POST /api/users", BODY, slowWrite()));
+	}
+
+	private Supplier<CompletableFuture<ResponseEntity<Map<String, Object>>>> slowWrite() {
+		return () -> databaseExecutor.submitUntimed(DatabaseExecutor.Lane.LOOKUP, () -> {
+			runs.incrementAndGet();
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return ResponseEntity.status(HttpStatus.CREATED).<Map<String, Object>>body(Map.of("success", true));
+		});
+	}
+
+	private IdempotencyService newService(String store) {
+		IdempotencyService service = new IdempotencyService(Duration.ofHours(24), 100, store);
+		ReflectionTestUtils.setField(service, "objectMapper", new ObjectMapper());
+		ReflectionTestUtils.setField(service, "idempotencyRecordRepository", repository);
+		return service;
+	}
+
+	private static void assertTimedOut(CompletableFuture<?> response) {
+		ExecutionException e = assertThrows(ExecutionException.class, () -> response.get(5, TimeUnit.SECONDS));
+		assertInstanceOf(TimeoutException.class, e.getCause());
+	}
+}
@@ -0,0 +1,113 @@
+package com.example.Student_form.idempotency;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyStoreTest {
+
+	private final AtomicLong clock = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+	private final IdempotencyStore<String> store = new IdempotencyStore<>(60, TimeUnit.SECONDS, 10, clock::get);
+
+	@Test
+	void duplicatesWaitForAndReplayTheFirstResponse() {
+		IdempotencyStore.Claim<String> first = store.claim("key-1", "POST a");
+		assertTrue(first.owner);
+
+		IdempotencyStore.Claim<String> duplicate = store.claim("key-1", "POST a");
+		assertFalse(duplicate.owner);
+		assertFalse(duplicate.result.isDone());
+
+		store.complete("key-1", first.result, "created");
+		assertEquals("created", duplicate.result.join());
+
+		IdempotencyStore.Claim<String> retry = store.claim("key-1", "POST a");
+		assertFalse(retry.owner);
+		assertEquals("created", retry.result.join());
+	}
+
+	@Test
+	void rejectsKeyReusedForDifferentRequest() {
+		store.claim("key-1", "POST a");
+
+		IdempotencyStore.Claim<String> other = store.claim("key-1", "POST b");
+		assertTrue(other.fingerprintMismatch);
+		assertFalse(other.owner);
+	}
+
+	@Test
+	void expiresTtlAfterCompletion() {
+		IdempotencyStore.Claim<String> first = store.claim("key-1", "POST a");
+		clock.addAndGet(TimeUnit.MINUTES.toNanos(5));
+		store.complete("key-1", first.result, "created");
+
+		clock.addAndGet(TimeUnit.SECONDS.toNanos(59));
+		assertFalse(store.claim("key-1", "POST a").owner);
+
+		clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+		assertTrue(store.claim("key-1", "POST a").owner);
+	}
+
+	@Test
+	void abandonedKeyRunsAgain() {
+		IdempotencyStore.Claim<String> first = store.claim("key-1", "POST a");
+		IdempotencyStore.Claim<String> waiter = store.claim("key-1", "POST a");
+
+		store.abandon("key-1", first.result);
+		first.result.complete("server error");
+
+		assertEquals("server error", waiter.result.join());
+		assertTrue(store.claim("key-1", "POST a").owner);
+	}
+
+	@Test
+	void evictsCompletedEntriesButNeverInFlightOnes() {
+		IdempotencyStore.Claim<String> inFlight = store.claim("pending", "POST a");
+		for (int i = 0; i < 50; i++) {
+			IdempotencyStore.Claim<String> claim = store.claim("key-" + i, "POST a");
+			store.complete("key-" + i, claim.result, "done");
+			assertTrue(store.size() <= 11, "size " + store.size());
+		}
+
+		IdempotencyStore.Claim<String> duplicate = store.claim("pending", "POST a");
+		assertFalse(duplicate.owner);
+		assertSame(inFlight.result, duplicate.result);
+	}
+
+	@Test
+	void concurrentClaimsOvershootByAtMostTheClaimingThreads() throws Exception {
+		int threads = 8;
+		IdempotencyStore<String> bounded = new IdempotencyStore<>(60, TimeUnit.SECONDS, 1_000, clock::get);
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		AtomicInteger largest = new AtomicInteger();
+		try {
+			List<Future<?>> claims = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				String prefix = "thread-" + t + "-";
+				claims.add(pool.submit(() -> {
+					for (int i = 0; i < 20_000; i++) {
+						String key = prefix + i;
+						IdempotencyStore.Claim<String> claim = bounded.claim(key, "POST a");
+						bounded.complete(key, claim.result, "done");
+						largest.accumulateAndGet(bounded.size(), Math::max);
+					}
+				}));
+			}
+			for (Future<?> claim : claims) {
+				claim.get(30, TimeUnit.SECONDS);
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+		assertTrue(largest.get() <= 1_000 + threads, "largest size " + largest.get());
+	}
+}
@@ -0,0 +1,103 @@
+package com.example.Student_form.login.controller;
+
+import com.example.Student_form.login.model.LoginResponse;
+import com.example.Student_form.login.model.StudentPrincipal;
+import com.example.Student_form.login.status.LoginStatusCookie;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginControllerTest {
+
+	private static final String SECRET = "c3R1ZGVudC1mb3JtLXN0YXR1cy1jb29raWUta2V5ISE=";
+
+	private final StudentPrincipal principal = new StudentPrincipal(7L, 101, "Alice", 0L);
+	private final LoginStatusCookie statusCookie = newCookie(Duration.ofMinutes(5));
+	private final LoginController controller = new LoginController();
+
+	LoginControllerTest() {
+		ReflectionTestUtils.setField(controller, "loginStatusCookie", statusCookie);
+	}
+
+	@Test
+	void validCookieAnswersWithoutTheSession() {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.setCookies(issuedBy(statusCookie));
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		LoginResponse status = controller.checkLoginStatus(request, response);
+
+		assertTrue(status.isSuccess());
+		assertEquals(101, status.getRollNo());
+		assertNull(request.getSession(false));
+		assertNull(response.getCookie("LOGIN_STATUS"));
+	}
+
+	@Test
+	void expiredCookieWithLiveSessionFallsBackAndReissues() {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.setCookies(issuedBy(newCookie(Duration.ofMinutes(-1))));
+		request.setSession(loggedInSession());
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		LoginResponse status = controller.checkLoginStatus(request, response);
+
+		assertTrue(status.isSuccess());
+		assertEquals("Alice", status.getStudentName());
+		Cookie reissued = response.getCookie("LOGIN_STATUS");
+		assertNotNull(reissued);
+		assertEquals(Duration.ofMinutes(5).toSeconds(), reissued.getMaxAge());
+
+		// The next poll is answered by the fresh cookie alone
+		MockHttpServletRequest next = new MockHttpServletRequest();
+		next.setCookies(reissued);
+		assertTrue(controller.checkLoginStatus(next, new MockHttpServletResponse()).isSuccess());
+	}
+
+	@Test
+	void missingCookieWithLiveSessionFallsBackAndReissues() {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.setSession(loggedInSession());
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		assertTrue(controller.checkLoginStatus(request, response).isSuccess());
+		assertNotNull(response.getCookie("LOGIN_STATUS"));
+	}
+
+	@Test
+	void noCookieAndNoSessionIsLoggedOut() {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		assertFalse(controller.checkLoginStatus(request, response).isSuccess());
+		assertNull(request.getSession(false));
+		assertNull(response.getCookie("LOGIN_STATUS"));
+	}
+
+	private MockHttpSession loggedInSession() {
+		MockHttpSession session = new MockHttpSession();
+		session.setAttribute(StudentPrincipal.SESSION_ATTRIBUTE, principal);
+		return session;
+	}
+
+	private Cookie issuedBy(LoginStatusCookie issuer) {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		issuer.issue(principal, response);
+		return response.getCookie("LOGIN_STATUS");
+	}
+
+	private static LoginStatusCookie newCookie(Duration ttl) {
+		try {
+			return new LoginStatusCookie(true, "LOGIN_STATUS", ttl, SECRET);
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,139 @@
+package com.example.Student_form.login.session;
+
+import com.example.Student_form.login.model.StudentPrincipal;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.session.MapSession;
+
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileSessionRepositoryTest {
+
+	@TempDir
+	Path directory;
+
+	private FileSessionRepository newRepository() throws Exception {
+		return new FileSessionRepository(directory, Duration.ofMinutes(30));
+	}
+
+	@Test
+	void savedSessionRoundTrips() throws Exception {
+		FileSessionRepository repository = newRepository();
+		MapSession session = repository.createSession();
+		session.setAttribute(StudentPrincipal.SESSION_ATTRIBUTE, new StudentPrincipal(7L, 101, "Zoë Example", 42L));
+		repository.save(session);
+
+		// A second instance on the same directory sees the session
+		MapSession loaded = newRepository().findById(session.getId());
+
+		assertNotNull(loaded);
+		assertNotSame(session, loaded);
+		assertEquals(Duration.ofMinutes(30), loaded.getMaxInactiveInterval());
+		StudentPrincipal principal = loaded.getAttribute(StudentPrincipal.SESSION_ATTRIBUTE);
+		assertEquals(7L, principal.getId());
+		assertEquals(101, principal.getRollNo());
+		assertEquals("Zoë Example", principal.getName());
+		assertEquals(42L, principal.getLoginTime());
+	}
+
+	@Test
+	void changedIdMovesTheFile() throws Exception {
+		FileSessionRepository repository = newRepository();
+		MapSession session = repository.createSession();
+		repository.save(session);
+		MapSession loaded = repository.findById(session.getId());
+		String originalId = loaded.getId();
+
+		loaded.changeSessionId();
+		repository.save(loaded);
+
+		assertNull(repository.findById(originalId));
+		assertNotNull(repository.findById(loaded.getId()));
+		assertFalse(Files.exists(directory.resolve(originalId + ".session")));
+	}
+
+	@Test
+	void deleteRemovesTheFile() throws Exception {
+		FileSessionRepository repository = newRepository();
+		MapSession session = repository.createSession();
+		repository.save(session);
+
+		repository.deleteById(session.getId());
+
+		assertNull(repository.findById(session.getId()));
+		assertFalse(Files.exists(directory.resolve(session.getId() + ".session")));
+	}
+
+	@Test
+	void expiredSessionIsNotReturnedAndIsDeleted() throws Exception {
+		FileSessionRepository repository = newRepository();
+		MapSession session = repository.createSession();
+		session.setLastAccessedTime(Instant.now().minus(Duration.ofHours(1)));
+		repository.save(session);
+
+		assertNull(repository.findById(session.getId()));
+		assertFalse(Files.exists(directory.resolve(session.getId() + ".session")));
+	}
+
+	@Test
+	void cleanupRemovesOnlyStaleSessionFiles() throws Exception {
+		FileSessionRepository repository = newRepository();
+		MapSession stale = repository.createSession();
+		MapSession live = repository.createSession();
+		repository.save(stale);
+		repository.save(live);
+		FileTime hourAgo = FileTime.from(Instant.now().minus(Duration.ofHours(1)));
+		Files.setLastModifiedTime(directory.resolve(stale.getId() + ".session"), hourAgo);
+		Path leftoverTemp = Files.writeString(directory.resolve("abc.tmp"), "partial");
+		Files.setLastModifiedTime(leftoverTemp, hourAgo);
+		Path foreign = Files.writeString(directory.resolve("notes.txt"), "not a session");
+		Files.setLastModifiedTime(foreign, hourAgo);
+
+		assertEquals(2, repository.cleanUpExpiredSessions());
+
+		assertNull(repository.findById(stale.getId()));
+		assertNotNull(repository.findById(live.getId()));
+		assertFalse(Files.exists(leftoverTemp));
+		assertTrue(Files.exists(foreign));
+	}
+
+	@Test
+	void corruptFileIsDiscarded() throws Exception {
+		FileSessionRepository repository = newRepository();
+		Path file = Files.writeString(directory.resolve("corrupt-1.session"), "not a serialized session");
+
+		assertNull(repository.findById("corrupt-1"));
+		assertFalse(Files.exists(file));
+	}
+
+	@Test
+	void foreignObjectIsDiscarded() throws Exception {
+		FileSessionRepository repository = newRepository();
+		Path file = directory.resolve("foreign-1.session");
+		try (ObjectOutputStream out = new ObjectOutputStream(Files.newOutputStream(file))) {
+			out.writeObject("a string, not a MapSession");
+		}
+
+		assertNull(repository.findById("foreign-1"));
+		assertFalse(Files.exists(file));
+	}
+
+	@Test
+	void idsThatAreNotSessionIdsAreIgnored() throws Exception {
+		FileSessionRepository repository = newRepository();
+		Path sibling = Files.writeString(directory.resolve("notes.session"), "x");
+
+		assertNull(repository.findById("../" + directory.getFileName() + "/notes"));
+		assertNull(repository.findById(null));
+		repository.deleteById("../" + directory.getFileName() + "/notes");
+
+		assertTrue(Files.exists(sibling));
+	}
+}
@@ -0,0 +1,62 @@
+package com.example.Student_form.login.session;
+
+import com.example.Student_form.login.model.StudentPrincipal;
+import org.springframework.session.MapSession;
+
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Bytes per stored login session, before and after StudentPrincipal (not a
+ * unit test; run it by hand):
+ *
+ *   mvn -q test-compile exec:java -Dexec.classpathScope=test \
+ *       -Dexec.mainClass=com.example.Student_form.login.session.SessionSizeBenchmark
+ *
+ * The session used to hold the Student entity plus a separate loginTime
+ * attribute. Student is not Serializable, so that session could never be
+ * written; LegacyStudent mirrors its persistent fields to show what it would
+ * have cost (the lazy branch/course proxies would only have added to it).
+ */
+public class SessionSizeBenchmark {
+
+	// The persistent fields of the Student entity the session used to hold
+	static final class LegacyStudent implements Serializable {
+		private static final long serialVersionUID = 1L;
+
+		Long id = 1L;
+		String name = "Alice Example";
+		Integer rollNo = 101;
+		String branch = "CSE";
+		String course = "BTech";
+		Short branchId = 1;
+		Short courseId = 1;
+	}
+
+	public static void main(String[] args) throws Exception {
+		Path directory = Files.createTempDirectory("session-size");
+		FileSessionRepository repository = new FileSessionRepository(directory, Duration.ofMinutes(30));
+		long loginTime = System.currentTimeMillis();
+
+		MapSession before = repository.createSession();
+		before.setAttribute(StudentPrincipal.SESSION_ATTRIBUTE, new LegacyStudent());
+		before.setAttribute("loginTime", loginTime);
+
+		MapSession after = repository.createSession();
+		after.setAttribute(StudentPrincipal.SESSION_ATTRIBUTE,
+				new StudentPrincipal(1L, 101, "Alice Example", loginTime));
+
+		System.out.printf("entity session    %4d bytes%n", storedSize(repository, directory, before));
+		System.out.printf("principal session %4d bytes%n", storedSize(repository, directory, after));
+	}
+
+	private static long storedSize(FileSessionRepository repository, Path directory, MapSession session) throws Exception {
+		repository.save(session);
+		Path file = directory.resolve(session.getId() + ".session");
+		long size = Files.size(file);
+		repository.deleteById(session.getId());
+		return size;
+	}
+}
@@ -0,0 +1,59 @@
+package com.example.Student_form.login.status;
+
+import com.example.Student_form.login.model.LoginResponse;
+import com.example.Student_form.login.model.StudentPrincipal;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginStatusCookieTest {
+
+	private static final String SECRET = "c3R1ZGVudC1mb3JtLXN0YXR1cy1jb29raWUta2V5ISE=";
+
+	private final LoginStatusCookie statusCookie = newCookie(SECRET);
+
+	@Test
+	void verifiesIssuedCookie() {
+		String value = issue(new StudentPrincipal(7L, 101, "Zoë Example", 0L));
+
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.setCookies(new jakarta.servlet.http.Cookie("LOGIN_STATUS", value));
+		LoginResponse status = statusCookie.verify(request);
+
+		assertNotNull(status);
+		assertTrue(status.isSuccess());
+		assertEquals(101, status.getRollNo());
+		assertEquals("Zoë Example", status.getStudentName());
+	}
+
+	@Test
+	void rejectsTamperedExpiredAndForeignCookies() {
+		String value = issue(new StudentPrincipal(7L, 101, "Alice", 0L));
+		long now = System.currentTimeMillis() / 1000;
+
+		assertNotNull(statusCookie.verify(value, now));
+		assertNull(statusCookie.verify("102" + value.substring(3), now));
+		assertNull(statusCookie.verify(value.substring(0, value.length() - 1) + "A", now));
+		assertNull(statusCookie.verify(value, now + Duration.ofMinutes(6).toSeconds()));
+		assertNull(statusCookie.verify("garbage", now));
+		assertNull(newCookie("b3RoZXIta2V5LW90aGVyLWtleS1vdGhlci1rZXktIQ==").verify(value, now));
+	}
+
+	private String issue(StudentPrincipal principal) {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		statusCookie.issue(principal, response);
+		return response.getCookie("LOGIN_STATUS").getValue();
+	}
+
+	private static LoginStatusCookie newCookie(String secret) {
+		try {
+			return new LoginStatusCookie(true, "LOGIN_STATUS", Duration.ofMinutes(5), secret);
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,73 @@
+package com.example.Student_form.login.throttle;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Cost of LoginRateLimiter.tryAcquire (IP check plus roll number check) per
+ * login attempt (not a unit test; run it by hand):
+ *
+ *   mvn -q test-compile exec:java -Dexec.classpathScope=test \
+ *       -Dexec.mainClass=com.example.Student_form.login.throttle.LoginRateLimiterBenchmark
+ *
+ * "known" cycles through 4096 roll numbers and 1024 IPs that stay tracked, the
+ * steady state under normal traffic. "flood" uses a new roll number on every
+ * attempt and no client address (so the IP buckets never cut it short), which
+ * keeps the roll number map full at max-entries and includes eviction.
+ */
+public class LoginRateLimiterBenchmark {
+
+	private static final int MAX_ENTRIES = 100_000;
+	private static final int OPERATIONS = 2_000_000;
+	private static final int ROUNDS = 3;
+
+	private static final String[] CLIENTS = new String[1024];
+
+	static {
+		for (int i = 0; i < CLIENTS.length; i++) {
+			CLIENTS[i] = "10.0." + (i >> 8) + "." + (i & 255);
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+		for (int round = 1; round <= ROUNDS; round++) {
+			for (int threads : new int[] {1, 8}) {
+				run("known", threads, i -> i & 4095, i -> CLIENTS[i & 1023]);
+				run("flood", threads, i -> i, i -> null);
+			}
+		}
+	}
+
+	private static void run(String scenario, int threads, IntUnaryOperator rollNo,
+			IntFunction<String> client) throws Exception {
+		LoginRateLimiter limiter = new LoginRateLimiter(true, 5, 5, 20, 30, MAX_ENTRIES);
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		int perThread = OPERATIONS / threads;
+
+		long start = System.nanoTime();
+		List<Future<Long>> workers = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			int offset = t * perThread;
+			workers.add(pool.submit(() -> {
+				long waits = 0;
+				for (int i = offset; i < offset + perThread; i++) {
+					waits += limiter.tryAcquire(rollNo.applyAsInt(i), client.apply(i));
+				}
+				return waits;
+			}));
+		}
+		for (Future<Long> worker : workers) {
+			worker.get();
+		}
+		long elapsed = System.nanoTime() - start;
+		pool.shutdown();
+
+		System.out.printf("%-5s threads=%d  %6.1f ns/op  tracked roll numbers %d%n",
+				scenario, threads, elapsed / (double) (perThread * threads), limiter.getTrackedRollNumbers());
+	}
+}
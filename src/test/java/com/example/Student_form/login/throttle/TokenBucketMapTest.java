@@ -0,0 +1,106 @@
+package com.example.Student_form.login.throttle;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketMapTest {
+
+	private final AtomicLong clock = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+
+	@Test
+	void allowsBurstThenThrottlesUntilRefill() {
+		TokenBucketMap<Integer> buckets = new TokenBucketMap<>(3, 6, 100, clock::get);
+
+		assertEquals(0, buckets.tryAcquire(1));
+		assertEquals(0, buckets.tryAcquire(1));
+		assertEquals(0, buckets.tryAcquire(1));
+
+		long wait = buckets.tryAcquire(1);
+		assertEquals(TimeUnit.SECONDS.toNanos(10), wait);
+
+		// Other keys have their own bucket
+		assertEquals(0, buckets.tryAcquire(2));
+
+		clock.addAndGet(wait);
+		assertEquals(0, buckets.tryAcquire(1));
+		assertTrue(buckets.tryAcquire(1) > 0);
+	}
+
+	@Test
+	void resetRestoresFullBurst() {
+		TokenBucketMap<String> buckets = new TokenBucketMap<>(1, 1, 100, clock::get);
+
+		assertEquals(0, buckets.tryAcquire("10.0.0.1"));
+		assertTrue(buckets.tryAcquire("10.0.0.1") > 0);
+
+		buckets.reset("10.0.0.1");
+		assertEquals(0, buckets.tryAcquire("10.0.0.1"));
+	}
+
+	@Test
+	void evictsIdleBucketsBeforeActiveOnes() {
+		TokenBucketMap<Integer> buckets = new TokenBucketMap<>(2, 1, 10, clock::get);
+
+		// Key 0 is exhausted; keys 1-9 used one token each
+		buckets.tryAcquire(0);
+		buckets.tryAcquire(0);
+		for (int key = 1; key < 10; key++) {
+			buckets.tryAcquire(key);
+		}
+
+		// After 90s keys 1-9 are full again (idle), key 0 has one token back
+		clock.addAndGet(TimeUnit.SECONDS.toNanos(90));
+		assertEquals(0, buckets.tryAcquire(10));
+		assertEquals(2, buckets.size());
+
+		// Key 0 kept its state: a recreated bucket would allow two attempts
+		assertEquals(0, buckets.tryAcquire(0));
+		assertTrue(buckets.tryAcquire(0) > 0);
+	}
+
+	@Test
+	void neverGrowsPastMaxEntries() {
+		TokenBucketMap<Integer> buckets = new TokenBucketMap<>(5, 1, 100, clock::get);
+
+		for (int key = 0; key < 10_000; key++) {
+			buckets.tryAcquire(key);
+			assertTrue(buckets.size() <= 100);
+		}
+	}
+
+	@Test
+	void concurrentInsertsOvershootByAtMostTheInsertingThreads() throws Exception {
+		int threads = 8;
+		TokenBucketMap<Integer> buckets = new TokenBucketMap<>(5, 1, 1_000, clock::get);
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		AtomicInteger largest = new AtomicInteger();
+		try {
+			List<Future<?>> inserts = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				int offset = t * 1_000_000;
+				inserts.add(pool.submit(() -> {
+					for (int key = 0; key < 50_000; key++) {
+						buckets.tryAcquire(offset + key);
+						largest.accumulateAndGet(buckets.size(), Math::max);
+					}
+				}));
+			}
+			for (Future<?> insert : inserts) {
+				insert.get(30, TimeUnit.SECONDS);
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+		assertTrue(largest.get() <= 1_000 + threads, "largest size " + largest.get());
+	}
+}
@@ -0,0 +1,83 @@
+package com.example.Student_form.overload;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimitTest {
+
+	private static final long RTT = TimeUnit.MILLISECONDS.toNanos(10);
+
+	@Test
+	void rejectsOnceLimitIsReached() {
+		AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 10);
+
+		assertTrue(limit.tryAcquire());
+		assertTrue(limit.tryAcquire());
+		assertFalse(limit.tryAcquire());
+		assertEquals(1, limit.getRejectedCount());
+
+		limit.release(RTT, false);
+		assertTrue(limit.tryAcquire());
+	}
+
+	@Test
+	void growsWhileLatencyIsSteady() {
+		AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(4, 1, 50);
+
+		for (int i = 0; i < 200; i++) {
+			runSaturated(limit, RTT);
+		}
+		assertEquals(50, limit.getLimit());
+	}
+
+	@Test
+	void shrinksWhenLatencyRises() {
+		AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(40, 2, 50);
+		for (int i = 0; i < 50; i++) {
+			runSaturated(limit, RTT);
+		}
+		int before = limit.getLimit();
+
+		// Downstream queueing: the same work now takes four times as long
+		for (int i = 0; i < 10; i++) {
+			runSaturated(limit, 4 * RTT);
+		}
+		assertTrue(limit.getLimit() < before * 3 / 4, "limit " + limit.getLimit() + " was " + before);
+	}
+
+	@Test
+	void backsOffOnFailures() {
+		AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 2, 50);
+
+		for (int i = 0; i < 10; i++) {
+			assertTrue(limit.tryAcquire());
+			limit.release(RTT, true);
+		}
+		assertEquals(6, limit.getLimit());
+	}
+
+	@Test
+	void ignoresLatencyWhileLightlyLoaded() {
+		AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 2, 50);
+
+		for (int i = 0; i < 100; i++) {
+			assertTrue(limit.tryAcquire());
+			limit.release(i % 2 == 0 ? RTT : 10 * RTT, false);
+		}
+		assertEquals(20, limit.getLimit());
+	}
+
+	// Fill every slot, then complete them all with the given latency
+	private static void runSaturated(AdaptiveConcurrencyLimit limit, long rttNanos) {
+		int acquired = 0;
+		while (limit.tryAcquire()) {
+			acquired++;
+		}
+		for (int i = 0; i < acquired; i++) {
+			limit.release(rttNanos, false);
+		}
+	}
+}
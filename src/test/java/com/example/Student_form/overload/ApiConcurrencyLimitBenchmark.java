@@ -0,0 +1,120 @@
+package com.example.Student_form.overload;
+
+import jakarta.servlet.FilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Served and shed latency of /api reads under overload, with and without
+ * ApiConcurrencyLimitFilter (not a unit test; run it by hand):
+ *
+ *   mvn -q test-compile exec:java -Dexec.classpathScope=test \
+ *       -Dexec.mainClass=com.example.Student_form.overload.ApiConcurrencyLimitBenchmark
+ *
+ * Models MySQL as 4 connections that each take 5 ms per query. Two clients
+ * first establish the latency baseline, then 48 clients hammer reads; without
+ * a limit every request queues behind CLIENTS / CONNECTIONS others.
+ */
+public class ApiConcurrencyLimitBenchmark {
+
+	private static final int CONNECTIONS = 4;
+	private static final long QUERY_MILLIS = 5;
+	private static final int CLIENTS = 48;
+	private static final long WARMUP_MILLIS = 300;
+	private static final long RUN_MILLIS = 3_000;
+	private static final int ROUNDS = 3;
+
+	private static final Semaphore connections = new Semaphore(CONNECTIONS, true);
+
+	interface Filter {
+		void doFilter(MockHttpServletRequest request, MockHttpServletResponse response, FilterChain chain) throws Exception;
+	}
+
+	public static void main(String[] args) throws Exception {
+		FilterChain database = (req, res) -> {
+			try {
+				connections.acquire();
+				try {
+					Thread.sleep(QUERY_MILLIS);
+				} finally {
+					connections.release();
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		};
+
+		for (int round = 1; round <= ROUNDS; round++) {
+			run("unlimited", (req, res, chain) -> chain.doFilter(req, res), database);
+			ApiConcurrencyLimitFilter filter = new ApiConcurrencyLimitFilter(8, 2, 32, 8, 2, 32, 8, 2, 32, 1);
+			run("limited", filter::doFilter, database);
+		}
+	}
+
+	private static void run(String name, Filter filter, FilterChain database) throws Exception {
+		drive(filter, database, 2, WARMUP_MILLIS, null, null);
+		List<Double> served = Collections.synchronizedList(new ArrayList<>());
+		List<Double> shed = Collections.synchronizedList(new ArrayList<>());
+		drive(filter, database, CLIENTS, RUN_MILLIS, served, shed);
+
+		System.out.printf("%-9s served %6d  p50 %6.1f ms  p99 %6.1f ms   shed %6d  p99 %5.2f ms%n",
+				name, served.size(), percentile(served, 0.50), percentile(served, 0.99),
+				shed.size(), percentile(shed, 0.99));
+	}
+
+	private static void drive(Filter filter, FilterChain database, int clients, long millis,
+			List<Double> served, List<Double> shed) throws Exception {
+		ExecutorService pool = Executors.newFixedThreadPool(clients);
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int i = 0; i < clients; i++) {
+				futures.add(pool.submit(() -> {
+					while (System.nanoTime() < deadline) {
+						MockHttpServletResponse response = new MockHttpServletResponse();
+						long start = System.nanoTime();
+						filter.doFilter(new MockHttpServletRequest("GET", "/api/users/1"), response, database);
+						double elapsedMillis = (System.nanoTime() - start) / 1e6;
+						if (served == null) {
+							continue;
+						}
+						if (response.getStatus() == 503) {
+							shed.add(elapsedMillis);
+							// Honour Retry-After loosely so shed clients don't spin
+							Thread.sleep(QUERY_MILLIS);
+						} else {
+							served.add(elapsedMillis);
+						}
+					}
+					return null;
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get(30, TimeUnit.SECONDS);
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	private static double percentile(List<Double> samples, double p) {
+		List<Double> sorted;
+		synchronized (samples) {
+			sorted = new ArrayList<>(samples);
+		}
+		if (sorted.isEmpty()) {
+			return 0;
+		}
+		Collections.sort(sorted);
+		return sorted.get(Math.min(sorted.size() - 1, (int) (p * sorted.size())));
+	}
+}
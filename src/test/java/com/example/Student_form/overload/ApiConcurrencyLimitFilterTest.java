@@ -0,0 +1,207 @@
+package com.example.Student_form.overload;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ApiConcurrencyLimitFilterTest {
+
+	// Simulated database: 4 connections, 5 ms per query
+	private static final int DB_CAPACITY = 4;
+	private static final long QUERY_MILLIS = 5;
+	private static final int CLIENTS = 48;
+	private static final int MAX_LIMIT = 32;
+
+	@Test
+	void classifiesRoutes() {
+		assertEquals(ApiConcurrencyLimitFilter.RouteClass.READS, classify("GET", "/api/users/7"));
+		assertEquals(ApiConcurrencyLimitFilter.RouteClass.READS, classify("GET", "/api/users/rollno/12"));
+		assertEquals(ApiConcurrencyLimitFilter.RouteClass.SEARCH, classify("GET", "/api/users/search"));
+		assertEquals(ApiConcurrencyLimitFilter.RouteClass.SEARCH, classify("GET", "/api/users/branch/CSE"));
+		assertEquals(ApiConcurrencyLimitFilter.RouteClass.WRITES, classify("POST", "/api/users"));
+		assertEquals(ApiConcurrencyLimitFilter.RouteClass.WRITES, classify("DELETE", "/api/users/7"));
+	}
+
+	@Test
+	void rejectsWithRetryAfterWhenFull() throws Exception {
+		ApiConcurrencyLimitFilter filter = filter(1, 1, 1);
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService holder = Executors.newSingleThreadExecutor();
+		try {
+			Future<?> held = holder.submit(() -> {
+				filter.doFilter(request("POST", "/api/users"), new MockHttpServletResponse(), (req, res) -> await(release));
+				return null;
+			});
+			while (filter.limitFor(ApiConcurrencyLimitFilter.RouteClass.WRITES).getInFlight() == 0) {
+				Thread.sleep(1);
+			}
+
+			MockHttpServletResponse rejected = new MockHttpServletResponse();
+			filter.doFilter(request("PATCH", "/api/users/1"), rejected, (req, res) -> fail("should be shed"));
+			assertEquals(503, rejected.getStatus());
+			assertEquals("1", rejected.getHeader("Retry-After"));
+			assertTrue(rejected.getContentAsString().contains("\"success\":false"));
+
+			// Other route classes have their own limit
+			MockHttpServletResponse read = new MockHttpServletResponse();
+			filter.doFilter(request("GET", "/api/users/1"), read, (req, res) -> {});
+			assertEquals(200, read.getStatus());
+
+			release.countDown();
+			held.get(5, TimeUnit.SECONDS);
+		} finally {
+			holder.shutdownNow();
+		}
+	}
+
+	@Test
+	void asyncRequestsHoldTheirSlotUntilComplete() throws Exception {
+		ApiConcurrencyLimitFilter filter = filter(1, 1, 1);
+		AdaptiveConcurrencyLimit reads = filter.limitFor(ApiConcurrencyLimitFilter.RouteClass.READS);
+		MockHttpServletRequest request = request("GET", "/api/users/1");
+		request.setAsyncSupported(true);
+
+		filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+		assertEquals(1, reads.getInFlight());
+
+		MockHttpServletResponse rejected = new MockHttpServletResponse();
+		filter.doFilter(request("GET", "/api/users/2"), rejected, (req, res) -> fail("should be shed"));
+		assertEquals(503, rejected.getStatus());
+
+		request.getAsyncContext().complete();
+		assertEquals(0, reads.getInFlight());
+	}
+
+	@Test
+	void overloadShedsExcessAndBoundsServedLatency() throws Exception {
+		Semaphore connections = new Semaphore(DB_CAPACITY, true);
+		AtomicInteger active = new AtomicInteger();
+		AtomicInteger peak = new AtomicInteger();
+		FilterChain database = (req, res) -> {
+			peak.accumulateAndGet(active.incrementAndGet(), Math::max);
+			try {
+				connections.acquire();
+				try {
+					Thread.sleep(QUERY_MILLIS);
+				} finally {
+					connections.release();
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} finally {
+				active.decrementAndGet();
+			}
+		};
+
+		ApiConcurrencyLimitFilter filter = filter(8, 2, MAX_LIMIT);
+		Result limited = drive(filter::doFilter, database);
+
+		// More clients than the limit allows: the excess is shed with 503, never admitted
+		assertFalse(limited.shed.isEmpty(), "overload should shed requests");
+		assertEquals(limited.shed.size(),
+				filter.limitFor(ApiConcurrencyLimitFilter.RouteClass.READS).getRejectedCount());
+		assertTrue(peak.get() <= MAX_LIMIT, "peak concurrency " + peak.get());
+		// Admitted requests queue behind at most MAX_LIMIT / DB_CAPACITY others (40 ms);
+		// twice that leaves room for scheduling noise on a 1-CPU runner
+		double bound = 2.0 * MAX_LIMIT / DB_CAPACITY * QUERY_MILLIS;
+		assertTrue(limited.percentile(0.99) < bound,
+				"served p99 " + limited.percentile(0.99) + "ms vs bound " + bound + "ms");
+	}
+
+	interface Filter {
+		void doFilter(MockHttpServletRequest request, MockHttpServletResponse response, FilterChain chain) throws Exception;
+	}
+
+	static final class Result {
+		final List<Double> served = Collections.synchronizedList(new ArrayList<>());
+		final List<Double> shed = Collections.synchronizedList(new ArrayList<>());
+
+		double percentile(double p) {
+			return ApiConcurrencyLimitFilterTest.percentile(served, p);
+		}
+	}
+
+	// Light traffic establishes the latency baseline, then every client hammers reads
+	private static Result drive(Filter filter, FilterChain database) throws Exception {
+		runClients(filter, database, 2, 300, null);
+		Result result = new Result();
+		runClients(filter, database, CLIENTS, 1500, result);
+		return result;
+	}
+
+	private static void runClients(Filter filter, FilterChain database, int clients, long millis, Result result)
+			throws Exception {
+		ExecutorService pool = Executors.newFixedThreadPool(clients);
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int i = 0; i < clients; i++) {
+				futures.add(pool.submit(() -> {
+					while (System.nanoTime() < deadline) {
+						MockHttpServletResponse response = new MockHttpServletResponse();
+						long start = System.nanoTime();
+						filter.doFilter(request("GET", "/api/users/1"), response, database);
+						double elapsedMillis = (System.nanoTime() - start) / 1e6;
+						if (result == null) {
+							continue;
+						}
+						if (response.getStatus() == 503) {
+							result.shed.add(elapsedMillis);
+							// Honour Retry-After loosely so shed clients don't spin
+							Thread.sleep(QUERY_MILLIS);
+						} else {
+							result.served.add(elapsedMillis);
+						}
+					}
+					return null;
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get(30, TimeUnit.SECONDS);
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	private static double percentile(List<Double> samples, double p) {
+		List<Double> sorted;
+		synchronized (samples) {
+			sorted = new ArrayList<>(samples);
+		}
+		if (sorted.isEmpty()) {
+			return 0;
+		}
+		Collections.sort(sorted);
+		return sorted.get(Math.min(sorted.size() - 1, (int) (p * sorted.size())));
+	}
+
+	private static ApiConcurrencyLimitFilter filter(int initial, int min, int max) {
+		return new ApiConcurrencyLimitFilter(initial, min, max, initial, min, max, initial, min, max, 1);
+	}
+
+	private static ApiConcurrencyLimitFilter.RouteClass classify(String method, String uri) {
+		return ApiConcurrencyLimitFilter.classify(request(method, uri));
+	}
+
+	private static MockHttpServletRequest request(String method, String uri) {
+		return new MockHttpServletRequest(method, uri);
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
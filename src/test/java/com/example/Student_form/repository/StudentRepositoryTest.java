@@ -0,0 +1,127 @@
+package com.example.Student_form.repository;
+
+import com.example.Student_form.model.Branch;
+import com.example.Student_form.model.Course;
+import com.example.Student_form.model.Student;
+import com.example.Student_form.service.ReferenceDataService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Runs the bulk JPQL statements against an embedded H2 database
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"})
+class StudentRepositoryTest {
+
+	@Autowired
+	private StudentRepository studentRepository;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	// Student's @PostLoad listener fills in names through it
+	@MockitoBean
+	private ReferenceDataService referenceDataService;
+
+	private short cse, ece, me;
+	private short btech, mtech;
+
+	@BeforeEach
+	void seed() {
+		Branch cseBranch = entityManager.persist(new Branch("CSE"));
+		Branch eceBranch = entityManager.persist(new Branch("ECE"));
+		me = entityManager.persist(new Branch("ME")).getId();
+		Course btechCourse = entityManager.persist(new Course("BTech"));
+		Course mtechCourse = entityManager.persist(new Course("MTech"));
+		cse = cseBranch.getId();
+		ece = eceBranch.getId();
+		btech = btechCourse.getId();
+		mtech = mtechCourse.getId();
+
+		student("Alice", 101, cseBranch, btechCourse);
+		student("Bob", 102, cseBranch, mtechCourse);
+		student("Carol", 103, eceBranch, btechCourse);
+		entityManager.flush();
+	}
+
+	@Test
+	void reassignByBranchChangesOnlyThatBranch() {
+		assertEquals(2, studentRepository.bulkReassignByBranchId(cse, me, null));
+
+		assertEquals(me, branchOf(101));
+		assertEquals(me, branchOf(102));
+		assertEquals(ece, branchOf(103));
+		// A null new course keeps each student's own course
+		assertEquals(btech, courseOf(101));
+		assertEquals(mtech, courseOf(102));
+	}
+
+	@Test
+	void reassignByBranchCanChangeBranchAndCourse() {
+		assertEquals(1, studentRepository.bulkReassignByBranchId(ece, cse, mtech));
+
+		assertEquals(cse, branchOf(103));
+		assertEquals(mtech, courseOf(103));
+	}
+
+	@Test
+	void reassignByCourseKeepsBranchWhenOnlyCourseChanges() {
+		assertEquals(2, studentRepository.bulkReassignByCourseId(btech, null, mtech));
+
+		assertEquals(mtech, courseOf(101));
+		assertEquals(mtech, courseOf(103));
+		assertEquals(cse, branchOf(101));
+		assertEquals(ece, branchOf(103));
+	}
+
+	@Test
+	void reassignOfAnUnusedIdAffectsNothing() {
+		assertEquals(0, studentRepository.bulkReassignByBranchId(me, cse, mtech));
+		assertEquals(0, studentRepository.bulkDeleteByCourseId((short) 999));
+		assertEquals(3, studentRepository.count());
+	}
+
+	@Test
+	void deleteByBranchAndCourse() {
+		assertEquals(2, studentRepository.bulkDeleteByBranchId(cse));
+		assertEquals(1, studentRepository.count());
+
+		assertEquals(1, studentRepository.bulkDeleteByCourseId(btech));
+		assertEquals(0, studentRepository.count());
+	}
+
+	@Test
+	void bulkStatementsClearStaleEntities() {
+		Student alice = studentRepository.findByRollNo(101).orElseThrow();
+
+		studentRepository.bulkReassignByBranchId(cse, me, null);
+
+		assertFalse(entityManager.getEntityManager().contains(alice));
+		assertEquals(me, studentRepository.findByRollNo(101).orElseThrow().getBranchId());
+	}
+
+	private void student(String name, int rollNo, Branch branch, Course course) {
+		Student student = new Student(name, rollNo, branch.getName(), course.getName());
+		student.setBranchId(branch.getId());
+		student.setCourseId(course.getId());
+		entityManager.persist(student);
+	}
+
+	private short branchOf(int rollNo) {
+		return jdbcTemplate.queryForObject("SELECT branch_id FROM students WHERE roll_no = ?", Short.class, rollNo);
+	}
+
+	private short courseOf(int rollNo) {
+		return jdbcTemplate.queryForObject("SELECT course_id FROM students WHERE roll_no = ?", Short.class, rollNo);
+	}
+}
@@ -0,0 +1,129 @@
+package com.example.Student_form.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Mixed fast/slow query throughput with blocking vs async handlers (not a
+ * unit test; run it by hand):
+ *
+ *   mvn -q test-compile exec:java -Dexec.classpathScope=test \
+ *       -Dexec.mainClass=com.example.Student_form.service.DatabaseExecutorBenchmark
+ *
+ * Models Tomcat as a fixed pool of servlet threads and MySQL as a pool of
+ * connections that each serve one query at a time. Blocking handlers hold a
+ * servlet thread for the whole query; async handlers hand the query to
+ * DatabaseExecutor and return the servlet thread at once.
+ */
+public class DatabaseExecutorBenchmark {
+
+	private static final int SERVLET_THREADS = 20;
+	private static final int CONNECTIONS = 10;
+	private static final long FAST_QUERY_MILLIS = 2;
+	private static final long SLOW_QUERY_MILLIS = 200;
+	private static final int FAST_CLIENTS = 40;
+	private static final int SLOW_CLIENTS = 40;
+	private static final long RUN_MILLIS = 5_000;
+
+	private static final Semaphore connections = new Semaphore(CONNECTIONS, true);
+
+	interface Handler {
+		CompletableFuture<String> handle(DatabaseExecutor.Lane lane, Supplier<String> query);
+	}
+
+	static final class Stats {
+		final LongAdder completed = new LongAdder();
+		final List<Double> latencies = Collections.synchronizedList(new ArrayList<>());
+
+		String summary(String name) {
+			List<Double> sorted;
+			synchronized (latencies) {
+				sorted = new ArrayList<>(latencies);
+			}
+			Collections.sort(sorted);
+			double p50 = sorted.isEmpty() ? 0 : sorted.get(sorted.size() / 2);
+			double p99 = sorted.isEmpty() ? 0 : sorted.get(Math.min(sorted.size() - 1, (int) (sorted.size() * 0.99)));
+			return String.format("%-5s %8.0f req/s  p50 %7.1f ms  p99 %7.1f ms",
+					name, completed.sum() * 1000.0 / RUN_MILLIS, p50, p99);
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+		run("blocking", false);
+		run("async", true);
+	}
+
+	private static void run(String mode, boolean async) throws Exception {
+		ExecutorService servletThreads = Executors.newFixedThreadPool(SERVLET_THREADS);
+		DatabaseExecutor databaseExecutor = new DatabaseExecutor(async, CONNECTIONS, 4, 1_000, Duration.ofSeconds(30));
+
+		// Blocking: the whole query runs on the servlet thread.
+		// Async: the servlet thread only dispatches to the database executor.
+		Handler handler = (lane, query) -> {
+			CompletableFuture<String> response = new CompletableFuture<>();
+			servletThreads.execute(() -> databaseExecutor.submit(lane, query).whenComplete((result, failure) -> {
+				if (failure != null) {
+					response.completeExceptionally(failure);
+				} else {
+					response.complete(result);
+				}
+			}));
+			return response;
+		};
+
+		Stats fast = new Stats();
+		Stats slow = new Stats();
+		ExecutorService clients = Executors.newFixedThreadPool(FAST_CLIENTS + SLOW_CLIENTS);
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(RUN_MILLIS);
+		List<Future<?>> running = new ArrayList<>();
+		for (int i = 0; i < FAST_CLIENTS; i++) {
+			running.add(clients.submit(() -> client(handler, DatabaseExecutor.Lane.LOOKUP, FAST_QUERY_MILLIS, deadline, fast)));
+		}
+		for (int i = 0; i < SLOW_CLIENTS; i++) {
+			running.add(clients.submit(() -> client(handler, DatabaseExecutor.Lane.SCAN, SLOW_QUERY_MILLIS, deadline, slow)));
+		}
+		for (Future<?> client : running) {
+			client.get();
+		}
+
+		System.out.println(mode);
+		System.out.println("  " + fast.summary("fast"));
+		System.out.println("  " + slow.summary("slow"));
+
+		clients.shutdown();
+		servletThreads.shutdown();
+		databaseExecutor.shutdown();
+	}
+
+	private static Void client(Handler handler, DatabaseExecutor.Lane lane, long queryMillis, long deadline, Stats stats)
+			throws Exception {
+		while (System.nanoTime() < deadline) {
+			long start = System.nanoTime();
+			handler.handle(lane, () -> query(queryMillis)).get();
+			if (System.nanoTime() < deadline) {
+				stats.completed.increment();
+				stats.latencies.add((System.nanoTime() - start) / 1e6);
+			}
+		}
+		return null;
+	}
+
+	private static String query(long millis) {
+		try {
+			connections.acquire();
+			try {
+				Thread.sleep(millis);
+			} finally {
+				connections.release();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return "ok";
+	}
+}
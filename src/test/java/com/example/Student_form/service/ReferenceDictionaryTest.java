@@ -0,0 +1,122 @@
+package com.example.Student_form.service;
+
+import com.example.Student_form.model.Branch;
+import com.example.Student_form.repository.BranchRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ReferenceDictionaryTest {
+
+	private final BranchRepository repository = mock(BranchRepository.class);
+	private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+	private final ReferenceDictionary<Branch> branches =
+			new ReferenceDictionary<>(repository, Branch::new, clock::get);
+
+	@BeforeEach
+	void load() {
+		when(repository.findAll()).thenReturn(List.of(branch(1, "CSE"), branch(2, "ECE")));
+		when(repository.findByNameIgnoreCase(anyString())).thenReturn(Optional.empty());
+		branches.reload();
+		clearInvocations(repository);
+	}
+
+	@Test
+	void cachedNamesResolveWithoutQueries() {
+		assertEquals(Optional.of((short) 1), branches.findId("CSE"));
+		assertEquals(Optional.of((short) 1), branches.findId("  cse "));
+		assertEquals((short) 2, branches.resolveId("ece"));
+		assertEquals("ECE", branches.nameOf((short) 2));
+		assertEquals(2, branches.size());
+		verifyNoInteractions(repository);
+	}
+
+	@Test
+	void blankNamesAreNotLookedUp() {
+		assertEquals(Optional.empty(), branches.findId(null));
+		assertEquals(Optional.empty(), branches.findId("  "));
+		verifyNoInteractions(repository);
+	}
+
+	@Test
+	void unknownNameQueriesOncePerMissTtl() {
+		assertEquals(Optional.empty(), branches.findId("Civil"));
+		assertEquals(Optional.empty(), branches.findId("civil"));
+		assertEquals(Optional.empty(), branches.findId(" CIVIL "));
+		verify(repository, times(1)).findByNameIgnoreCase(anyString());
+
+		// Another instance adds the row; it is picked up once the miss expires
+		when(repository.findByNameIgnoreCase("Civil")).thenReturn(Optional.of(branch(3, "Civil")));
+		clock.addAndGet(ReferenceDictionary.MISS_TTL_NANOS);
+		assertEquals(Optional.of((short) 3), branches.findId("Civil"));
+		assertEquals(Optional.of((short) 3), branches.findId("civil"));
+		verify(repository, times(2)).findByNameIgnoreCase(anyString());
+		assertEquals(0, branches.missCount());
+	}
+
+	@Test
+	void resolvingAMissedNameCreatesItAndClearsTheMiss() {
+		assertEquals(Optional.empty(), branches.findId("Mech"));
+		when(repository.saveAndFlush(any(Branch.class))).thenReturn(branch(4, "Mech"));
+
+		assertEquals((short) 4, branches.resolveId(" Mech "));
+		assertEquals(Optional.of((short) 4), branches.findId("mech"));
+		assertEquals("Mech", branches.nameOf((short) 4));
+		assertEquals(0, branches.missCount());
+		verify(repository).saveAndFlush(argThat(entry -> "Mech".equals(entry.getName())));
+	}
+
+	@Test
+	void concurrentInsertByAnotherInstanceUsesTheExistingRow() {
+		when(repository.saveAndFlush(any(Branch.class)))
+				.thenThrow(new DataIntegrityViolationException("duplicate name"));
+		when(repository.findByNameIgnoreCase("IT"))
+				.thenReturn(Optional.empty())
+				.thenReturn(Optional.of(branch(5, "IT")));
+
+		assertEquals((short) 5, branches.resolveId("IT"));
+		assertEquals(Optional.of((short) 5), branches.findId("it"));
+	}
+
+	@Test
+	void missCacheIsBounded() {
+		for (int i = 0; i < ReferenceDictionary.MAX_MISSES * 3; i++) {
+			branches.findId("unknown-" + i);
+		}
+		assertTrue(branches.missCount() <= ReferenceDictionary.MAX_MISSES);
+	}
+
+	@Test
+	void reloadForgetsMisses() {
+		branches.findId("Civil");
+		assertEquals(1, branches.missCount());
+
+		when(repository.findAll()).thenReturn(List.of(branch(1, "CSE"), branch(2, "ECE"), branch(3, "Civil")));
+		branches.reload();
+		assertEquals(0, branches.missCount());
+		assertEquals(Optional.of((short) 3), branches.findId("civil"));
+	}
+
+	@Test
+	void unknownIdIsLoadedOnDemand() {
+		when(repository.findById((short) 7)).thenReturn(Optional.of(branch(7, "Chem")));
+
+		assertEquals("Chem", branches.nameOf((short) 7));
+		assertEquals(Optional.of((short) 7), branches.findId("CHEM"));
+		assertNull(branches.nameOf(null));
+	}
+
+	private static Branch branch(int id, String name) {
+		Branch branch = new Branch(name);
+		branch.setId((short) id);
+		return branch;
+	}
+}
@@ -0,0 +1,107 @@
+package com.example.Student_form.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+	private final SingleFlight<Long, String> flights = new SingleFlight<>();
+	private final ExecutorService callers = Executors.newFixedThreadPool(8);
+
+	@AfterEach
+	void shutdown() {
+		callers.shutdownNow();
+	}
+
+	@Test
+	void concurrentCallersShareOneLoad() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger loads = new AtomicInteger();
+
+		List<Future<String>> results = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			results.add(callers.submit(() -> flights.execute(1L, () -> {
+				loads.incrementAndGet();
+				await(release);
+				return "student-1";
+			})));
+		}
+		waitUntil(() -> flights.getCoalescedCount() == 7);
+		release.countDown();
+
+		for (Future<String> result : results) {
+			assertEquals("student-1", result.get(5, TimeUnit.SECONDS));
+		}
+		assertEquals(1, loads.get());
+		assertEquals(1, flights.getExecutedCount());
+		assertEquals(0, flights.getInFlightCount());
+	}
+
+	@Test
+	void errorReachesEveryWaiter() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		IllegalStateException failure = new IllegalStateException("database down");
+
+		List<Future<String>> results = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			results.add(callers.submit(() -> flights.execute(2L, () -> {
+				await(release);
+				throw failure;
+			})));
+		}
+		waitUntil(() -> flights.getCoalescedCount() == 3);
+		release.countDown();
+
+		for (Future<String> result : results) {
+			ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+			assertSame(failure, e.getCause());
+		}
+
+		// The failed load is not remembered
+		assertEquals("recovered", flights.execute(2L, () -> "recovered"));
+	}
+
+	@Test
+	void interruptedWaiterDoesNotAffectOthers() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+
+		Future<String> leader = callers.submit(() -> flights.execute(3L, () -> {
+			await(release);
+			return "student-3";
+		}));
+		waitUntil(() -> flights.getInFlightCount() == 1);
+		Future<String> cancelled = callers.submit(() -> flights.execute(3L, () -> "unexpected"));
+		Future<String> follower = callers.submit(() -> flights.execute(3L, () -> "unexpected"));
+		waitUntil(() -> flights.getCoalescedCount() == 2);
+
+		cancelled.cancel(true);
+		release.countDown();
+
+		assertEquals("student-3", leader.get(5, TimeUnit.SECONDS));
+		assertEquals("student-3", follower.get(5, TimeUnit.SECONDS));
+		assertTrue(cancelled.isCancelled());
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static void waitUntil(java.util.function.BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!condition.getAsBoolean()) {
+			assertTrue(System.nanoTime() < deadline, "condition not reached");
+			Thread.sleep(5);
+		}
+	}
+}
@@ -0,0 +1,174 @@
+package com.example.Student_form.service;
+
+import com.example.Student_form.exception.InvalidStudentDataException;
+import com.example.Student_form.model.Student;
+import com.example.Student_form.repository.StudentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class StudentServiceTest {
+
+	private final StudentRepository studentRepository = mock(StudentRepository.class);
+	private final ReferenceDataService referenceDataService = mock(ReferenceDataService.class);
+	private final StudentService service = new StudentService();
+	private final ExecutorService callers = Executors.newFixedThreadPool(4);
+
+	StudentServiceTest() {
+		ReflectionTestUtils.setField(service, "studentRepository", studentRepository);
+		ReflectionTestUtils.setField(service, "referenceDataService", referenceDataService);
+		ReflectionTestUtils.setField(service, "meterRegistry", new SimpleMeterRegistry());
+	}
+
+	@AfterEach
+	void shutdown() {
+		callers.shutdownNow();
+	}
+
+	@Test
+	void coalescedLookupsGetTheirOwnDetachedCopies() throws Exception {
+		Student managed = student(1L, "Alice", 101);
+		CountDownLatch release = new CountDownLatch(1);
+		when(studentRepository.findById(1L)).thenAnswer(invocation -> {
+			release.await(5, TimeUnit.SECONDS);
+			return Optional.of(managed);
+		});
+
+		List<Future<Optional<Student>>> lookups = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			lookups.add(callers.submit(() -> service.getStudentById(1L)));
+		}
+		SingleFlight<?, ?> flights = (SingleFlight<?, ?>) ReflectionTestUtils.getField(service, "lookupsById");
+		waitUntil(() -> flights.getCoalescedCount() == 3);
+		release.countDown();
+
+		Set<Student> results = Collections.newSetFromMap(new IdentityHashMap<>());
+		for (Future<Optional<Student>> lookup : lookups) {
+			Student result = lookup.get(5, TimeUnit.SECONDS).orElseThrow();
+			assertNotSame(managed, result);
+			assertEquals("Alice", result.getName());
+			assertEquals("CSE", result.getBranch());
+			assertEquals((short) 1, result.getBranchId());
+			results.add(result);
+		}
+		assertEquals(4, results.size());
+		verify(studentRepository, times(1)).findById(1L);
+
+		// One caller changing its copy affects neither the others nor the entity
+		Student first = results.iterator().next();
+		first.setName("Changed");
+		assertEquals("Alice", managed.getName());
+		assertEquals(1, results.stream().filter(s -> s.getName().equals("Changed")).count());
+	}
+
+	@Test
+	void rollNoLookupReturnsACopy() {
+		Student managed = student(2L, "Bob", 102);
+		when(studentRepository.findByRollNo(102)).thenReturn(Optional.of(managed));
+
+		Student result = service.getStudentByRollNo(102).orElseThrow();
+
+		assertNotSame(managed, result);
+		assertEquals(2L, result.getId());
+		assertEquals("BTech", result.getCourse());
+		assertTrue(service.getStudentByRollNo(999).isEmpty());
+	}
+
+	@Test
+	void bulkUpdateRejectsNameAndRollNoChanges() {
+		Student rename = new Student();
+		rename.setName("Everyone");
+		rename.setBranch("ECE");
+		Student renumber = new Student();
+		renumber.setRollNo(1);
+		renumber.setCourse("MTech");
+
+		assertThrows(InvalidStudentDataException.class, () -> service.bulkUpdateByBranch("CSE", rename));
+		assertThrows(InvalidStudentDataException.class, () -> service.bulkUpdateByCourse("BTech", renumber));
+		verifyNoInteractions(studentRepository, referenceDataService);
+	}
+
+	@Test
+	void bulkUpdateRejectsAnEmptyChangeSet() {
+		Student blank = new Student();
+		blank.setBranch("  ");
+
+		assertThrows(InvalidStudentDataException.class, () -> service.bulkUpdateByBranch("CSE", new Student()));
+		assertThrows(InvalidStudentDataException.class, () -> service.bulkUpdateByCourse("BTech", blank));
+		assertThrows(InvalidStudentDataException.class, () -> service.bulkUpdateByBranch("CSE", null));
+		verifyNoInteractions(studentRepository, referenceDataService);
+	}
+
+	@Test
+	void bulkOperationsOnAnUnknownSourceAffectNothing() {
+		when(referenceDataService.findBranchId("Civil")).thenReturn(Optional.empty());
+		when(referenceDataService.findCourseId("PhD")).thenReturn(Optional.empty());
+		Student changes = new Student();
+		changes.setBranch("ECE");
+
+		assertEquals(0, service.bulkUpdateByBranch("Civil", changes));
+		assertEquals(0, service.bulkUpdateByCourse("PhD", changes));
+		assertEquals(0, service.bulkDeleteByBranch("Civil"));
+		assertEquals(0, service.bulkDeleteByCourse("PhD"));
+		// Nothing is resolved or created for the target, and no statement runs
+		verify(referenceDataService, never()).resolveBranchId(any());
+		verifyNoInteractions(studentRepository);
+	}
+
+	@Test
+	void bulkUpdateResolvesTargetsAndRunsOneStatement() {
+		when(referenceDataService.findBranchId("CSE")).thenReturn(Optional.of((short) 1));
+		when(referenceDataService.resolveCourseId("MTech")).thenReturn((short) 4);
+		when(studentRepository.bulkReassignByBranchId((short) 1, null, (short) 4)).thenReturn(12);
+		Student changes = new Student();
+		changes.setCourse("MTech");
+
+		assertEquals(12, service.bulkUpdateByBranch("CSE", changes));
+
+		// An omitted branch is passed as null, which keeps each student's branch
+		verify(studentRepository).bulkReassignByBranchId((short) 1, null, (short) 4);
+		verify(referenceDataService, never()).resolveBranchId(any());
+	}
+
+	@Test
+	void bulkUpdateByCourseCanMoveBranchAndCourse() {
+		when(referenceDataService.findCourseId("BTech")).thenReturn(Optional.of((short) 2));
+		when(referenceDataService.resolveBranchId("ECE")).thenReturn((short) 3);
+		when(referenceDataService.resolveCourseId("MTech")).thenReturn((short) 4);
+		when(studentRepository.bulkReassignByCourseId((short) 2, (short) 3, (short) 4)).thenReturn(5);
+		Student changes = new Student();
+		changes.setBranch("ECE");
+		changes.setCourse("MTech");
+
+		assertEquals(5, service.bulkUpdateByCourse("BTech", changes));
+	}
+
+	private static Student student(long id, String name, int rollNo) {
+		Student student = new Student(name, rollNo, "CSE", "BTech");
+		student.setId(id);
+		student.setBranchId((short) 1);
+		student.setCourseId((short) 1);
+		return student;
+	}
+
+	private static void waitUntil(java.util.function.BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!condition.getAsBoolean()) {
+			assertTrue(System.nanoTime() < deadline, "condition not reached");
+			Thread.sleep(5);
+		}
+	}
+}